@@ -3,6 +3,8 @@ package com.ptda.tracker;
 import com.ptda.tracker.models.admin.Admin;
 import com.ptda.tracker.models.user.User;
 import com.ptda.tracker.services.administration.AdminService;
+import com.ptda.tracker.services.tracker.ExpenseRollupService;
+import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.services.user.UserService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,8 @@ public class DataInit {
 
     private final AdminService adminService;
     private final UserService userService;
+    private final ExpenseService expenseService;
+    private final ExpenseRollupService expenseRollupService;
 
     @PostConstruct
     public void init() {
@@ -23,6 +27,10 @@ public class DataInit {
             System.out.println("Creating admin...");
             createAdmin();
         }
+        if (expenseRollupService.isEmpty() && expenseService.getCount() > 0) {
+            System.out.println("Building expense rollups...");
+            expenseRollupService.rebuildAll();
+        }
     }
 
     private void createAdmin() {
@@ -5,22 +5,30 @@ import com.formdev.flatlaf.FlatLightLaf;
 import com.formdev.flatlaf.util.SystemInfo;
 import com.ptda.tracker.config.AppConfig;
 import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.services.tracker.StatementService;
 import com.ptda.tracker.services.user.UserService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.ui.user.forms.LoginForm;
 import com.ptda.tracker.ui.user.screens.CustomSplashScreen;
 import com.ptda.tracker.ui.user.screens.NavigationScreen;
 import com.ptda.tracker.util.DateFormatManager;
+import com.ptda.tracker.util.EdtMonitor;
 import com.ptda.tracker.util.LocaleManager;
 import com.ptda.tracker.util.ScreenNames;
 import com.ptda.tracker.util.UserSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
 import java.lang.reflect.InaccessibleObjectException;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
@@ -28,6 +36,8 @@ import java.util.prefs.Preferences;
 
 @SpringBootApplication
 public class TrackerApplication {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrackerApplication.class);
+    private static final String GENERATE_STATEMENTS = "--generate-statements";
 
     public static void main(String[] args) {
         Preferences preferences = Preferences.userNodeForPackage(TrackerApplication.class);
@@ -38,6 +48,24 @@ public class TrackerApplication {
         String dateFormat = preferences.get("date_format", "dd-MM-yyyy");
         DateFormatManager.getInstance().setDateFormat(dateFormat);
 
+        for (String arg : args) {
+            if (arg.equals(GENERATE_STATEMENTS) || arg.startsWith(GENERATE_STATEMENTS + "=")) {
+                YearMonth month;
+                try {
+                    month = arg.equals(GENERATE_STATEMENTS)
+                            ? YearMonth.now().minusMonths(1)
+                            : YearMonth.parse(arg.substring(GENERATE_STATEMENTS.length() + 1));
+                } catch (DateTimeParseException e) {
+                    LOGGER.error("Invalid month in {}. Usage: {}[=yyyy-MM], the previous month by default",
+                            arg, GENERATE_STATEMENTS);
+                    System.exit(2);
+                    return;
+                }
+                generateStatements(args, month);
+                return;
+            }
+        }
+
         try {
             setLookAndFeel();
         } catch (UnsupportedLookAndFeelException e) {
@@ -54,6 +82,7 @@ public class TrackerApplication {
         UserService userService = context.getBean(UserService.class);
         Optional<User> user = userService.getByEmail(username);
 
+        EdtMonitor.getInstance().start();
         SwingUtilities.invokeLater(() -> {
             MainFrame mainFrame = new MainFrame(context);
             if (user.isPresent() && Objects.equals(encryptedPassword, user.get().getPassword())) {
@@ -80,6 +109,29 @@ public class TrackerApplication {
         });
     }
 
+    /**
+     * Writes the monthly statements without showing any window, for scheduled runs. Defaults to the last
+     * complete month, and exits with a non-zero code if any statement could not be written.
+     */
+    private static void generateStatements(String[] args, YearMonth month) {
+        SpringApplication application = new SpringApplication(TrackerApplication.class);
+        application.setHeadless(true);
+        ConfigurableApplicationContext context = application.run(args);
+
+        int exitCode;
+        try {
+            StatementService.StatementRun run = context.getBean(StatementService.class).generateMonthlyStatements(month);
+            System.out.printf("%d statements written to %s in %d ms, %d failed%n",
+                    run.getTimings().size(), run.getDirectory().toAbsolutePath(), run.getElapsedMillis(), run.getFailedCount());
+            exitCode = run.getFailedCount() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            LOGGER.error("Could not write the statements for {}", month, e);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+
     private static void setLookAndFeel() throws UnsupportedLookAndFeelException {
         if (SystemInfo.isMacOS) {
             System.setProperty("apple.laf.useScreenMenuBar", "true");
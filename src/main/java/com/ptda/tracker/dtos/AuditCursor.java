@@ -0,0 +1,22 @@
+package com.ptda.tracker.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position of an entry in an audit timeline ordered by revision descending, then budgets before expenses,
+ * then entity id descending. The next page is read after it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditCursor {
+    private int revision;
+    private String entityType;
+    private Long entityId;
+
+    public static AuditCursor of(AuditEntryDto entry) {
+        return new AuditCursor(entry.getRevision(), entry.getEntityType(), entry.getEntityId());
+    }
+}
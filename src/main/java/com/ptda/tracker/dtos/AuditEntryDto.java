@@ -0,0 +1,23 @@
+package com.ptda.tracker.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.envers.RevisionType;
+
+/**
+ * One row of an audit timeline. Only the fields shown in lists are read, the full entity
+ * at the revision is loaded when the row is opened.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEntryDto {
+    private String entityType;
+    private Long entityId;
+    private int revision;
+    private long timestamp;
+    private RevisionType revisionType;
+    private String name;
+    private String description;
+}
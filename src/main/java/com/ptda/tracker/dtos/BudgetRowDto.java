@@ -0,0 +1,21 @@
+package com.ptda.tracker.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a budget list as the user sees it, with the user's favorite flag and the budget's expense total.
+ * The full budget is loaded when the row is opened.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetRowDto {
+    private Long id;
+    private String name;
+    private String description;
+    private long updatedAt;
+    private boolean favorite;
+    private double total;
+}
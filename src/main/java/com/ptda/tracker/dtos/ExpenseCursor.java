@@ -0,0 +1,28 @@
+package com.ptda.tracker.dtos;
+
+import com.ptda.tracker.models.tracker.Expense;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Position of an expense in lists ordered by date and id, both descending.
+ * Pages are read relative to it instead of skipping an offset.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseCursor {
+    private Date date;
+    private Long id;
+
+    public static ExpenseCursor of(Expense expense) {
+        return new ExpenseCursor(expense.getDate(), expense.getId());
+    }
+
+    public static ExpenseCursor of(ExpenseRowDto row) {
+        return new ExpenseCursor(row.getDate(), row.getId());
+    }
+}
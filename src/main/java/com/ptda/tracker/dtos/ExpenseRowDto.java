@@ -0,0 +1,24 @@
+package com.ptda.tracker.dtos;
+
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * One row of an expense list, read straight from the query without a managed entity.
+ * The full expense is loaded when the row is opened.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseRowDto {
+    private Long id;
+    private String title;
+    private double amount;
+    private Date date;
+    private ExpenseCategory category;
+    private long createdAt;
+}
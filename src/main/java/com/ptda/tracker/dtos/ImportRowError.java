@@ -0,0 +1,17 @@
+package com.ptda.tracker.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+    private long row;
+    private int column;
+    private String field;
+    private String value;
+    private String reason;
+    private String[] cells;
+}
@@ -0,0 +1,15 @@
+package com.ptda.tracker.dtos;
+
+import com.ptda.tracker.models.user.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementDto {
+    private User from;
+    private User to;
+    private double amount;
+}
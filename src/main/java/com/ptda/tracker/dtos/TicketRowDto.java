@@ -0,0 +1,17 @@
+package com.ptda.tracker.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of a ticket list. The full ticket is loaded when the row is opened.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketRowDto {
+    private Long id;
+    private String title;
+    private boolean closed;
+}
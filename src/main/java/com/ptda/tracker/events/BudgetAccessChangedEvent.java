@@ -0,0 +1,13 @@
+package com.ptda.tracker.events;
+
+import lombok.Value;
+
+/**
+ * Published when a user joins or leaves a budget, which changes how every expense of it is divided.
+ */
+@Value
+public class BudgetAccessChangedEvent {
+
+    Long budgetId;
+
+}
@@ -0,0 +1,18 @@
+package com.ptda.tracker.events;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published inside the writing transaction whenever expenses are created, changed or deleted.
+ * {@code before} holds the state that must be subtracted from the rollups and {@code after} the state to add.
+ */
+@Value
+public class ExpenseRollupChangedEvent {
+
+    List<ExpenseRollupSnapshot> before;
+
+    List<ExpenseRollupSnapshot> after;
+
+}
@@ -0,0 +1,41 @@
+package com.ptda.tracker.events;
+
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Immutable copy of the fields of an expense that the statistics rollups are keyed and summed by.
+ */
+@Value
+public class ExpenseRollupSnapshot {
+
+    Long budgetId;
+
+    Long userId;
+
+    ExpenseCategory category;
+
+    LocalDate date;
+
+    double amount;
+
+    public static ExpenseRollupSnapshot of(Expense expense) {
+        return new ExpenseRollupSnapshot(
+                expense.getBudget() != null ? expense.getBudget().getId() : null,
+                expense.getCreatedBy() != null ? expense.getCreatedBy().getId() : null,
+                expense.getCategory() != null ? expense.getCategory() : ExpenseCategory.OTHER,
+                // Undated expenses are shown, and counted, on the day they were created
+                dayOf(expense.getDate() != null ? expense.getDate().getTime() : expense.getCreatedAt()),
+                expense.getAmount()
+        );
+    }
+
+    public static LocalDate dayOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,18 @@
+package com.ptda.tracker.events;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published inside the writing transaction whenever expenses or their divisions change.
+ * {@code before} holds the state that must be removed from the split and {@code after} the state to add.
+ */
+@Value
+public class ExpenseSplitChangedEvent {
+
+    List<ExpenseSplitSnapshot> before;
+
+    List<ExpenseSplitSnapshot> after;
+
+}
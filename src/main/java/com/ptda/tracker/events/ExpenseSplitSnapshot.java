@@ -0,0 +1,49 @@
+package com.ptda.tracker.events;
+
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseDivision;
+import com.ptda.tracker.models.user.User;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable copy of the fields of an expense that take part in a budget split.
+ * Snapshots are taken before and after a write so the split can be updated with the difference.
+ */
+@Value
+public class ExpenseSplitSnapshot {
+
+    Long expenseId;
+
+    Long budgetId;
+
+    double amount;
+
+    Long createdById;
+
+    List<Share> shares;
+
+    public static ExpenseSplitSnapshot of(Expense expense, List<ExpenseDivision> divisions) {
+        return new ExpenseSplitSnapshot(
+                expense.getId(),
+                expense.getBudget() != null ? expense.getBudget().getId() : null,
+                expense.getAmount(),
+                expense.getCreatedBy() != null ? expense.getCreatedBy().getId() : null,
+                divisions.stream()
+                        .map(division -> new Share(division.getUser(), division.getAmount(), division.getPaidAmount()))
+                        .toList()
+        );
+    }
+
+    @Value
+    public static class Share {
+
+        User user;
+
+        double amount;
+
+        double paidAmount;
+
+    }
+}
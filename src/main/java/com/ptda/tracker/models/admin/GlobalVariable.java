@@ -1,5 +1,6 @@
 package com.ptda.tracker.models.admin;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import lombok.AllArgsConstructor;
@@ -15,5 +16,7 @@ import lombok.NoArgsConstructor;
 public class GlobalVariable {
     @Id
     private String keyName;
+    // Quoted because VALUE is a reserved word in some databases, such as H2
+    @Column(name = "`value`")
     private String value;
 }
@@ -8,12 +8,18 @@ import org.hibernate.envers.Audited;
 
 @Entity
 @Audited
+@NamedEntityGraph(name = Budget.DETAIL, attributeNodes = {
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("updatedBy")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Budget {
 
+    public static final String DETAIL = "Budget.detail";
+
     @Id
     @GeneratedValue
     private Long id;
@@ -22,12 +28,16 @@ public class Budget {
 
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User createdBy;
 
     private long createdAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User updatedBy;
 
     private long updatedAt;
@@ -3,20 +3,23 @@ package com.ptda.tracker.models.tracker;
 import com.ptda.tracker.models.user.User;
 import com.ptda.tracker.util.UserSession;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
 import org.hibernate.envers.Audited;
 
 @Entity
 @Audited
+@NamedEntityGraph(name = BudgetAccess.PARTICIPANT, attributeNodes = @NamedAttributeNode("user"))
+@NamedEntityGraph(name = BudgetAccess.BUDGET_LIST_ROW, attributeNodes = @NamedAttributeNode(value = "budget", subgraph = "budget"),
+        subgraphs = @NamedSubgraph(name = "budget", attributeNodes = @NamedAttributeNode("createdBy")))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class BudgetAccess {
 
+    public static final String PARTICIPANT = "BudgetAccess.participant";
+    public static final String BUDGET_LIST_ROW = "BudgetAccess.budgetListRow";
+
     @Id
     @GeneratedValue
     private Long id;
@@ -25,13 +28,19 @@ public class BudgetAccess {
 
     private boolean isFavorite;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Budget budget;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User createdBy;
 
     private long createdAt;
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = @Index(columnList = "budget_id"))
 @Data
 @Builder
 @NoArgsConstructor
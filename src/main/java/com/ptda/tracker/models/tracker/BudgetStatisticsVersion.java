@@ -0,0 +1,28 @@
+package com.ptda.tracker.models.tracker;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counts the changes to the statistics of a budget, its expenses and participants.
+ * Kept apart from the budget, so statistics writes neither evict cached budgets nor write audit revisions.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetStatisticsVersion {
+
+    @Id
+    @Column(name = "budget_id")
+    private Long budgetId;
+
+    private long version;
+
+}
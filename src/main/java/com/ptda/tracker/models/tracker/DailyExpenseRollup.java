@@ -0,0 +1,43 @@
+package com.ptda.tracker.models.tracker;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Sum of the expenses of a budget on one day, per category and creator.
+ * Kept up to date on every expense write, statistics read these rows instead of the expenses.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"budget_id", "rollup_date", "category", "user_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyExpenseRollup {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate date;
+
+    @Enumerated(EnumType.STRING)
+    private ExpenseCategory category;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private double total;
+
+    private long expenseCount;
+
+}
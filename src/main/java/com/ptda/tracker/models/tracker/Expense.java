@@ -10,12 +10,31 @@ import java.util.Date;
 
 @Entity
 @Audited
+@NamedEntityGraph(name = Expense.LIST_ROW, attributeNodes = {
+        @NamedAttributeNode("budget"),
+        @NamedAttributeNode("createdBy")
+})
+@NamedEntityGraph(name = Expense.DETAIL, attributeNodes = {
+        @NamedAttributeNode(value = "budget", subgraph = "budget"),
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("updatedBy")
+}, subgraphs = @NamedSubgraph(name = "budget", attributeNodes = @NamedAttributeNode("createdBy")))
+@NamedEntityGraph(name = Expense.SPLIT, attributeNodes = @NamedAttributeNode("budget"))
+@Table(indexes = {
+        @Index(columnList = "budget_id, date, id"),
+        @Index(columnList = "created_by_id, budget_id, date, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Expense {
 
+    // Fetch plans, the associations are lazy and each repository method names the plan its screen needs
+    public static final String LIST_ROW = "Expense.listRow";
+    public static final String DETAIL = "Expense.detail";
+    public static final String SPLIT = "Expense.split";
+
     @Id
     @GeneratedValue
     private Long id;
@@ -32,15 +51,21 @@ public class Expense {
     @Enumerated(EnumType.STRING)
     private ExpenseCategory category = ExpenseCategory.OTHER;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Budget budget;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User updatedBy;
 
     private long updatedAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User createdBy;
 
     private long createdAt;
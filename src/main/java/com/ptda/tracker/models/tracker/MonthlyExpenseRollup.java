@@ -0,0 +1,40 @@
+package com.ptda.tracker.models.tracker;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Sum of every expense a user created in one month, personal or in a budget, per category.
+ * The month is stored as its first day.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "rollup_month", "category"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyExpenseRollup {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "rollup_month", nullable = false)
+    private LocalDate month;
+
+    @Enumerated(EnumType.STRING)
+    private ExpenseCategory category;
+
+    private double total;
+
+    private long expenseCount;
+
+}
@@ -1,18 +1,30 @@
 package com.ptda.tracker.repositories;
 
+import com.ptda.tracker.dtos.BudgetRowDto;
 import com.ptda.tracker.models.tracker.BudgetAccess;
+import com.ptda.tracker.models.tracker.BudgetAccessLevel;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BudgetAccessRepository extends JpaRepository<BudgetAccess, Long> {
 
+    String BUDGET_ROW = "SELECT new com.ptda.tracker.dtos.BudgetRowDto(b.id, b.name, b.description, b.updatedAt, a.isFavorite, " +
+            "(SELECT COALESCE(SUM(e.amount), 0.0) FROM Expense e WHERE e.budget.id = b.id)) " +
+            "FROM BudgetAccess a JOIN a.budget b WHERE a.user.id = :userId ";
+
+    @EntityGraph(BudgetAccess.BUDGET_LIST_ROW)
     List<BudgetAccess> findAllByUserId(Long userId);
 
+    @EntityGraph(BudgetAccess.PARTICIPANT)
     List<BudgetAccess> findAllByBudgetId(Long budgetId);
 
     Optional<BudgetAccess> findByBudgetIdAndUserId(Long budgetId, Long userId);
@@ -21,12 +33,31 @@ public interface BudgetAccessRepository extends JpaRepository<BudgetAccess, Long
 
     boolean existsByBudgetIdAndUserId(Long budgetId, Long userId);
 
+    @EntityGraph(BudgetAccess.BUDGET_LIST_ROW)
     List<BudgetAccess> findAllByUserIdOrderByBudgetUpdatedAtDesc(Long userId, Pageable pageable);
 
     int countByUserId(Long userId);
 
+    int countByBudgetId(Long budgetId);
+
+    @Query(BUDGET_ROW + "ORDER BY a.id")
+    List<BudgetRowDto> findBudgetRowsByUserId(@Param("userId") Long userId);
+
+    @Query(BUDGET_ROW + "ORDER BY b.updatedAt DESC")
+    List<BudgetRowDto> findRecentBudgetRowsByUserId(@Param("userId") Long userId, Pageable pageable);
+
     int deleteByBudgetIdAndUserId(Long id, Long userId);
 
     Optional<BudgetAccess> getByBudgetIdAndUserId(Long budgetId, Long userId);
 
+    @Query("SELECT a.budget.id AS budgetId, a.accessLevel AS accessLevel FROM BudgetAccess a " +
+            "WHERE a.user.id = :userId AND a.budget.id IN :budgetIds")
+    List<BudgetAccessLevelView> findAccessLevelsByUserIdAndBudgetIdIn(@Param("userId") Long userId,
+                                                                      @Param("budgetIds") Collection<Long> budgetIds);
+
+    interface BudgetAccessLevelView {
+        Long getBudgetId();
+
+        BudgetAccessLevel getAccessLevel();
+    }
 }
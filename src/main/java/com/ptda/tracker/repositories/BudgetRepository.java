@@ -1,15 +1,27 @@
 package com.ptda.tracker.repositories;
 
 import com.ptda.tracker.models.tracker.Budget;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
     List<Budget> findAllByCreatedById(Long userId);
 
+    @EntityGraph(Budget.DETAIL)
+    Optional<Budget> findDetailById(Long id);
+
+    /**
+     * Reads the budget with a write lock on its row, which makes other writers wait until this transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Budget> findLockedById(Long id);
 
 }
@@ -9,4 +9,6 @@ public interface BudgetSplitRepository extends JpaRepository<BudgetSplit, Long>
 
     List<BudgetSplit> getAllByBudgetId(Long budgetId);
 
+    void deleteAllByBudgetId(Long budgetId);
+
 }
@@ -0,0 +1,20 @@
+package com.ptda.tracker.repositories;
+
+import com.ptda.tracker.models.tracker.BudgetStatisticsVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface BudgetStatisticsVersionRepository extends JpaRepository<BudgetStatisticsVersion, Long> {
+
+    @Query("SELECT v.version FROM BudgetStatisticsVersion v WHERE v.budgetId = :budgetId")
+    Optional<Long> findVersionByBudgetId(@Param("budgetId") Long budgetId);
+
+    @Modifying
+    @Query("UPDATE BudgetStatisticsVersion v SET v.version = v.version + 1 WHERE v.budgetId = :budgetId")
+    int increment(@Param("budgetId") Long budgetId);
+
+}
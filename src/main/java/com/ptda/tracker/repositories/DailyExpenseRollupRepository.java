@@ -0,0 +1,58 @@
+package com.ptda.tracker.repositories;
+
+import com.ptda.tracker.models.tracker.DailyExpenseRollup;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface DailyExpenseRollupRepository extends JpaRepository<DailyExpenseRollup, Long> {
+
+    /**
+     * Adds to the rollup row in place, so concurrent writers never lose each other's amounts.
+     */
+    @Modifying
+    @Query("UPDATE DailyExpenseRollup r SET r.total = r.total + :total, r.expenseCount = r.expenseCount + :count " +
+            "WHERE r.budgetId = :budgetId AND r.date = :date AND r.category = :category " +
+            "AND (r.userId = :userId OR (:userId IS NULL AND r.userId IS NULL))")
+    int increment(@Param("budgetId") Long budgetId, @Param("date") LocalDate date, @Param("category") ExpenseCategory category,
+                  @Param("userId") Long userId, @Param("total") double total, @Param("count") long count);
+
+    @Modifying
+    @Query("DELETE FROM DailyExpenseRollup r WHERE r.budgetId = :budgetId AND r.expenseCount <= 0")
+    int deleteEmptyByBudgetId(@Param("budgetId") Long budgetId);
+
+    @Query("SELECT r.date AS date, r.category AS category, u.name AS userName, r.total AS total " +
+            "FROM DailyExpenseRollup r LEFT JOIN User u ON u.id = r.userId " +
+            "WHERE r.budgetId = :budgetId ORDER BY r.date")
+    List<RollupRow> findRowsByBudgetId(@Param("budgetId") Long budgetId);
+
+    @Query("SELECT r.date AS date, r.category AS category, u.name AS userName, r.total AS total " +
+            "FROM DailyExpenseRollup r LEFT JOIN User u ON u.id = r.userId " +
+            "WHERE r.budgetId = :budgetId AND r.date BETWEEN :from AND :to ORDER BY r.date")
+    List<RollupRow> findRowsByBudgetIdAndDateBetween(@Param("budgetId") Long budgetId,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT r.budgetId FROM DailyExpenseRollup r " +
+            "WHERE r.budgetId IN :budgetIds AND r.date BETWEEN :from AND :to")
+    List<Long> findBudgetIdsWithRollupsBetween(@Param("budgetIds") Collection<Long> budgetIds,
+                                               @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT r.budgetId FROM DailyExpenseRollup r WHERE r.date BETWEEN :from AND :to ORDER BY r.budgetId")
+    List<Long> findBudgetIdsWithRollupsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface RollupRow {
+        LocalDate getDate();
+
+        ExpenseCategory getCategory();
+
+        String getUserName();
+
+        double getTotal();
+    }
+}
@@ -2,8 +2,11 @@ package com.ptda.tracker.repositories;
 
 import com.ptda.tracker.models.tracker.ExpenseDivision;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,6 +14,11 @@ public interface ExpenseDivisionRepository extends JpaRepository<ExpenseDivision
 
     List<ExpenseDivision> findAllByExpenseId(Long expenseId);
 
+    List<ExpenseDivision> findAllByExpenseIdIn(Collection<Long> expenseIds);
+
+    @Query("SELECT d FROM ExpenseDivision d JOIN FETCH d.user WHERE d.expense.budget.id = :budgetId ORDER BY d.expense.id, d.id")
+    List<ExpenseDivision> findAllByBudgetId(@Param("budgetId") Long budgetId);
+
     void deleteByExpenseId(Long expenseId);
 
     void deleteAllByExpenseId(Long id);
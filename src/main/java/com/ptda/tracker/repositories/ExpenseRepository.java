@@ -1,36 +1,165 @@
 package com.ptda.tracker.repositories;
 
+import com.ptda.tracker.dtos.ExpenseRowDto;
 import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
+    String KEYSET_AFTER = "(:date IS NOT NULL AND (e.date < :date OR (e.date = :date AND e.id < :id) OR e.date IS NULL)) " +
+            "OR (:date IS NULL AND e.date IS NULL AND e.id < :id)";
+
+    String KEYSET_BEFORE = "(:date IS NOT NULL AND (e.date > :date OR (e.date = :date AND e.id > :id))) " +
+            "OR (:date IS NULL AND (e.date IS NOT NULL OR e.id > :id))";
+
+    String EXPENSE_ROW = "SELECT new com.ptda.tracker.dtos.ExpenseRowDto(e.id, e.title, e.amount, e.date, e.category, e.createdAt) " +
+            "FROM Expense e ";
+
+    @EntityGraph(Expense.LIST_ROW)
     List<Expense> findAllByCreatedByIdAndBudgetNull(Long userId);
 
+    @EntityGraph(Expense.LIST_ROW)
     List<Expense> findAllByBudgetId(Long budgetId);
 
+    @EntityGraph(Expense.SPLIT)
+    List<Expense> findSplitRowsByBudgetId(Long budgetId);
+
+    @EntityGraph(Expense.DETAIL)
+    Optional<Expense> findDetailById(Long id);
+
+    @EntityGraph(Expense.LIST_ROW)
     List<Expense> findAllByCreatedById(Long userId);
 
+    @EntityGraph(Expense.LIST_ROW)
     List<Expense> findByBudgetIdOrderByDateDesc(Long budgetId, Pageable pageable);
 
+    @EntityGraph(Expense.LIST_ROW)
     List<Expense> findByCreatedByIdAndBudgetNullOrderByDateDesc(Long userId, Pageable pageable);
 
+    @EntityGraph(Expense.LIST_ROW)
+    List<Expense> findByBudgetIdOrderByDateDescIdDesc(Long budgetId, Pageable pageable);
+
+    @EntityGraph(Expense.LIST_ROW)
+    List<Expense> findByCreatedByIdAndBudgetNullOrderByDateDescIdDesc(Long userId, Pageable pageable);
+
+    // Keyset pages, expenses without a date come last. "After" reads older expenses, "before" newer ones closest first.
+
+    @EntityGraph(Expense.LIST_ROW)
+    @Query("SELECT e FROM Expense e WHERE e.budget.id = :budgetId AND (" + KEYSET_AFTER + ") " +
+            "ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<Expense> findByBudgetIdAfter(@Param("budgetId") Long budgetId, @Param("date") Date date,
+                                      @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(Expense.LIST_ROW)
+    @Query("SELECT e FROM Expense e WHERE e.budget.id = :budgetId AND (" + KEYSET_BEFORE + ") " +
+            "ORDER BY e.date ASC NULLS FIRST, e.id ASC")
+    List<Expense> findByBudgetIdBefore(@Param("budgetId") Long budgetId, @Param("date") Date date,
+                                       @Param("id") Long id, Pageable pageable);
+
+    // List rows, only the columns the renderers show are selected and nothing is tracked by the persistence context
+
+    @Query(EXPENSE_ROW + "WHERE e.createdBy.id = :userId AND e.budget IS NULL ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<ExpenseRowDto> findPersonalRowsByCreatedById(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(EXPENSE_ROW + "WHERE e.createdBy.id = :userId AND e.budget IS NULL AND (" + KEYSET_AFTER + ") " +
+            "ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<ExpenseRowDto> findPersonalRowsByCreatedByIdAfter(@Param("userId") Long userId, @Param("date") Date date,
+                                                           @Param("id") Long id, Pageable pageable);
+
+    @Query(EXPENSE_ROW + "WHERE e.createdBy.id = :userId ORDER BY e.date DESC NULLS LAST, e.id DESC")
+    List<ExpenseRowDto> findRecentRowsByCreatedById(@Param("userId") Long userId, Pageable pageable);
+
     int countByBudgetId(Long id);
 
     int countByCreatedById(Long userId);
 
     int countByCreatedByIdAndBudgetNull(Long userId);
 
+    @EntityGraph(Expense.LIST_ROW)
     List<Expense> findTopByCreatedByIdOrderByDateDesc(Long userId, Pageable pageable);
 
     Optional<Expense> findTopByBudgetIdOrderByDateDesc(Long budgetId);
 
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM Expense e WHERE e.budget.id = :budgetId")
+    double sumAmountByBudgetId(@Param("budgetId") Long budgetId);
+
+    // Keys for duplicate detection, both range scans are covered by the (scope, date, id) indexes
+
+    @Query("SELECT e.date AS date, e.amount AS amount, e.title AS title FROM Expense e " +
+            "WHERE e.budget.id = :budgetId AND e.date BETWEEN :from AND :to")
+    List<ExpenseKey> findKeysByBudgetIdAndDateBetween(@Param("budgetId") Long budgetId,
+                                                      @Param("from") Date from, @Param("to") Date to);
+
+    @Query("SELECT e.date AS date, e.amount AS amount, e.title AS title FROM Expense e " +
+            "WHERE e.createdBy.id = :userId AND e.budget IS NULL AND e.date BETWEEN :from AND :to")
+    List<ExpenseKey> findPersonalKeysByCreatedByIdAndDateBetween(@Param("userId") Long userId,
+                                                                 @Param("from") Date from, @Param("to") Date to);
+
+    // Expenses of the budget without any revision, for data created before auditing was enabled. Native, since the
+    // Envers table is not an entity. It keeps the default _aud suffix, application.yaml sets envers outside hibernate
+
+    @Query(value = "SELECT e.id AS id, e.title AS title, e.description AS description, e.created_at AS createdAt " +
+            "FROM expense e WHERE e.budget_id = :budgetId " +
+            "AND NOT EXISTS (SELECT 1 FROM expense_aud a WHERE a.id = e.id) " +
+            "ORDER BY e.created_at DESC, e.id DESC", nativeQuery = true)
+    List<ExpenseSummary> findUnauditedSummariesByBudgetId(@Param("budgetId") Long budgetId);
+
+    interface ExpenseSummary {
+        Long getId();
+
+        String getTitle();
+
+        String getDescription();
+
+        long getCreatedAt();
+    }
+
+    interface CategoryTotal {
+        ExpenseCategory getCategory();
+
+        double getTotal();
+    }
+
+    // Sources of a rollup rebuild, dated expenses are summed per day here and undated ones are read one by one
+
+    @Query("SELECT e.budget.id AS budgetId, e.date AS date, e.category AS category, e.createdBy.id AS userId, " +
+            "SUM(e.amount) AS total, COUNT(e) AS expenseCount FROM Expense e WHERE e.date IS NOT NULL " +
+            "GROUP BY e.budget.id, e.date, e.category, e.createdBy.id")
+    List<DayGroup> sumAmountByBudgetDateCategoryAndCreatedBy();
+
+    List<Expense> findAllByDateNull();
+
+    interface ExpenseKey {
+        Date getDate();
+
+        double getAmount();
+
+        String getTitle();
+    }
+
+    interface DayGroup {
+        Long getBudgetId();
+
+        Date getDate();
+
+        ExpenseCategory getCategory();
+
+        Long getUserId();
+
+        double getTotal();
+
+        long getExpenseCount();
+    }
+
 }
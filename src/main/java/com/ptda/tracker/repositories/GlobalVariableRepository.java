@@ -1,8 +1,38 @@
 package com.ptda.tracker.repositories;
 
 import com.ptda.tracker.models.admin.GlobalVariable;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface GlobalVariableRepository extends JpaRepository<GlobalVariable, String> {
     GlobalVariable findByKeyName(String keyName);
+
+    // Scalar queries always read the database, so they see writes made by other clients
+    @Query("SELECT g.value FROM GlobalVariable g WHERE g.keyName = :keyName")
+    String findValueByKeyName(@Param("keyName") String keyName);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM GlobalVariable g WHERE g.keyName = :keyName")
+    Optional<GlobalVariable> findLockedByKeyName(@Param("keyName") String keyName);
+
+    @Modifying
+    @Transactional
+    @Query("INSERT INTO GlobalVariable (keyName, value) VALUES (:keyName, :value)")
+    int insert(@Param("keyName") String keyName, @Param("value") String value);
+
+    @Query("SELECT g.keyName AS keyName, g.value AS value FROM GlobalVariable g")
+    List<KeyValue> findAllValues();
+
+    interface KeyValue {
+        String getKeyName();
+        String getValue();
+    }
 }
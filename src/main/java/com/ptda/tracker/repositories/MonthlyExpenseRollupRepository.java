@@ -0,0 +1,32 @@
+package com.ptda.tracker.repositories;
+
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.tracker.MonthlyExpenseRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlyExpenseRollupRepository extends JpaRepository<MonthlyExpenseRollup, Long> {
+
+    /**
+     * Adds to the rollup row in place, so concurrent writers never lose each other's amounts.
+     */
+    @Modifying
+    @Query("UPDATE MonthlyExpenseRollup r SET r.total = r.total + :total, r.expenseCount = r.expenseCount + :count " +
+            "WHERE r.userId = :userId AND r.month = :month AND r.category = :category")
+    int increment(@Param("userId") Long userId, @Param("month") LocalDate month, @Param("category") ExpenseCategory category,
+                  @Param("total") double total, @Param("count") long count);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyExpenseRollup r WHERE r.userId = :userId AND r.expenseCount <= 0")
+    int deleteEmptyByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT r.category AS category, SUM(r.total) AS total FROM MonthlyExpenseRollup r " +
+            "WHERE r.userId = :userId GROUP BY r.category")
+    List<ExpenseRepository.CategoryTotal> sumTotalByCategory(@Param("userId") Long userId);
+
+}
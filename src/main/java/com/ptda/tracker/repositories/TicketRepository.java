@@ -1,7 +1,10 @@
 package com.ptda.tracker.repositories;
 
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.models.assistance.Ticket;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,18 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Ticket> findAllByIsClosedIsFalseAndCreatedById(Long createdById);
 
     int countByCreatedByIdAndIsClosed(Long userId, boolean isClosed);
+
+    String TICKET_ROW = "SELECT new com.ptda.tracker.dtos.TicketRowDto(t.id, t.title, t.isClosed) FROM Ticket t ";
+
+    @Query(TICKET_ROW + "ORDER BY t.id")
+    List<TicketRowDto> findAllRows();
+
+    @Query(TICKET_ROW + "WHERE t.createdBy.id = :userId ORDER BY t.id")
+    List<TicketRowDto> findRowsByCreatedById(@Param("userId") Long userId);
+
+    @Query(TICKET_ROW + "WHERE t.assistant.id = :assistantId AND t.isClosed = false ORDER BY t.id")
+    List<TicketRowDto> findOpenRowsByAssistantId(@Param("assistantId") Long assistantId);
+
+    @Query(TICKET_ROW + "WHERE t.assistant IS NULL AND t.isClosed = false AND t.createdBy.id <> :userId ORDER BY t.id")
+    List<TicketRowDto> findUnassignedOpenRowsNotCreatedBy(@Param("userId") Long userId);
 }
\ No newline at end of file
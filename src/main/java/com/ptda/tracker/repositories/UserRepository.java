@@ -1,7 +1,9 @@
 package com.ptda.tracker.repositories;
 
 import com.ptda.tracker.models.user.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -17,4 +19,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     long countByUserType(String userType);
 
+    /**
+     * Reads the user with a write lock on its row, which makes other writers wait until this transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<User> findLockedById(Long id);
+
 }
@@ -0,0 +1,20 @@
+package com.ptda.tracker.services.administration;
+
+import com.ptda.tracker.dtos.CacheRegionStatisticsDto;
+
+import java.util.List;
+
+public interface CacheStatisticsService {
+
+    /**
+     * Statistics of every second-level cache region, sorted by region name. Hits and misses are only counted while
+     * Hibernate statistics are enabled.
+     */
+    List<CacheRegionStatisticsDto> getRegionStatistics();
+
+    /**
+     * Empties every second-level cache region, for example after the database was changed outside the application.
+     */
+    void evictAll();
+
+}
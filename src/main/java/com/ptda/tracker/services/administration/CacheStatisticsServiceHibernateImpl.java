@@ -0,0 +1,47 @@
+package com.ptda.tracker.services.administration;
+
+import com.ptda.tracker.dtos.CacheRegionStatisticsDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsServiceHibernateImpl implements CacheStatisticsService {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheRegionStatisticsDto> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        List<CacheRegionStatisticsDto> result = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                result.add(new CacheRegionStatisticsDto(
+                        region,
+                        regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(),
+                        regionStatistics.getPutCount(),
+                        regionStatistics.getElementCountInMemory()
+                ));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void evictAll() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
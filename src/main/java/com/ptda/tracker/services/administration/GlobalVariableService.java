@@ -2,14 +2,38 @@ package com.ptda.tracker.services.administration;
 
 import com.ptda.tracker.models.admin.GlobalVariableName;
 
-import java.util.Optional;
+import java.util.function.Consumer;
 
+/**
+ * Application settings shared by every client, such as feature flags.
+ * <p>
+ * Values are served from an in-memory snapshot that is loaded at startup, so reading one does not touch the database.
+ * The snapshot is updated by {@link #set} and {@link #delete}, and reloaded when another client changed a value.
+ */
 public interface GlobalVariableService {
 
     String get(String keyName);
 
+    String get(GlobalVariableName name);
+
+    boolean getBoolean(GlobalVariableName name);
+
     void set(GlobalVariableName name, String value);
 
     void delete(String keyName);
 
+    /**
+     * Reloads the snapshot if another client changed a value since it was loaded. Only a version stamp is read when
+     * nothing changed.
+     */
+    void refresh();
+
+    /**
+     * Calls the listener with the new value, or {@code null} when deleted, every time the variable changes. Listeners
+     * run on the thread that noticed the change; UI code must hand the value over to the EDT.
+     */
+    void addListener(GlobalVariableName name, Consumer<String> listener);
+
+    void removeListener(GlobalVariableName name, Consumer<String> listener);
+
 }
@@ -3,21 +3,77 @@ package com.ptda.tracker.services.administration;
 import com.ptda.tracker.models.admin.GlobalVariable;
 import com.ptda.tracker.models.admin.GlobalVariableName;
 import com.ptda.tracker.repositories.GlobalVariableRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class GlobalVariableServiceHibernateImpl implements GlobalVariableService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GlobalVariableServiceHibernateImpl.class);
+    // Counter incremented on every change, so other clients only poll this value
+    static final String VERSION_KEY = "_VERSION";
+
     private final GlobalVariableRepository globalVariableRepository;
+    private final Map<GlobalVariableName, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private volatile Map<GlobalVariableName, String> snapshot = Collections.emptyMap();
+    private volatile long version;
+    private ScheduledExecutorService poller;
+
+    @Value("${tracker.global-variables.poll-seconds:30}")
+    private long pollSeconds;
+
+    @PostConstruct
+    public void init() {
+        createVersion();
+        reload();
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "global-variable-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
 
     @Override
     public String get(String keyName) {
-        GlobalVariable globalVariable = globalVariableRepository.findByKeyName(keyName);
-        return globalVariable != null ? globalVariable.getValue() : null;
+        for (GlobalVariableName name : GlobalVariableName.values()) {
+            if (name.name().equals(keyName)) {
+                return get(name);
+            }
+        }
+        return globalVariableRepository.findValueByKeyName(keyName);
+    }
+
+    @Override
+    public String get(GlobalVariableName name) {
+        return snapshot.get(name);
+    }
+
+    @Override
+    public boolean getBoolean(GlobalVariableName name) {
+        return Boolean.parseBoolean(snapshot.get(name));
     }
 
     @Override
@@ -32,11 +88,159 @@ public class GlobalVariableServiceHibernateImpl implements GlobalVariableService
         } catch (Exception e) {
             throw new RuntimeException("Failed to set global variable: " + name.name(), e);
         }
+        long previousVersion = incrementVersion();
+        afterCommit(() -> applyOwnChange(previousVersion, () -> publish(name, value)));
     }
 
     @Override
     @Transactional
     public void delete(String keyName) {
         globalVariableRepository.deleteById(keyName);
+        long previousVersion = incrementVersion();
+        afterCommit(() -> applyOwnChange(previousVersion, () -> {
+            for (GlobalVariableName name : GlobalVariableName.values()) {
+                if (name.name().equals(keyName)) {
+                    publish(name, null);
+                }
+            }
+        }));
+    }
+
+    @Override
+    public void refresh() {
+        if (version != parseVersion(globalVariableRepository.findValueByKeyName(VERSION_KEY))) {
+            reload();
+        }
+    }
+
+    @Override
+    public void addListener(GlobalVariableName name, Consumer<String> listener) {
+        listeners.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public void removeListener(GlobalVariableName name, Consumer<String> listener) {
+        List<Consumer<String>> nameListeners = listeners.get(name);
+        if (nameListeners != null) {
+            nameListeners.remove(listener);
+        }
+    }
+
+    private void poll() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to check global variables for changes", e);
+        }
+    }
+
+    private synchronized void reload() {
+        long loadedVersion = 0;
+        Map<GlobalVariableName, String> values = new EnumMap<>(GlobalVariableName.class);
+        for (GlobalVariableRepository.KeyValue keyValue : globalVariableRepository.findAllValues()) {
+            if (VERSION_KEY.equals(keyValue.getKeyName())) {
+                loadedVersion = parseVersion(keyValue.getValue());
+                continue;
+            }
+            for (GlobalVariableName name : GlobalVariableName.values()) {
+                if (name.name().equals(keyValue.getKeyName())) {
+                    values.put(name, keyValue.getValue());
+                }
+            }
+        }
+
+        Map<GlobalVariableName, String> previous = snapshot;
+        snapshot = Collections.unmodifiableMap(values);
+        version = loadedVersion;
+        for (GlobalVariableName name : GlobalVariableName.values()) {
+            if (!Objects.equals(previous.get(name), values.get(name))) {
+                notifyListeners(name, values.get(name));
+            }
+        }
+    }
+
+    /**
+     * Increments the version under a lock on its row, so concurrent writers each get their own number.
+     *
+     * @return the version before this change
+     */
+    private long incrementVersion() {
+        Optional<GlobalVariable> row = globalVariableRepository.findLockedByKeyName(VERSION_KEY);
+        long previousVersion = parseVersion(row.map(GlobalVariable::getValue).orElse(null));
+        if (row.isPresent()) {
+            row.get().setValue(String.valueOf(previousVersion + 1));
+        } else {
+            globalVariableRepository.insert(VERSION_KEY, String.valueOf(previousVersion + 1));
+        }
+        return previousVersion;
+    }
+
+    /**
+     * Applies a committed change of this client to the snapshot. That is only enough when the snapshot was
+     * current before the change; if another client wrote in between, everything is read again.
+     */
+    private synchronized void applyOwnChange(long previousVersion, Runnable change) {
+        if (version == previousVersion) {
+            version = previousVersion + 1;
+            change.run();
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Creates the version row once, so writers always find a row to lock.
+     */
+    private void createVersion() {
+        if (globalVariableRepository.findValueByKeyName(VERSION_KEY) == null) {
+            try {
+                globalVariableRepository.insert(VERSION_KEY, "0");
+            } catch (DataIntegrityViolationException e) {
+                // Created by another client starting at the same time
+            }
+        }
+    }
+
+    private static long parseVersion(String value) {
+        // Rows written before the version was a counter held a random stamp, they count as unknown
+        try {
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        // The snapshot must not show a value that is rolled back
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private synchronized void publish(GlobalVariableName name, String value) {
+        Map<GlobalVariableName, String> values = new EnumMap<>(GlobalVariableName.class);
+        values.putAll(snapshot);
+        String previous = value != null ? values.put(name, value) : values.remove(name);
+        snapshot = Collections.unmodifiableMap(values);
+        if (!Objects.equals(previous, value)) {
+            notifyListeners(name, value);
+        }
+    }
+
+    private void notifyListeners(GlobalVariableName name, String value) {
+        for (Consumer<String> listener : listeners.getOrDefault(name, List.of())) {
+            try {
+                listener.accept(value);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Global variable listener failed for {}", name, e);
+            }
+        }
     }
 }
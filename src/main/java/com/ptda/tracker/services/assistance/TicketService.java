@@ -1,9 +1,11 @@
 package com.ptda.tracker.services.assistance;
 
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.models.assistance.Ticket;
 import com.ptda.tracker.models.user.User;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface TicketService {
 
@@ -15,6 +17,19 @@ public interface TicketService {
 
     int getCountByUserIdAndStatus(Long userId, boolean isClosed);
 
+    Optional<Ticket> getById(Long id);
+
+    List<TicketRowDto> getAllRows();
+
+    List<TicketRowDto> getRowsByUserId(Long userId);
+
+    List<TicketRowDto> getOpenRowsByAssistantId(Long assistantId);
+
+    /**
+     * Open tickets no assistant took yet, without the ones the given user created.
+     */
+    List<TicketRowDto> getUnassignedOpenRows(Long excludedUserId);
+
     Ticket create(Ticket ticket);
 
     Ticket update(Ticket ticket);
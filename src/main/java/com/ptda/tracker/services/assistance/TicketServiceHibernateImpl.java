@@ -1,11 +1,13 @@
 package com.ptda.tracker.services.assistance;
 
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.models.assistance.Ticket;
 import com.ptda.tracker.repositories.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +35,31 @@ public class TicketServiceHibernateImpl implements TicketService {
         return ticketRepository.countByCreatedByIdAndIsClosed(userId, isClosed);
     }
 
+    @Override
+    public Optional<Ticket> getById(Long id) {
+        return ticketRepository.findById(id);
+    }
+
+    @Override
+    public List<TicketRowDto> getAllRows() {
+        return ticketRepository.findAllRows();
+    }
+
+    @Override
+    public List<TicketRowDto> getRowsByUserId(Long userId) {
+        return ticketRepository.findRowsByCreatedById(userId);
+    }
+
+    @Override
+    public List<TicketRowDto> getOpenRowsByAssistantId(Long assistantId) {
+        return ticketRepository.findOpenRowsByAssistantId(assistantId);
+    }
+
+    @Override
+    public List<TicketRowDto> getUnassignedOpenRows(Long excludedUserId) {
+        return ticketRepository.findUnassignedOpenRowsNotCreatedBy(excludedUserId);
+    }
+
     @Override
     public Ticket create(Ticket ticket) {
         return ticketRepository.save(ticket);
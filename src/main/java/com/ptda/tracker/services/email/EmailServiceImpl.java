@@ -18,10 +18,7 @@ public class EmailServiceImpl implements EmailService {
 
     @Override
     public boolean isEmailVerificationEnabled() {
-        String verifyEmail = globalVariableService.get(GlobalVariableName.VERIFY_EMAIL.toString());
-        boolean enabled = verifyEmail != null && verifyEmail.equalsIgnoreCase("true");
-        System.out.println("Email verification enabled: " + enabled);
-        return enabled;
+        return globalVariableService.getBoolean(GlobalVariableName.VERIFY_EMAIL);
     }
 
     @Override
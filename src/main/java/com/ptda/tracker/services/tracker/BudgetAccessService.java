@@ -4,7 +4,9 @@ import com.ptda.tracker.models.tracker.BudgetAccess;
 import com.ptda.tracker.models.tracker.BudgetAccessLevel;
 import com.ptda.tracker.models.user.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface BudgetAccessService {
@@ -23,6 +25,16 @@ public interface BudgetAccessService {
 
     Optional<BudgetAccess> getAccessByBudgetIdAndUserId(Long budgetId, Long userId);
 
+    /**
+     * The access level the user has on the budget, served from a cache that is kept in step with every access change.
+     */
+    Optional<BudgetAccessLevel> getAccessLevel(Long budgetId, Long userId);
+
+    /**
+     * The access levels the user has on each of the budgets, for list screens; budgets the user cannot access are left out.
+     */
+    Map<Long, BudgetAccessLevel> getAccessLevels(Long userId, Collection<Long> budgetIds);
+
     BudgetAccess create(Long budgetId, Long userId, BudgetAccessLevel accessLevel);
 
     BudgetAccess create(Long budgetId, String userEmail, BudgetAccessLevel accessLevel);
@@ -1,5 +1,6 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.events.BudgetAccessChangedEvent;
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.BudgetAccess;
 import com.ptda.tracker.models.tracker.BudgetAccessLevel;
@@ -8,19 +9,34 @@ import com.ptda.tracker.repositories.BudgetAccessRepository;
 import com.ptda.tracker.services.user.UserService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 public class BudgetAccessServiceHibernateImpl implements BudgetAccessService {
 
+    private static final int MAX_CACHED_LEVELS = 10_000;
+
     private final BudgetAccessRepository budgetAccessRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+    // Missing access is cached too, so screens that check a budget the user left do not query again
+    private final Map<AccessKey, CachedAccessLevel> accessLevels = new ConcurrentHashMap<>();
+
+    /**
+     * Changes made by other clients never evict a level here, so levels expire after this many seconds instead.
+     */
+    @org.springframework.beans.factory.annotation.Value("${tracker.budget-access.cache-seconds:30}")
+    private long cacheSeconds;
 
     @Override
     public List<BudgetAccess> getAllByUserId(Long userId) {
@@ -45,8 +61,8 @@ public class BudgetAccessServiceHibernateImpl implements BudgetAccessService {
 
     @Override
     public boolean hasAccess(Long budgetId, Long userId, BudgetAccessLevel requiredAccessLevel) {
-        Optional<BudgetAccess> budgetAccess = budgetAccessRepository.findByBudgetIdAndUserId(budgetId, userId);
-        return budgetAccess.isPresent() && budgetAccess.get().getAccessLevel().compareTo(requiredAccessLevel) <= 0;
+        Optional<BudgetAccessLevel> accessLevel = getAccessLevel(budgetId, userId);
+        return accessLevel.isPresent() && accessLevel.get().compareTo(requiredAccessLevel) <= 0;
     }
 
     @Override
@@ -60,19 +76,64 @@ public class BudgetAccessServiceHibernateImpl implements BudgetAccessService {
         return budgetAccessRepository.getByBudgetIdAndUserId(budgetId, userId);
     }
 
+    @Override
+    public Optional<BudgetAccessLevel> getAccessLevel(Long budgetId, Long userId) {
+        AccessKey key = new AccessKey(budgetId, userId);
+        CachedAccessLevel cached = cachedAccessLevel(key);
+        if (cached != null) {
+            return cached.getLevel();
+        }
+        Optional<BudgetAccessLevel> level = budgetAccessRepository.findByBudgetIdAndUserId(budgetId, userId)
+                .map(BudgetAccess::getAccessLevel);
+        cacheAccessLevel(key, level);
+        return level;
+    }
+
+    @Override
+    public Map<Long, BudgetAccessLevel> getAccessLevels(Long userId, Collection<Long> budgetIds) {
+        Map<Long, BudgetAccessLevel> levels = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long budgetId : budgetIds) {
+            CachedAccessLevel cached = cachedAccessLevel(new AccessKey(budgetId, userId));
+            if (cached == null) {
+                missing.add(budgetId);
+            } else {
+                cached.getLevel().ifPresent(level -> levels.put(budgetId, level));
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, BudgetAccessLevel> loaded = new HashMap<>();
+            for (BudgetAccessRepository.BudgetAccessLevelView view
+                    : budgetAccessRepository.findAccessLevelsByUserIdAndBudgetIdIn(userId, missing)) {
+                loaded.put(view.getBudgetId(), view.getAccessLevel());
+            }
+            for (Long budgetId : missing) {
+                BudgetAccessLevel level = loaded.get(budgetId);
+                cacheAccessLevel(new AccessKey(budgetId, userId), Optional.ofNullable(level));
+                if (level != null) {
+                    levels.put(budgetId, level);
+                }
+            }
+        }
+        return levels;
+    }
+
     @Override
     @Transactional
     public BudgetAccess create(Long budgetId, Long userId, BudgetAccessLevel accessLevel) {
         if (budgetId == null || userId == null || accessLevel == null) {
             throw new IllegalArgumentException("Budget ID, User ID, and Access Level must not be null.");
         }
-        return budgetAccessRepository.save(
+        BudgetAccess access = budgetAccessRepository.save(
                 BudgetAccess.builder()
                         .budget(Budget.builder().id(budgetId).build())
                         .user(User.builder().id(userId).build())
                         .accessLevel(accessLevel)
                         .build()
         );
+        evictAccessLevel(budgetId, userId);
+        eventPublisher.publishEvent(new BudgetAccessChangedEvent(budgetId));
+        return access;
     }
 
     @Override
@@ -83,33 +144,49 @@ public class BudgetAccessServiceHibernateImpl implements BudgetAccessService {
         }
         Optional<User> user = userService.getByEmail(userEmail);
         if (user.isPresent()) {
-            return budgetAccessRepository.save(
+            BudgetAccess access = budgetAccessRepository.save(
                     BudgetAccess.builder()
                             .budget(Budget.builder().id(budgetId).build())
                             .user(user.get())
                             .accessLevel(accessLevel)
                             .build()
             );
+            evictAccessLevel(budgetId, user.get().getId());
+            eventPublisher.publishEvent(new BudgetAccessChangedEvent(budgetId));
+            return access;
         }
         throw new IllegalArgumentException("User with email " + userEmail + " does not exist.");
     }
 
     @Override
+    @Transactional
     public List<BudgetAccess> createAll(List<BudgetAccess> accesses) {
-        return budgetAccessRepository.saveAll(accesses);
+        List<BudgetAccess> created = budgetAccessRepository.saveAll(accesses);
+        created.forEach(this::evictAccessLevel);
+        created.forEach(this::publishAccessChange);
+        return created;
     }
 
     @Override
     @Transactional
     public BudgetAccess update(BudgetAccess access) {
-        return budgetAccessRepository.save(access);
+        boolean isNew = access.getId() == null;
+        BudgetAccess updated = budgetAccessRepository.save(access);
+        evictAccessLevel(updated);
+        if (isNew) {
+            publishAccessChange(updated);
+        }
+        return updated;
     }
 
     @Override
     @Transactional
     public boolean delete(Long accessId) {
-        if (budgetAccessRepository.existsById(accessId)) {
+        Optional<BudgetAccess> access = budgetAccessRepository.findById(accessId);
+        if (access.isPresent()) {
             budgetAccessRepository.deleteById(accessId);
+            evictAccessLevel(access.get());
+            publishAccessChange(access.get());
             return true;
         }
         return false;
@@ -118,12 +195,89 @@ public class BudgetAccessServiceHibernateImpl implements BudgetAccessService {
     @Override
     @Transactional
     public boolean deleteAllByUserId(Long userId) {
-        return !budgetAccessRepository.deleteAllByUserId(userId).isEmpty();
+        List<BudgetAccess> deleted = budgetAccessRepository.deleteAllByUserId(userId);
+        evictAccessLevels(userId);
+        deleted.forEach(this::publishAccessChange);
+        return !deleted.isEmpty();
     }
 
     @Override
     @Transactional
     public boolean deleteByBudgetIdAndUserId(Long id, Long userId) {
-        return budgetAccessRepository.deleteByBudgetIdAndUserId(id, userId) > 0;
+        if (budgetAccessRepository.deleteByBudgetIdAndUserId(id, userId) > 0) {
+            evictAccessLevel(id, userId);
+            eventPublisher.publishEvent(new BudgetAccessChangedEvent(id));
+            return true;
+        }
+        return false;
+    }
+
+    private CachedAccessLevel cachedAccessLevel(AccessKey key) {
+        CachedAccessLevel cached = accessLevels.get(key);
+        if (cached != null && cached.isExpired(System.currentTimeMillis())) {
+            accessLevels.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * Caches the level unless the cache is still full once expired levels are dropped.
+     */
+    private void cacheAccessLevel(AccessKey key, Optional<BudgetAccessLevel> level) {
+        long now = System.currentTimeMillis();
+        if (accessLevels.size() >= MAX_CACHED_LEVELS) {
+            accessLevels.values().removeIf(cached -> cached.isExpired(now));
+        }
+        if (accessLevels.size() < MAX_CACHED_LEVELS) {
+            accessLevels.putIfAbsent(key, new CachedAccessLevel(level, now + cacheSeconds * 1000));
+        }
+    }
+
+    private void publishAccessChange(BudgetAccess access) {
+        eventPublisher.publishEvent(new BudgetAccessChangedEvent(access.getBudget().getId()));
+    }
+
+    private void evictAccessLevel(BudgetAccess access) {
+        evictAccessLevel(access.getBudget().getId(), access.getUser().getId());
+    }
+
+    private void evictAccessLevel(Long budgetId, Long userId) {
+        AccessKey key = new AccessKey(budgetId, userId);
+        accessLevels.remove(key);
+        afterCompletion(() -> accessLevels.remove(key));
+    }
+
+    private void evictAccessLevels(Long userId) {
+        accessLevels.keySet().removeIf(key -> key.getUserId().equals(userId));
+        afterCompletion(() -> accessLevels.keySet().removeIf(key -> key.getUserId().equals(userId)));
+    }
+
+    private static void afterCompletion(Runnable action) {
+        // Evicted again once the transaction ends, since a lookup made meanwhile may have cached the old level
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    @Value
+    private static class AccessKey {
+        Long budgetId;
+        Long userId;
+    }
+
+    @Value
+    private static class CachedAccessLevel {
+        Optional<BudgetAccessLevel> level;
+        long expiresAt;
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
     }
 }
@@ -1,5 +1,7 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.dtos.AuditCursor;
+import com.ptda.tracker.dtos.AuditEntryDto;
 import com.ptda.tracker.models.tracker.Budget;
 import jakarta.transaction.Transactional;
 import org.hibernate.envers.DefaultRevisionEntity;
@@ -12,6 +14,8 @@ public interface BudgetAuditService {
 
     List<Number> getBudgetRevisions(Long budgetId);
 
+    List<AuditEntryDto> getTimeline(Long budgetId, AuditCursor cursor, int limit);
+
     Budget getBudgetAtRevision(Long budgetId, Number revision);
 
     boolean hasNameOrDescriptionChanged(Long budgetId, Number revision);
@@ -1,5 +1,7 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.dtos.AuditCursor;
+import com.ptda.tracker.dtos.AuditEntryDto;
 import com.ptda.tracker.models.tracker.Budget;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -7,18 +9,26 @@ import lombok.RequiredArgsConstructor;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
 import org.hibernate.envers.DefaultRevisionEntity;
+import org.hibernate.envers.RevisionType;
 import org.hibernate.envers.query.AuditEntity;
+import org.hibernate.envers.query.AuditQuery;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class BudgetAuditServiceHibernateImpl implements BudgetAuditService {
 
+    private static final String ENTITY_TYPE = Budget.class.getSimpleName();
+
     @PersistenceContext
     private final EntityManager entityManager;
+    private final ExpenseAuditService expenseAuditService;
+    private final RevisionCache<Budget> budgetCache = new RevisionCache<>(100);
+    private final RevisionCache<DefaultRevisionEntity> revisionCache = new RevisionCache<>(500);
 
     @Override
     @Transactional(readOnly = true)
@@ -36,10 +46,65 @@ public class BudgetAuditServiceHibernateImpl implements BudgetAuditService {
         return auditReader.getRevisions(Budget.class, budgetId);
     }
 
+    /**
+     * Reads a page of the history of the budget and its expenses, newest revision first.
+     * Within a revision the budget comes before its expenses, which are ordered by id descending.
+     *
+     * @param budgetId the ID of the budget
+     * @param cursor   the last entry of the previous page, or null for the first page
+     * @param limit    the maximum number of entries
+     * @return the entries after the cursor
+     */
     @Override
-    public Budget getBudgetAtRevision(Long budgetId, Number revision) {
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<AuditEntryDto> getTimeline(Long budgetId, AuditCursor cursor, int limit) {
         AuditReader auditReader = AuditReaderFactory.get(entityManager);
-        return auditReader.find(Budget.class, budgetId, revision);
+        AuditQuery query = auditReader.createQuery()
+                .forRevisionsOfEntity(Budget.class, false, true)
+                .addProjection(AuditEntity.revisionNumber())
+                .addProjection(AuditEntity.revisionProperty("timestamp"))
+                .addProjection(AuditEntity.revisionType())
+                .addProjection(AuditEntity.property("name"))
+                .addProjection(AuditEntity.property("description"))
+                .add(AuditEntity.id().eq(budgetId))
+                .addOrder(AuditEntity.revisionNumber().desc())
+                .setMaxResults(limit);
+        if (cursor != null) {
+            query.add(AuditEntity.revisionNumber().lt(cursor.getRevision()));
+        }
+
+        List<AuditEntryDto> budgetEntries = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            budgetEntries.add(new AuditEntryDto(ENTITY_TYPE, budgetId, ((Number) row[0]).intValue(),
+                    (Long) row[1], (RevisionType) row[2], (String) row[3], (String) row[4]));
+        }
+        List<AuditEntryDto> expenseEntries = expenseAuditService.getExpenseTimelineByBudgetId(budgetId, cursor, limit);
+
+        // Merge both pages, a budget entry goes first when it shares the revision with expense entries
+        List<AuditEntryDto> timeline = new ArrayList<>(Math.min(limit, budgetEntries.size() + expenseEntries.size()));
+        int b = 0, e = 0;
+        while (timeline.size() < limit && (b < budgetEntries.size() || e < expenseEntries.size())) {
+            if (e == expenseEntries.size() || (b < budgetEntries.size()
+                    && budgetEntries.get(b).getRevision() >= expenseEntries.get(e).getRevision())) {
+                timeline.add(budgetEntries.get(b++));
+            } else {
+                timeline.add(expenseEntries.get(e++));
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Past revisions never change, so snapshots are kept in a cache once read.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Budget getBudgetAtRevision(Long budgetId, Number revision) {
+        return budgetCache.get(List.of(budgetId, revision.intValue()), () -> {
+            AuditReader auditReader = AuditReaderFactory.get(entityManager);
+            return auditReader.find(Budget.class, budgetId, revision);
+        });
     }
 
     public boolean hasNameOrDescriptionChanged(Long budgetId, Number revision) {
@@ -57,6 +122,7 @@ public class BudgetAuditServiceHibernateImpl implements BudgetAuditService {
 
     @Override
     public DefaultRevisionEntity getRevisionEntity(long revisionNumber) {
-        return entityManager.find(DefaultRevisionEntity.class, revisionNumber);
+        return revisionCache.get((int) revisionNumber,
+                () -> entityManager.find(DefaultRevisionEntity.class, (int) revisionNumber));
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.util.LocaleManager;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.axis.CategoryAxis;
+import org.jfree.chart.axis.CategoryLabelPositions;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+
+/**
+ * The charts shown for the statistics of a budget. Charts are built from a snapshot only, so they can be
+ * created on any thread, both for the statistics screen and for reports.
+ */
+public enum BudgetChart {
+    EXPENSES_BY_CATEGORY("expenses_by_category"),
+    TRENDS_OVER_TIME("trends_over_time"),
+    CATEGORY_BREAKDOWN("category_breakdown"),
+    CUMULATIVE_TRENDS("cumulative_trends");
+
+    private final String titleKey;
+
+    BudgetChart(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public String getTitle() {
+        return localeManager.getTranslation(titleKey);
+    }
+
+    public JFreeChart create(BudgetStatisticsSnapshot statistics, ExpenseTimeSeries timeSeries) {
+        return switch (this) {
+            case EXPENSES_BY_CATEGORY -> createPieChart(statistics);
+            case TRENDS_OVER_TIME -> createLineChart(timeSeries);
+            case CATEGORY_BREAKDOWN -> createStackedBarChart(statistics);
+            case CUMULATIVE_TRENDS -> createAreaChart(timeSeries);
+        };
+    }
+
+    private JFreeChart createPieChart(BudgetStatisticsSnapshot statistics) {
+        DefaultPieDataset dataset = new DefaultPieDataset();
+        statistics.getCategoryTotals().forEach(dataset::setValue);
+
+        return ChartFactory.createPieChart(getTitle(), dataset, true, true, false);
+    }
+
+    private JFreeChart createLineChart(ExpenseTimeSeries timeSeries) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        String expenses = localeManager.getTranslation("expenses");
+        timeSeries.getTotals().forEach(point -> dataset.addValue(point.getValue(), expenses, point.getLabel()));
+
+        JFreeChart chart = ChartFactory.createLineChart(getTitle(),
+                localeManager.getTranslation("date"), localeManager.getTranslation("amount"),
+                dataset, PlotOrientation.VERTICAL, true, true, false);
+        applyTimeAxisSettings(chart);
+        return chart;
+    }
+
+    private JFreeChart createStackedBarChart(BudgetStatisticsSnapshot statistics) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        for (String userName : statistics.getUserNames()) {
+            for (ExpenseCategory category : ExpenseCategory.values()) {
+                double total = statistics.getUserCategoryTotal(userName, category);
+                if (total != 0) {
+                    dataset.addValue(total, category.toString(), userName);
+                }
+            }
+        }
+
+        return ChartFactory.createStackedBarChart(getTitle(),
+                localeManager.getTranslation("user"), localeManager.getTranslation("amount"),
+                dataset, PlotOrientation.VERTICAL, true, true, false);
+    }
+
+    private JFreeChart createAreaChart(ExpenseTimeSeries timeSeries) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        String cumulativeExpenses = localeManager.getTranslation("cumulative_expenses");
+        timeSeries.getCumulativeTotals().forEach(point -> dataset.addValue(point.getValue(), cumulativeExpenses, point.getLabel()));
+
+        JFreeChart chart = ChartFactory.createAreaChart(getTitle(),
+                localeManager.getTranslation("date"), localeManager.getTranslation("amount"),
+                dataset, PlotOrientation.VERTICAL, true, true, false);
+        applyTimeAxisSettings(chart);
+        return chart;
+    }
+
+    private static void applyTimeAxisSettings(JFreeChart chart) {
+        CategoryAxis domainAxis = chart.getCategoryPlot().getDomainAxis();
+        domainAxis.setCategoryLabelPositions(CategoryLabelPositions.UP_45);
+        domainAxis.setMaximumCategoryLabelLines(1);
+    }
+
+    private static final LocaleManager localeManager = LocaleManager.getInstance();
+}
@@ -0,0 +1,38 @@
+package com.ptda.tracker.services.tracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BudgetReportService {
+
+    void writeBudgetReport(Long budgetId, File file, ReportProgress progress) throws IOException;
+
+    /**
+     * Writes a report of the expenses of the budget dated between both days, inclusive.
+     */
+    void writeBudgetReport(Long budgetId, LocalDate from, LocalDate to, File file, ReportProgress progress) throws IOException;
+
+    /**
+     * Writes one section per budget, in the given order, to a single report.
+     */
+    void writeBudgetsReport(List<Long> budgetIds, File file, ReportProgress progress) throws IOException;
+
+    /**
+     * Writes one section per budget of the user with expenses in the year, covering that year only.
+     */
+    void writeYearlyReport(Long userId, int year, File file, ReportProgress progress) throws IOException;
+
+    /**
+     * Called on the writing thread each time a chart is written. Throwing from it aborts the report.
+     */
+    @FunctionalInterface
+    interface ReportProgress {
+        ReportProgress NONE = (done, total) -> {
+        };
+
+        void onProgress(int done, int total);
+    }
+
+}
@@ -0,0 +1,322 @@
+package com.ptda.tracker.services.tracker;
+
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+import com.ptda.tracker.dtos.BudgetRowDto;
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.repositories.DailyExpenseRollupRepository;
+import com.ptda.tracker.util.LocaleManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.jfree.chart.ChartUtilities;
+import org.jfree.chart.JFreeChart;
+import org.springframework.stereotype.Service;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+public class BudgetReportServiceImpl implements BudgetReportService {
+
+    private static final int CHART_WIDTH = 500, CHART_HEIGHT = 400;
+    /**
+     * Sections whose charts are rendered ahead of the one being written, which bounds the images held in memory.
+     */
+    private static final int LOOKAHEAD = 2;
+    private static final int CACHED_CHARTS = 64;
+
+    private final BudgetService budgetService;
+    private final BudgetStatisticsService budgetStatisticsService;
+    private final DailyExpenseRollupRepository dailyExpenseRollupRepository;
+
+    private final Map<ChartKey, byte[]> chartImages = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ChartKey, byte[]> eldest) {
+            return size() > CACHED_CHARTS;
+        }
+    });
+    private ExecutorService renderers;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        renderers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "chart-renderer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderers.shutdownNow();
+    }
+
+    @Override
+    public void writeBudgetReport(Long budgetId, File file, ReportProgress progress) throws IOException {
+        Budget budget = budgetService.getById(budgetId).orElseThrow(() -> new IllegalArgumentException("Budget not found"));
+        writeReport(translate("pdf_title") + budget.getName(), List.of(new Section(budgetId, null, null, null)), file, progress);
+    }
+
+    @Override
+    public void writeBudgetReport(Long budgetId, LocalDate from, LocalDate to, File file, ReportProgress progress) throws IOException {
+        Budget budget = budgetService.getById(budgetId).orElseThrow(() -> new IllegalArgumentException("Budget not found"));
+        writeReport(translate("pdf_title") + budget.getName() + " (" + from + " - " + to + ")",
+                List.of(new Section(budgetId, null, from, to)), file, progress);
+    }
+
+    @Override
+    public void writeBudgetsReport(List<Long> budgetIds, File file, ReportProgress progress) throws IOException {
+        List<Section> sections = new ArrayList<>(budgetIds.size());
+        for (Long budgetId : budgetIds) {
+            budgetService.getById(budgetId).ifPresent(budget -> sections.add(new Section(budgetId, budget.getName(), null, null)));
+        }
+        writeReport(translate("budgets_report_title"), sections, file, progress);
+    }
+
+    @Override
+    public void writeYearlyReport(Long userId, int year, File file, ReportProgress progress) throws IOException {
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = LocalDate.of(year, 12, 31);
+        List<BudgetRowDto> budgets = budgetService.getRowsByUserId(userId);
+        Set<Long> withExpenses = budgets.isEmpty() ? Set.of() : new HashSet<>(dailyExpenseRollupRepository
+                .findBudgetIdsWithRollupsBetween(budgets.stream().map(BudgetRowDto::getId).toList(), from, to));
+
+        List<Section> sections = budgets.stream()
+                .filter(budget -> withExpenses.contains(budget.getId()))
+                .map(budget -> new Section(budget.getId(), budget.getName(), from, to))
+                .toList();
+        writeReport(translate("yearly_report_title") + year, sections, file, progress);
+    }
+
+    /**
+     * Streams the report to the file section by section. While a section is written, the charts of the next
+     * ones are already rendering on the worker threads, and every image is written out as soon as it is added,
+     * so memory use does not grow with the number of sections. A report that fails is deleted.
+     */
+    private void writeReport(String title, List<Section> sections, File file, ReportProgress progress) throws IOException {
+        Deque<PendingSection> pending = new ArrayDeque<>();
+        Iterator<Section> upcoming = sections.iterator();
+        int charts = BudgetChart.values().length;
+        int done = 0;
+        PendingSection section = null;
+
+        try (PdfWriter writer = new PdfWriter(file);
+             PdfDocument pdf = new PdfDocument(writer);
+             Document document = new Document(pdf)) {
+
+            document.setMargins(50, 50, 50, 50);
+            addHeader(document, title);
+
+            while (pending.size() < LOOKAHEAD && upcoming.hasNext()) {
+                pending.add(render(upcoming.next()));
+            }
+            while (!pending.isEmpty()) {
+                section = pending.poll();
+                if (upcoming.hasNext()) {
+                    pending.add(render(upcoming.next()));
+                }
+                if (section.getName() != null) {
+                    if (done > 0) {
+                        document.add(new AreaBreak());
+                    }
+                    document.add(new Paragraph(section.getName())
+                            .setBold()
+                            .setFontSize(20)
+                            .setMarginBottom(10));
+                }
+                addSummary(document, section.getStatistics());
+
+                document.add(new Paragraph(translate("expense_analysis"))
+                        .setBold()
+                        .setFontSize(18)
+                        .setMarginTop(20)
+                        .setMarginBottom(20));
+                Table chartGrid = new Table(UnitValue.createPercentArray(2)).useAllAvailableWidth();
+                for (int chart = 0; chart < charts; chart++) {
+                    addChartToGrid(pdf, chartGrid, BudgetChart.values()[chart].getTitle(), await(section.getImages().get(chart)));
+                    progress.onProgress(++done, sections.size() * charts);
+                }
+                document.add(chartGrid);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The section being written has left the queue, its charts that are still rendering are cancelled too
+            if (section != null) {
+                cancelImages(section);
+            }
+            pending.forEach(BudgetReportServiceImpl::cancelImages);
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+    }
+
+    private static void cancelImages(PendingSection section) {
+        section.getImages().forEach(image -> image.cancel(false));
+    }
+
+    /**
+     * Loads the statistics of the section and submits its charts to the renderers, or reuses the images
+     * rendered for the same budget version before.
+     */
+    private PendingSection render(Section section) {
+        BudgetStatisticsSnapshot statistics = section.getFrom() == null
+                ? budgetStatisticsService.getSnapshot(section.getBudgetId())
+                : budgetStatisticsService.getSnapshot(section.getBudgetId(), section.getFrom(), section.getTo());
+        ExpenseTimeSeries timeSeries = ExpenseTimeSeries.of(statistics, ExpenseTimeSeries.MAX_POINTS);
+        Locale locale = LocaleManager.getInstance().getCurrentLocale();
+
+        List<Future<byte[]>> images = new ArrayList<>();
+        for (BudgetChart chart : BudgetChart.values()) {
+            ChartKey key = new ChartKey(section.getBudgetId(), statistics.getVersion(),
+                    section.getFrom(), section.getTo(), chart, locale);
+            byte[] image = chartImages.get(key);
+            images.add(image != null ? CompletableFuture.completedFuture(image) : renderers.submit(() -> {
+                byte[] rendered = toPng(chart.create(statistics, timeSeries));
+                chartImages.put(key, rendered);
+                return rendered;
+            }));
+        }
+        return new PendingSection(section.getName(), statistics, images);
+    }
+
+    private byte[] toPng(JFreeChart chart) throws IOException {
+        chart.setBackgroundPaint(Color.WHITE);
+        chart.getPlot().setBackgroundPaint(Color.WHITE);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ChartUtilities.writeChartAsPNG(output, chart, CHART_WIDTH, CHART_HEIGHT);
+        return output.toByteArray();
+    }
+
+    private byte[] await(Future<byte[]> image) throws IOException {
+        try {
+            return image.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Report generation was interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not render chart", e.getCause());
+        }
+    }
+
+    private void addHeader(Document document, String title) {
+        document.add(new Paragraph(title)
+                .setBold()
+                .setFontSize(24)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20));
+
+        document.add(new Paragraph(translate("generated_on") + LocalDate.now())
+                .setFontSize(12)
+                .setTextAlignment(TextAlignment.RIGHT)
+                .setMarginBottom(30));
+    }
+
+    private void addSummary(Document document, BudgetStatisticsSnapshot statistics) {
+        document.add(new Paragraph(translate("budget_overview"))
+                .setBold()
+                .setFontSize(18)
+                .setMarginBottom(10));
+
+        Table summaryTable = new Table(new float[]{1, 1})
+                .setWidth(UnitValue.createPercentValue(100))
+                .setMarginBottom(30);
+
+        summaryTable.addHeaderCell(createCell(translate("metric"), true));
+        summaryTable.addHeaderCell(createCell(translate("value"), true));
+
+        summaryTable.addCell(createCell(translate("total_expenses"), false));
+        summaryTable.addCell(createCell(String.format("$%.2f", statistics.getTotal()), false));
+
+        summaryTable.addCell(createCell(translate("number_categories"), false));
+        summaryTable.addCell(createCell(String.valueOf(statistics.getCategoryTotals().size()), false));
+
+        summaryTable.addCell(createCell(translate("number_users"), false));
+        summaryTable.addCell(createCell(String.valueOf(statistics.getParticipantCount()), false));
+
+        document.add(summaryTable);
+    }
+
+    /**
+     * Writes the image to the file right away, so only its size is kept until the page is laid out.
+     */
+    private void addChartToGrid(PdfDocument pdf, Table grid, String title, byte[] png) {
+        PdfImageXObject xObject = new PdfImageXObject(ImageDataFactory.create(png));
+        xObject.makeIndirect(pdf).flush();
+
+        grid.addCell(new Cell()
+                .add(new Paragraph(title)
+                        .setBold()
+                        .setFontSize(14)
+                        .setTextAlignment(TextAlignment.CENTER)
+                        .setMarginBottom(10))
+                .add(new Image(xObject)
+                        .setAutoScale(true)
+                        .setWidth(UnitValue.createPercentValue(100)))
+                .setPadding(10));
+    }
+
+    private Cell createCell(String content, boolean isHeader) {
+        Cell cell = new Cell().add(new Paragraph(content));
+        if (isHeader) {
+            cell.setBackgroundColor(ColorConstants.LIGHT_GRAY)
+                    .setBold()
+                    .setTextAlignment(TextAlignment.CENTER);
+        }
+        return cell;
+    }
+
+    @Value
+    private static class Section {
+        Long budgetId;
+        String name;
+        LocalDate from;
+        LocalDate to;
+    }
+
+    @Value
+    private static class PendingSection {
+        String name;
+        BudgetStatisticsSnapshot statistics;
+        List<Future<byte[]>> images;
+    }
+
+    @Value
+    private static class ChartKey {
+        Long budgetId;
+        long version;
+        LocalDate from;
+        LocalDate to;
+        BudgetChart chart;
+        Locale locale;
+    }
+
+    /**
+     * Reports are written long after this singleton is created, so texts are translated when they are written.
+     */
+    private static String translate(String key) {
+        return LocaleManager.getInstance().getTranslation(key);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.dtos.BudgetRowDto;
 import com.ptda.tracker.models.tracker.Budget;
 
 import java.util.List;
@@ -13,6 +14,10 @@ public interface BudgetService {
 
     List<Budget> getRecentByUserId(Long userId, int limit);
 
+    List<BudgetRowDto> getRowsByUserId(Long userId);
+
+    List<BudgetRowDto> getRecentRowsByUserId(Long userId, int limit);
+
     List<Budget> getAll();
 
     int getCount();
@@ -1,10 +1,13 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.dtos.BudgetRowDto;
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.BudgetAccessLevel;
+import com.ptda.tracker.repositories.BudgetAccessRepository;
 import com.ptda.tracker.repositories.BudgetRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,12 +19,13 @@ import java.util.stream.Collectors;
 public class BudgetServiceHibernateImpl implements BudgetService {
 
     private final BudgetRepository budgetRepository;
+    private final BudgetAccessRepository budgetAccessRepository;
     private final BudgetAccessService budgetAccessService;
     private final ExpenseService expenseService;
 
     @Override
     public Optional<Budget> getById(Long id) {
-        Optional<Budget> budgetOptional = budgetRepository.findById(id);
+        Optional<Budget> budgetOptional = budgetRepository.findDetailById(id);
         budgetOptional.ifPresent(budget -> {
             budgetAccessService.getAccessByBudgetIdAndUserId(budget.getId(), budget.getCreatedBy().getId())
                     .ifPresent(access -> budget.setFavorite(access.isFavorite()));
@@ -51,6 +55,16 @@ public class BudgetServiceHibernateImpl implements BudgetService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<BudgetRowDto> getRowsByUserId(Long userId) {
+        return budgetAccessRepository.findBudgetRowsByUserId(userId);
+    }
+
+    @Override
+    public List<BudgetRowDto> getRecentRowsByUserId(Long userId, int limit) {
+        return budgetAccessRepository.findRecentBudgetRowsByUserId(userId, PageRequest.of(0, limit));
+    }
+
     @Override
     public List<Budget> getAll() {
         return budgetRepository.findAll();
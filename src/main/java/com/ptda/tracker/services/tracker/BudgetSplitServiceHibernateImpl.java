@@ -1,11 +1,18 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.events.BudgetAccessChangedEvent;
+import com.ptda.tracker.events.ExpenseSplitChangedEvent;
+import com.ptda.tracker.events.ExpenseSplitSnapshot;
+import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.BudgetAccess;
 import com.ptda.tracker.models.tracker.BudgetSplit;
 import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.models.tracker.ExpenseDivision;
+import com.ptda.tracker.models.user.User;
 import com.ptda.tracker.repositories.BudgetSplitRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -22,120 +29,167 @@ public class BudgetSplitServiceHibernateImpl implements BudgetSplitService {
     private final ExpenseDivisionService expenseDivisionService;
 
     @Override
+    @Transactional
     public List<BudgetSplit> getAllByBudgetId(Long budgetId) {
-        if (!budgetSplitRepository.getAllByBudgetId(budgetId).isEmpty()) {
-            return budgetSplitRepository.getAllByBudgetId(budgetId);
-        } else {
-            return split(budgetId);
-        }
+        List<BudgetSplit> splits = budgetSplitRepository.getAllByBudgetId(budgetId);
+        return splits.isEmpty() ? split(budgetId) : splits;
     }
 
     /**
      * Splits the budget among users based on their expenses and custom divisions.
+     * Any split previously stored for the budget is replaced.
      *
      * @param budgetId the ID of the budget to split
      * @return a list of BudgetSplit objects representing the split amounts for each user
      */
     @Override
+    @Transactional
     public List<BudgetSplit> split(Long budgetId) {
-        List<BudgetSplit> splits = new ArrayList<>();
+        budgetSplitRepository.deleteAllByBudgetId(budgetId);
 
         // Retrieve accesses and expenses for the budget
         List<BudgetAccess> accesses = budgetAccessService.getAllByBudgetId(budgetId);
-        List<Expense> expenses = expenseService.getAllByBudgetId(budgetId);
+        List<Expense> expenses = expenseService.getSplitExpensesByBudgetId(budgetId);
 
         if (accesses.isEmpty() || expenses.isEmpty()) {
-            return splits; // Return empty list if no users or expenses are found
+            return new ArrayList<>(); // Return empty list if no users or expenses are found
+        }
+
+        // Load every custom division of the budget at once and group them by expense
+        Map<Long, List<ExpenseDivision>> divisionsByExpense = new HashMap<>();
+        for (ExpenseDivision division : expenseDivisionService.getAllByBudgetId(budgetId)) {
+            divisionsByExpense.computeIfAbsent(division.getExpense().getId(), id -> new ArrayList<>()).add(division);
         }
 
         // Map to track user splits
         Map<Long, BudgetSplit> userSplits = new HashMap<>();
+        Budget budget = expenses.get(0).getBudget();
 
         for (Expense expense : expenses) {
-            BigDecimal totalExpense = BigDecimal.valueOf(expense.getAmount());
-            BigDecimal remainingExpense = totalExpense;
-
-            List<Long> usersWithDivision = new ArrayList<>();
-
-            // Handle custom divisions
-            List<ExpenseDivision> divisions = expenseDivisionService.getAllByExpenseId(expense.getId());
-            if (divisions != null) {
-                for (ExpenseDivision division : divisions) {
-                    BigDecimal userShare = BigDecimal.valueOf(division.getAmount()).setScale(2, RoundingMode.HALF_UP);
-                    BigDecimal paidAmount = BigDecimal.valueOf(division.getPaidAmount()).setScale(2, RoundingMode.HALF_UP);
-
-                    // Update or create a BudgetSplit for the user
-                    userSplits.compute(division.getUser().getId(), (userId, split) -> {
-                        if (split == null) {
-                            split = BudgetSplit.builder()
-                                    .paidAmount(paidAmount.doubleValue())
-                                    .amount(userShare.doubleValue())
-                                    .user(division.getUser())
-                                    .budget(expense.getBudget())
-                                    .build();
-                        } else {
-                            split.setPaidAmount(BigDecimal.valueOf(split.getPaidAmount()).add(paidAmount).doubleValue());
-                            split.setAmount(BigDecimal.valueOf(split.getAmount()).add(userShare).doubleValue());
-                        }
-                        return split;
-                    });
-
-                    usersWithDivision.add(division.getUser().getId());
-                    remainingExpense = remainingExpense.subtract(userShare);
-                }
+            List<ExpenseDivision> divisions = divisionsByExpense.getOrDefault(expense.getId(), List.of());
+            applyExpense(userSplits, budget, accesses, ExpenseSplitSnapshot.of(expense, divisions), false);
+        }
+
+        adjustRoundingDiscrepancy(userSplits.values());
+        return budgetSplitRepository.saveAll(userSplits.values());
+    }
+
+    /**
+     * Applies the difference between the old and new state of the changed expenses to the stored splits.
+     * Budgets without a stored split are skipped, their split is computed in full on the next read.
+     */
+    @EventListener
+    @Transactional
+    public void onExpenseSplitChanged(ExpenseSplitChangedEvent event) {
+        Set<Long> budgetIds = new HashSet<>();
+        event.getBefore().forEach(snapshot -> budgetIds.add(snapshot.getBudgetId()));
+        event.getAfter().forEach(snapshot -> budgetIds.add(snapshot.getBudgetId()));
+        budgetIds.remove(null);
+
+        for (Long budgetId : budgetIds) {
+            List<BudgetSplit> splits = budgetSplitRepository.getAllByBudgetId(budgetId);
+            if (splits.isEmpty()) {
+                continue;
             }
 
-            // Divide remaining expense among users without custom divisions
-            List<BudgetAccess> usersWithoutDivision = accesses.stream()
-                    .filter(access -> !usersWithDivision.contains(access.getUser().getId()))
-                    .toList();
-
-            if (!usersWithoutDivision.isEmpty()) {
-                BigDecimal perUserAmount = remainingExpense.divide(
-                        BigDecimal.valueOf(usersWithoutDivision.size()), 2, RoundingMode.HALF_UP);
-
-                for (BudgetAccess access : usersWithoutDivision) {
-                    userSplits.compute(access.getUser().getId(), (userId, split) -> {
-                        if (split == null) {
-                            split = BudgetSplit.builder()
-                                    .amount(perUserAmount.doubleValue())
-                                    .paidAmount(access.getUser().getId().equals(expense.getCreatedBy().getId())
-                                            ? totalExpense.doubleValue()
-                                            : 0)
-                                    .user(access.getUser())
-                                    .budget(expense.getBudget())
-                                    .build();
-                        } else {
-                            split.setAmount(BigDecimal.valueOf(split.getAmount()).add(perUserAmount).doubleValue());
-                            if (access.getUser().getId().equals(expense.getCreatedBy().getId())) {
-                                split.setPaidAmount(BigDecimal.valueOf(split.getPaidAmount())
-                                        .add(totalExpense).doubleValue());
-                            }
-                        }
-                        return split;
-                    });
+            List<BudgetAccess> accesses = budgetAccessService.getAllByBudgetId(budgetId);
+            Map<Long, BudgetSplit> userSplits = new HashMap<>();
+            splits.forEach(split -> userSplits.put(split.getUser().getId(), split));
+            Budget budget = splits.get(0).getBudget();
+
+            for (ExpenseSplitSnapshot snapshot : event.getBefore()) {
+                if (budgetId.equals(snapshot.getBudgetId())) {
+                    applyExpense(userSplits, budget, accesses, snapshot, true);
+                }
+            }
+            for (ExpenseSplitSnapshot snapshot : event.getAfter()) {
+                if (budgetId.equals(snapshot.getBudgetId())) {
+                    applyExpense(userSplits, budget, accesses, snapshot, false);
                 }
             }
+
+            adjustRoundingDiscrepancy(userSplits.values());
+            budgetSplitRepository.saveAll(userSplits.values());
         }
+    }
+
+    /**
+     * Drops the stored split of a budget whose participants changed, since every equal share changes with them.
+     */
+    @EventListener
+    @Transactional
+    public void onBudgetAccessChanged(BudgetAccessChangedEvent event) {
+        budgetSplitRepository.deleteAllByBudgetId(event.getBudgetId());
+    }
 
-        // Adjust rounding discrepancies
-        BigDecimal totalPaid = userSplits.values().stream()
+    private void applyExpense(Map<Long, BudgetSplit> userSplits, Budget budget, List<BudgetAccess> accesses,
+                              ExpenseSplitSnapshot expense, boolean remove) {
+        BigDecimal totalExpense = BigDecimal.valueOf(expense.getAmount());
+        BigDecimal remainingExpense = totalExpense;
+
+        Set<Long> usersWithDivision = new HashSet<>();
+
+        // Handle custom divisions
+        for (ExpenseSplitSnapshot.Share share : expense.getShares()) {
+            BigDecimal userShare = BigDecimal.valueOf(share.getAmount()).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal paidAmount = BigDecimal.valueOf(share.getPaidAmount()).setScale(2, RoundingMode.HALF_UP);
+
+            addToSplit(userSplits, budget, share.getUser(), userShare, paidAmount, remove);
+
+            usersWithDivision.add(share.getUser().getId());
+            remainingExpense = remainingExpense.subtract(userShare);
+        }
+
+        // Divide remaining expense among users without custom divisions
+        List<BudgetAccess> usersWithoutDivision = accesses.stream()
+                .filter(access -> !usersWithDivision.contains(access.getUser().getId()))
+                .toList();
+
+        if (!usersWithoutDivision.isEmpty()) {
+            BigDecimal perUserAmount = remainingExpense.divide(
+                    BigDecimal.valueOf(usersWithoutDivision.size()), 2, RoundingMode.HALF_UP);
+
+            for (BudgetAccess access : usersWithoutDivision) {
+                BigDecimal paidAmount = access.getUser().getId().equals(expense.getCreatedById())
+                        ? totalExpense
+                        : BigDecimal.ZERO;
+                addToSplit(userSplits, budget, access.getUser(), perUserAmount, paidAmount, remove);
+            }
+        }
+    }
+
+    private void addToSplit(Map<Long, BudgetSplit> userSplits, Budget budget, User user,
+                            BigDecimal amount, BigDecimal paidAmount, boolean remove) {
+        BudgetSplit split = userSplits.computeIfAbsent(user.getId(), userId -> BudgetSplit.builder()
+                .user(user)
+                .budget(budget)
+                .build());
+        if (remove) {
+            amount = amount.negate();
+            paidAmount = paidAmount.negate();
+        }
+        split.setAmount(BigDecimal.valueOf(split.getAmount()).add(amount).doubleValue());
+        split.setPaidAmount(BigDecimal.valueOf(split.getPaidAmount()).add(paidAmount).doubleValue());
+    }
+
+    private void adjustRoundingDiscrepancy(Collection<BudgetSplit> splits) {
+        if (splits.isEmpty()) {
+            return;
+        }
+
+        BigDecimal totalPaid = splits.stream()
                 .map(split -> BigDecimal.valueOf(split.getPaidAmount()))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        BigDecimal totalAmount = userSplits.values().stream()
+        BigDecimal totalAmount = splits.stream()
                 .map(split -> BigDecimal.valueOf(split.getAmount()))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         BigDecimal discrepancy = totalPaid.subtract(totalAmount).setScale(2, RoundingMode.HALF_UP);
 
         if (discrepancy.compareTo(BigDecimal.ZERO) != 0) {
-            userSplits.values().iterator().next().setAmount(
-                    BigDecimal.valueOf(userSplits.values().iterator().next().getAmount())
-                            .add(discrepancy).doubleValue());
+            BudgetSplit first = splits.iterator().next();
+            first.setAmount(BigDecimal.valueOf(first.getAmount()).add(discrepancy).doubleValue());
         }
-
-        splits.addAll(userSplits.values());
-        return budgetSplitRepository.saveAll(splits);
     }
 }
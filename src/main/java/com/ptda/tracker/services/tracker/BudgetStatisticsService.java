@@ -0,0 +1,17 @@
+package com.ptda.tracker.services.tracker;
+
+import java.time.LocalDate;
+
+public interface BudgetStatisticsService {
+
+    /**
+     * Returns the statistics of the budget, summing them again only when the budget changed since the last call.
+     */
+    BudgetStatisticsSnapshot getSnapshot(Long budgetId);
+
+    /**
+     * Returns the statistics of the expenses of the budget dated between both days, inclusive. Ranged snapshots are not cached.
+     */
+    BudgetStatisticsSnapshot getSnapshot(Long budgetId, LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,92 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.events.BudgetAccessChangedEvent;
+import com.ptda.tracker.events.ExpenseRollupChangedEvent;
+import com.ptda.tracker.events.ExpenseRollupSnapshot;
+import com.ptda.tracker.repositories.BudgetAccessRepository;
+import com.ptda.tracker.models.tracker.BudgetStatisticsVersion;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.BudgetStatisticsVersionRepository;
+import com.ptda.tracker.repositories.DailyExpenseRollupRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BudgetStatisticsServiceImpl implements BudgetStatisticsService {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAccessRepository budgetAccessRepository;
+    private final BudgetStatisticsVersionRepository budgetStatisticsVersionRepository;
+    private final DailyExpenseRollupRepository dailyExpenseRollupRepository;
+
+    private final Map<Long, BudgetStatisticsSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Override
+    public BudgetStatisticsSnapshot getSnapshot(Long budgetId) {
+        // The version is read before the rollups, a write in between only makes the next call sum them again
+        long version = budgetStatisticsVersionRepository.findVersionByBudgetId(budgetId).orElse(0L);
+        BudgetStatisticsSnapshot snapshot = snapshots.get(budgetId);
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = BudgetStatisticsSnapshot.of(version,
+                    budgetAccessRepository.countByBudgetId(budgetId),
+                    dailyExpenseRollupRepository.findRowsByBudgetId(budgetId));
+            snapshots.put(budgetId, snapshot);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public BudgetStatisticsSnapshot getSnapshot(Long budgetId, LocalDate from, LocalDate to) {
+        return BudgetStatisticsSnapshot.of(budgetStatisticsVersionRepository.findVersionByBudgetId(budgetId).orElse(0L),
+                budgetAccessRepository.countByBudgetId(budgetId),
+                dailyExpenseRollupRepository.findRowsByBudgetIdAndDateBetween(budgetId, from, to));
+    }
+
+    /**
+     * Moves the statistics version of the budgets whose expenses changed, in the writing transaction,
+     * so every client sees their statistics as outdated once the change is committed.
+     */
+    @EventListener
+    @Transactional
+    public void onExpenseRollupChanged(ExpenseRollupChangedEvent event) {
+        // In ID order, as the rollups lock budgets in that order too
+        Set<Long> budgetIds = new TreeSet<>();
+        Stream.concat(event.getBefore().stream(), event.getAfter().stream())
+                .map(ExpenseRollupSnapshot::getBudgetId)
+                .filter(Objects::nonNull)
+                .forEach(budgetIds::add);
+        budgetIds.forEach(this::incrementVersion);
+    }
+
+    /**
+     * The participant count is part of the statistics, so a user joining or leaving outdates them as well.
+     */
+    @EventListener
+    @Transactional
+    public void onBudgetAccessChanged(BudgetAccessChangedEvent event) {
+        incrementVersion(event.getBudgetId());
+    }
+
+    /**
+     * Increments the version in place, so concurrent writers never lose a change. The first change of a budget
+     * inserts its row under a lock on the budget, a concurrent first change waits for it and increments it instead.
+     */
+    private void incrementVersion(Long budgetId) {
+        if (budgetStatisticsVersionRepository.increment(budgetId) == 0
+                && budgetRepository.findLockedById(budgetId).isPresent()
+                && budgetStatisticsVersionRepository.increment(budgetId) == 0) {
+            budgetStatisticsVersionRepository.save(new BudgetStatisticsVersion(budgetId, 1));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.repositories.DailyExpenseRollupRepository;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Every figure the statistics of a budget show, summed in a single pass over its daily rollups.
+ * Snapshots are immutable and stamped with the statistics version of the budget they were read at,
+ * so they can be reused until the budget changes again.
+ */
+public class BudgetStatisticsSnapshot {
+
+    private static final ExpenseCategory[] CATEGORIES = ExpenseCategory.values();
+
+    @Getter
+    private final long version;
+    @Getter
+    private final int participantCount;
+    @Getter
+    private final double total;
+    private final double[] categoryTotals;
+    private final LocalDate[] dates;
+    private final double[] dailyTotals;
+    private final double[] cumulativeTotals;
+    private final Map<String, double[]> userCategoryTotals;
+
+    private BudgetStatisticsSnapshot(long version, int participantCount, double total, double[] categoryTotals,
+                                     LocalDate[] dates, double[] dailyTotals, double[] cumulativeTotals,
+                                     Map<String, double[]> userCategoryTotals) {
+        this.version = version;
+        this.participantCount = participantCount;
+        this.total = total;
+        this.categoryTotals = categoryTotals;
+        this.dates = dates;
+        this.dailyTotals = dailyTotals;
+        this.cumulativeTotals = cumulativeTotals;
+        this.userCategoryTotals = userCategoryTotals;
+    }
+
+    /**
+     * Sums the rollup rows of a budget, which must be ordered by date.
+     */
+    public static BudgetStatisticsSnapshot of(long version, int participantCount,
+                                              List<DailyExpenseRollupRepository.RollupRow> rows) {
+        double total = 0;
+        double[] categoryTotals = new double[CATEGORIES.length];
+        LocalDate[] dates = new LocalDate[rows.size()];
+        double[] dailyTotals = new double[rows.size()];
+        Map<String, double[]> userCategoryTotals = new TreeMap<>();
+        int days = 0;
+
+        for (DailyExpenseRollupRepository.RollupRow row : rows) {
+            int category = (row.getCategory() != null ? row.getCategory() : ExpenseCategory.OTHER).ordinal();
+            if (days == 0 || !dates[days - 1].equals(row.getDate())) {
+                dates[days++] = row.getDate();
+            }
+            total += row.getTotal();
+            categoryTotals[category] += row.getTotal();
+            dailyTotals[days - 1] += row.getTotal();
+            if (row.getUserName() != null) {
+                userCategoryTotals.computeIfAbsent(row.getUserName(), name -> new double[CATEGORIES.length])[category] += row.getTotal();
+            }
+        }
+
+        double[] cumulativeTotals = new double[days];
+        double cumulative = 0;
+        for (int day = 0; day < days; day++) {
+            cumulative += dailyTotals[day];
+            cumulativeTotals[day] = cumulative;
+        }
+        return new BudgetStatisticsSnapshot(version, participantCount, total, categoryTotals,
+                Arrays.copyOf(dates, days), Arrays.copyOf(dailyTotals, days), cumulativeTotals, userCategoryTotals);
+    }
+
+    /**
+     * Totals of the categories the budget has expenses in.
+     */
+    public Map<ExpenseCategory, Double> getCategoryTotals() {
+        Map<ExpenseCategory, Double> totals = new EnumMap<>(ExpenseCategory.class);
+        for (ExpenseCategory category : CATEGORIES) {
+            if (categoryTotals[category.ordinal()] != 0) {
+                totals.put(category, categoryTotals[category.ordinal()]);
+            }
+        }
+        return totals;
+    }
+
+    public int getDayCount() {
+        return dates.length;
+    }
+
+    public LocalDate getDate(int day) {
+        return dates[day];
+    }
+
+    public double getDailyTotal(int day) {
+        return dailyTotals[day];
+    }
+
+    public double getCumulativeTotal(int day) {
+        return cumulativeTotals[day];
+    }
+
+    /**
+     * Names of the users with expenses in the budget, in alphabetical order.
+     */
+    public Set<String> getUserNames() {
+        return Collections.unmodifiableSet(userCategoryTotals.keySet());
+    }
+
+    public double getUserCategoryTotal(String userName, ExpenseCategory category) {
+        double[] totals = userCategoryTotals.get(userName);
+        return totals != null ? totals[category.ordinal()] : 0;
+    }
+}
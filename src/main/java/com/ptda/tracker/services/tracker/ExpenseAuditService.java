@@ -1,5 +1,7 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.dtos.AuditCursor;
+import com.ptda.tracker.dtos.AuditEntryDto;
 import com.ptda.tracker.models.tracker.Expense;
 import jakarta.transaction.Transactional;
 import org.hibernate.envers.DefaultRevisionEntity;
@@ -10,6 +12,10 @@ public interface ExpenseAuditService {
 
     List<Object[]> getExpenseRevisionsWithDetails(Long expenseId);
 
+    List<AuditEntryDto> getExpenseTimelineByBudgetId(Long budgetId, AuditCursor cursor, int limit);
+
+    List<AuditEntryDto> getUnauditedExpensesByBudgetId(Long budgetId);
+
     List<Number> getExpenseRevisions(Long expenseId);
 
     Expense getExpenseAtRevision(Long expenseId, Number revision);
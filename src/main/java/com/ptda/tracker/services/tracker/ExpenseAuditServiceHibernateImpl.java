@@ -1,25 +1,36 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.dtos.AuditCursor;
+import com.ptda.tracker.dtos.AuditEntryDto;
 import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.repositories.ExpenseRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
 import org.hibernate.envers.DefaultRevisionEntity;
+import org.hibernate.envers.RevisionType;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseAuditServiceHibernateImpl implements ExpenseAuditService {
 
+    private static final String ENTITY_TYPE = Expense.class.getSimpleName();
+
     @PersistenceContext
     private final EntityManager entityManager;
+    private final ExpenseRepository expenseRepository;
+    private final RevisionCache<Expense> expenseCache = new RevisionCache<>(500);
+    private final RevisionCache<DefaultRevisionEntity> revisionCache = new RevisionCache<>(500);
 
     @Transactional(readOnly = true)
     public List<Object[]> getExpenseRevisionsWithDetails(Long expenseId) {
@@ -30,20 +41,94 @@ public class ExpenseAuditServiceHibernateImpl implements ExpenseAuditService {
         return query.getResultList();
     }
 
+    /**
+     * Reads a page of the revisions of the budget's expenses, newest first, without loading the audited entities.
+     *
+     * @param budgetId the ID of the budget
+     * @param cursor   the last entry of the previous page, or null for the first page
+     * @param limit    the maximum number of entries
+     * @return the entries after the cursor
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<AuditEntryDto> getExpenseTimelineByBudgetId(Long budgetId, AuditCursor cursor, int limit) {
+        AuditReader auditReader = AuditReaderFactory.get(entityManager);
+        AuditQuery query = auditReader.createQuery()
+                .forRevisionsOfEntity(Expense.class, false, true)
+                .addProjection(AuditEntity.revisionNumber())
+                .addProjection(AuditEntity.revisionProperty("timestamp"))
+                .addProjection(AuditEntity.revisionType())
+                .addProjection(AuditEntity.id())
+                .addProjection(AuditEntity.property("title"))
+                .addProjection(AuditEntity.property("description"))
+                .add(AuditEntity.relatedId("budget").eq(budgetId))
+                .addOrder(AuditEntity.revisionNumber().desc())
+                .addOrder(AuditEntity.id().desc())
+                .setMaxResults(limit);
+        if (cursor != null) {
+            // Budgets come before expenses within a revision, after a budget every expense of its revision is still to come
+            query.add(ENTITY_TYPE.equals(cursor.getEntityType())
+                    ? AuditEntity.or(
+                            AuditEntity.revisionNumber().lt(cursor.getRevision()),
+                            AuditEntity.and(
+                                    AuditEntity.revisionNumber().eq(cursor.getRevision()),
+                                    AuditEntity.id().lt(cursor.getEntityId())))
+                    : AuditEntity.revisionNumber().le(cursor.getRevision()));
+        }
+
+        List<AuditEntryDto> entries = new ArrayList<>();
+        for (Object[] row : (List<Object[]>) query.getResultList()) {
+            entries.add(new AuditEntryDto(ENTITY_TYPE, (Long) row[3], ((Number) row[0]).intValue(),
+                    (Long) row[1], (RevisionType) row[2], (String) row[4], (String) row[5]));
+        }
+        return entries;
+    }
+
+    /**
+     * Lists the budget's expenses that have no revision, newest first, for data created before auditing was
+     * enabled. A single query checks the audit table for each expense, no expense entity is loaded.
+     *
+     * @param budgetId the ID of the budget
+     * @return the unaudited expenses as creation entries with revision 0
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditEntryDto> getUnauditedExpensesByBudgetId(Long budgetId) {
+        List<AuditEntryDto> entries = new ArrayList<>();
+        for (ExpenseRepository.ExpenseSummary expense : expenseRepository.findUnauditedSummariesByBudgetId(budgetId)) {
+            entries.add(new AuditEntryDto(ENTITY_TYPE, expense.getId(), 0, expense.getCreatedAt(),
+                    RevisionType.ADD, expense.getTitle(), expense.getDescription()));
+        }
+        return entries;
+    }
+
     @Transactional(readOnly = true)
     public List<Number> getExpenseRevisions(Long expenseId) {
         AuditReader auditReader = AuditReaderFactory.get(entityManager);
         return auditReader.getRevisions(Expense.class, expenseId);
     }
 
+    /**
+     * Past revisions never change, so snapshots are kept in a cache once read. Audit queries take no fetch plan, the
+     * budget and creator the revision dialog shows are loaded before the snapshot leaves the transaction.
+     */
     @Transactional(readOnly = true)
     public Expense getExpenseAtRevision(Long expenseId, Number revision) {
-        AuditReader auditReader = AuditReaderFactory.get(entityManager);
-        return auditReader.find(Expense.class, expenseId, revision);
+        return expenseCache.get(List.of(expenseId, revision.intValue()), () -> {
+            AuditReader auditReader = AuditReaderFactory.get(entityManager);
+            Expense expense = auditReader.find(Expense.class, expenseId, revision);
+            if (expense != null) {
+                Hibernate.initialize(expense.getBudget());
+                Hibernate.initialize(expense.getCreatedBy());
+            }
+            return expense;
+        });
     }
 
     @Override
     public DefaultRevisionEntity getRevisionEntity(long revisionNumber) {
-        return entityManager.find(DefaultRevisionEntity.class, revisionNumber);
+        return revisionCache.get((int) revisionNumber,
+                () -> entityManager.find(DefaultRevisionEntity.class, (int) revisionNumber));
     }
 }
@@ -1,13 +1,27 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.models.tracker.ExpenseCategory;
 import com.ptda.tracker.models.tracker.ExpenseColumnMapping;
+import com.ptda.tracker.models.user.User;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ExpenseColumnMappingService {
 
     List<ExpenseColumnMapping> getAllByUserId(Long userId);
 
+    /**
+     * Categories the user mapped imported category names to, keyed by name ignoring case. The dictionary is cached
+     * per user until one of their mappings changes.
+     */
+    Map<String, ExpenseCategory> getCategoryDictionary(Long userId);
+
+    /**
+     * Adds the category mappings confirmed during an import to the user's dictionary, updating names already in it.
+     */
+    void saveCategoryDictionary(User user, Map<String, ExpenseCategory> categoryMapping);
+
     ExpenseColumnMapping create(ExpenseColumnMapping expenseColumnMapping);
 
     ExpenseColumnMapping update(ExpenseColumnMapping expenseColumnMapping);
@@ -1,34 +1,93 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.models.tracker.ExpenseCategory;
 import com.ptda.tracker.models.tracker.ExpenseColumnMapping;
+import com.ptda.tracker.models.user.User;
 import com.ptda.tracker.repositories.ExpenseColumnMappingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseColumnMappingServiceHibernateImpl implements ExpenseColumnMappingService {
     private final ExpenseColumnMappingRepository expenseColumnMappingRepository;
+    private final Map<Long, Map<String, ExpenseCategory>> dictionaries = new ConcurrentHashMap<>();
 
     @Override
     public List<ExpenseColumnMapping> getAllByUserId(Long userId) {
         return expenseColumnMappingRepository.findAllByCreatedBy_Id(userId);
     }
 
+    @Override
+    public Map<String, ExpenseCategory> getCategoryDictionary(Long userId) {
+        return dictionaries.computeIfAbsent(userId, id -> {
+            Map<String, ExpenseCategory> dictionary = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (ExpenseColumnMapping mapping : expenseColumnMappingRepository.findAllByCreatedBy_Id(id)) {
+                dictionary.put(mapping.getName().trim(), mapping.getCategory());
+            }
+            return Collections.unmodifiableMap(dictionary);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void saveCategoryDictionary(User user, Map<String, ExpenseCategory> categoryMapping) {
+        Map<String, ExpenseColumnMapping> existing = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (ExpenseColumnMapping mapping : expenseColumnMappingRepository.findAllByCreatedBy_Id(user.getId())) {
+            existing.put(mapping.getName().trim(), mapping);
+        }
+
+        List<ExpenseColumnMapping> changed = new ArrayList<>();
+        categoryMapping.forEach((name, category) -> {
+            if (name == null || name.isBlank() || category == null) {
+                return;
+            }
+            ExpenseColumnMapping mapping = existing.get(name.trim());
+            if (mapping == null) {
+                // Names left on the default category were not chosen by the user
+                if (category != ExpenseCategory.OTHER) {
+                    changed.add(ExpenseColumnMapping.builder().name(name.trim()).category(category).createdBy(user).build());
+                }
+            } else if (mapping.getCategory() != category) {
+                mapping.setCategory(category);
+                changed.add(mapping);
+            }
+        });
+
+        if (!changed.isEmpty()) {
+            expenseColumnMappingRepository.saveAll(changed);
+            dictionaries.remove(user.getId());
+        }
+    }
+
     @Override
     public ExpenseColumnMapping create(ExpenseColumnMapping expenseColumnMapping) {
-        return expenseColumnMappingRepository.save(expenseColumnMapping);
+        ExpenseColumnMapping created = expenseColumnMappingRepository.save(expenseColumnMapping);
+        evict(created);
+        return created;
     }
 
     @Override
     public ExpenseColumnMapping update(ExpenseColumnMapping expenseColumnMapping) {
-        return expenseColumnMappingRepository.save(expenseColumnMapping);
+        ExpenseColumnMapping updated = expenseColumnMappingRepository.save(expenseColumnMapping);
+        evict(updated);
+        return updated;
     }
 
     @Override
     public void delete(Long id) {
+        Optional<ExpenseColumnMapping> mapping = expenseColumnMappingRepository.findById(id);
         expenseColumnMappingRepository.deleteById(id);
+        mapping.ifPresent(this::evict);
+    }
+
+    private void evict(ExpenseColumnMapping mapping) {
+        if (mapping.getCreatedBy() != null) {
+            dictionaries.remove(mapping.getCreatedBy().getId());
+        }
     }
 }
@@ -8,6 +8,8 @@ public interface ExpenseDivisionService {
 
     List<ExpenseDivision> getAllByExpenseId(Long expenseId);
 
+    List<ExpenseDivision> getAllByBudgetId(Long budgetId);
+
     ExpenseDivision getById(Long id);
 
     ExpenseDivision create(ExpenseDivision expenseDivision);
@@ -1,25 +1,39 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.events.ExpenseSplitChangedEvent;
+import com.ptda.tracker.events.ExpenseSplitSnapshot;
 import com.ptda.tracker.models.tracker.ExpenseDivision;
 import com.ptda.tracker.repositories.ExpenseDivisionRepository;
+import com.ptda.tracker.repositories.ExpenseRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ExpenseDivisionServiceHibernateImpl implements ExpenseDivisionService {
 
     private final ExpenseDivisionRepository expenseDivisionRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ExpenseDivision> getAllByExpenseId(Long expenseId) {
         return expenseDivisionRepository.findAllByExpenseId(expenseId);
     }
 
+    @Override
+    public List<ExpenseDivision> getAllByBudgetId(Long budgetId) {
+        return expenseDivisionRepository.findAllByBudgetId(budgetId);
+    }
+
     @Override
     public ExpenseDivision getById(Long id) {
         Optional<ExpenseDivision> optionalSubdivision = expenseDivisionRepository.findById(id);
@@ -29,32 +43,47 @@ public class ExpenseDivisionServiceHibernateImpl implements ExpenseDivisionServi
     @Override
     @Transactional
     public ExpenseDivision create(ExpenseDivision expenseDivision) {
-        return expenseDivisionRepository.save(expenseDivision);
+        List<ExpenseSplitSnapshot> before = snapshot(Set.of(expenseDivision.getExpense().getId()));
+        ExpenseDivision created = expenseDivisionRepository.save(expenseDivision);
+        publishSplitChange(before);
+        return created;
     }
 
     @Override
     @Transactional
     public List<ExpenseDivision> createAll(List<ExpenseDivision> expenseDivisions) {
-        return expenseDivisionRepository.saveAll(expenseDivisions);
+        List<ExpenseSplitSnapshot> before = snapshot(expenseIdsOf(expenseDivisions));
+        List<ExpenseDivision> created = expenseDivisionRepository.saveAll(expenseDivisions);
+        publishSplitChange(before);
+        return created;
     }
 
     @Override
     @Transactional
     public ExpenseDivision update(ExpenseDivision expenseDivision) {
-        return expenseDivisionRepository.save(expenseDivision);
+        List<ExpenseSplitSnapshot> before = snapshot(Set.of(expenseDivision.getExpense().getId()));
+        ExpenseDivision updated = expenseDivisionRepository.save(expenseDivision);
+        publishSplitChange(before);
+        return updated;
     }
 
     @Override
     @Transactional
     public List<ExpenseDivision> updateAll(List<ExpenseDivision> expenseDivisions) {
-        return expenseDivisionRepository.saveAll(expenseDivisions);
+        List<ExpenseSplitSnapshot> before = snapshot(expenseIdsOf(expenseDivisions));
+        List<ExpenseDivision> updated = expenseDivisionRepository.saveAll(expenseDivisions);
+        publishSplitChange(before);
+        return updated;
     }
 
     @Override
     @Transactional
     public boolean deleteById(Long id) {
-        if (expenseDivisionRepository.existsById(id)) {
+        Optional<ExpenseDivision> division = expenseDivisionRepository.findById(id);
+        if (division.isPresent()) {
+            List<ExpenseSplitSnapshot> before = snapshot(Set.of(division.get().getExpense().getId()));
             expenseDivisionRepository.deleteById(id);
+            publishSplitChange(before);
             return true;
         }
         return false;
@@ -63,8 +92,37 @@ public class ExpenseDivisionServiceHibernateImpl implements ExpenseDivisionServi
     @Override
     @Transactional
     public boolean deleteAllByExpenseId(Long id) {
+        List<ExpenseSplitSnapshot> before = snapshot(Set.of(id));
         expenseDivisionRepository.deleteAllByExpenseId(id);
+        publishSplitChange(before);
         return true;
     }
 
-}
\ No newline at end of file
+    private Set<Long> expenseIdsOf(List<ExpenseDivision> expenseDivisions) {
+        return expenseDivisions.stream()
+                .map(division -> division.getExpense().getId())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Captures the stored state of the given budget expenses, personal expenses never take part in a split.
+     */
+    private List<ExpenseSplitSnapshot> snapshot(Collection<Long> expenseIds) {
+        return expenseRepository.findAllById(expenseIds).stream()
+                .filter(expense -> expense.getBudget() != null)
+                .map(expense -> ExpenseSplitSnapshot.of(expense,
+                        expenseDivisionRepository.findAllByExpenseId(expense.getId())))
+                .toList();
+    }
+
+    private void publishSplitChange(List<ExpenseSplitSnapshot> before) {
+        if (before.isEmpty()) {
+            return;
+        }
+        Set<Long> expenseIds = before.stream()
+                .map(ExpenseSplitSnapshot::getExpenseId)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new ExpenseSplitChangedEvent(before, snapshot(expenseIds)));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.models.tracker.Expense;
+import lombok.Value;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Keys of existing expenses by day, amount in cents and normalized title, used to recognise the rows of a
+ * re-imported statement in constant time.
+ * <p>
+ * Keys are counted, and each existing expense matches a single imported row. Identical expenses, such as two coffees
+ * on the same day, are then only treated as duplicates as many times as they already exist.
+ */
+public class ExpenseDuplicateIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<Key, Integer> counts = new HashMap<>();
+
+    void add(Date date, double amount, String title) {
+        counts.merge(key(date, amount, title), 1, Integer::sum);
+    }
+
+    /**
+     * Checks whether the expense matches an existing one that was not matched yet, and if so uses that match up.
+     * Expenses without a date are never duplicates.
+     */
+    public boolean consume(Expense expense) {
+        if (expense.getDate() == null) {
+            return false;
+        }
+        Key key = key(expense.getDate(), expense.getAmount(), expense.getTitle());
+        Integer count = counts.get(key);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            counts.remove(key);
+        } else {
+            counts.put(key, count - 1);
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    private Key key(Date date, double amount, String title) {
+        // getTime() also works for the java.sql.Date values read from the database
+        long day = Instant.ofEpochMilli(date.getTime()).atZone(zone).toLocalDate().toEpochDay();
+        return new Key(day, Math.round(Math.abs(amount) * 100), normalize(title));
+    }
+
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String withoutAccents = MARKS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutAccents.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    @Value
+    private static class Key {
+        long day;
+        long cents;
+        String title;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+
+import java.util.Map;
+
+public interface ExpenseRollupService {
+
+    Map<ExpenseCategory, Double> getCategoryTotalsByUserId(Long userId);
+
+    boolean isEmpty();
+
+    /**
+     * Throws every rollup away and sums them again from the expenses.
+     */
+    void rebuildAll();
+
+}
@@ -0,0 +1,207 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.events.ExpenseRollupChangedEvent;
+import com.ptda.tracker.events.ExpenseRollupSnapshot;
+import com.ptda.tracker.models.tracker.DailyExpenseRollup;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.tracker.MonthlyExpenseRollup;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.DailyExpenseRollupRepository;
+import com.ptda.tracker.repositories.ExpenseRepository;
+import com.ptda.tracker.repositories.MonthlyExpenseRollupRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ExpenseRollupServiceHibernateImpl implements ExpenseRollupService {
+    private static final Comparator<DailyKey> DAILY_ORDER = Comparator.comparing(DailyKey::getBudgetId)
+            .thenComparing(DailyKey::getDate)
+            .thenComparing(DailyKey::getCategory)
+            .thenComparing(DailyKey::getUserId, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final Comparator<MonthlyKey> MONTHLY_ORDER = Comparator.comparing(MonthlyKey::getUserId)
+            .thenComparing(MonthlyKey::getMonth)
+            .thenComparing(MonthlyKey::getCategory);
+
+    private final DailyExpenseRollupRepository dailyExpenseRollupRepository;
+    private final MonthlyExpenseRollupRepository monthlyExpenseRollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public Map<ExpenseCategory, Double> getCategoryTotalsByUserId(Long userId) {
+        return toCategoryMap(monthlyExpenseRollupRepository.sumTotalByCategory(userId));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dailyExpenseRollupRepository.count() == 0 && monthlyExpenseRollupRepository.count() == 0;
+    }
+
+    @Override
+    @Transactional
+    public void rebuildAll() {
+        dailyExpenseRollupRepository.deleteAllInBatch();
+        monthlyExpenseRollupRepository.deleteAllInBatch();
+
+        Map<DailyKey, Delta> daily = new HashMap<>();
+        Map<MonthlyKey, Delta> monthly = new HashMap<>();
+        for (ExpenseRepository.DayGroup group : expenseRepository.sumAmountByBudgetDateCategoryAndCreatedBy()) {
+            ExpenseRollupSnapshot snapshot = new ExpenseRollupSnapshot(
+                    group.getBudgetId(),
+                    group.getUserId(),
+                    group.getCategory() != null ? group.getCategory() : ExpenseCategory.OTHER,
+                    ExpenseRollupSnapshot.dayOf(group.getDate().getTime()),
+                    group.getTotal()
+            );
+            collect(daily, monthly, snapshot, group.getTotal(), group.getExpenseCount());
+        }
+        expenseRepository.findAllByDateNull()
+                .forEach(expense -> collect(daily, monthly, ExpenseRollupSnapshot.of(expense), expense.getAmount(), 1));
+
+        dailyExpenseRollupRepository.saveAll(daily.entrySet().stream()
+                .map(entry -> entry.getKey().toRollup(entry.getValue()))
+                .toList());
+        monthlyExpenseRollupRepository.saveAll(monthly.entrySet().stream()
+                .map(entry -> entry.getKey().toRollup(entry.getValue()))
+                .toList());
+    }
+
+    /**
+     * Subtracts the old state of the changed expenses from their rollups and adds the new one, touching every
+     * affected rollup row once however many expenses changed. Rows are updated in place. A missing row is
+     * inserted under a lock on its budget or user, so a concurrent first insert waits and then updates it.
+     * <p>
+     * Budgets and users are visited in ID order and their rows in key order, so concurrent writers take the row locks
+     * in the same order. That makes deadlocks rare but not impossible: the lock on a budget or user is taken after the
+     * rows updated before the missing one, and the database then rolls back one of the writers.
+     */
+    @EventListener
+    @Transactional
+    public void onExpenseRollupChanged(ExpenseRollupChangedEvent event) {
+        Map<DailyKey, Delta> daily = new TreeMap<>(DAILY_ORDER);
+        Map<MonthlyKey, Delta> monthly = new TreeMap<>(MONTHLY_ORDER);
+        event.getBefore().forEach(snapshot -> collect(daily, monthly, snapshot, -snapshot.getAmount(), -1));
+        event.getAfter().forEach(snapshot -> collect(daily, monthly, snapshot, snapshot.getAmount(), 1));
+        daily.values().removeIf(Delta::isEmpty);
+        monthly.values().removeIf(Delta::isEmpty);
+
+        daily.keySet().stream()
+                .collect(Collectors.groupingBy(DailyKey::getBudgetId, TreeMap::new, Collectors.toList()))
+                .forEach((budgetId, keys) -> {
+                    for (DailyKey key : keys) {
+                        Delta delta = daily.get(key);
+                        if (incrementDaily(key, delta) == 0 && budgetRepository.findLockedById(budgetId).isPresent()
+                                && incrementDaily(key, delta) == 0) {
+                            dailyExpenseRollupRepository.save(key.toRollup(delta));
+                        }
+                    }
+                    dailyExpenseRollupRepository.deleteEmptyByBudgetId(budgetId);
+                });
+
+        monthly.keySet().stream()
+                .collect(Collectors.groupingBy(MonthlyKey::getUserId, TreeMap::new, Collectors.toList()))
+                .forEach((userId, keys) -> {
+                    for (MonthlyKey key : keys) {
+                        Delta delta = monthly.get(key);
+                        if (incrementMonthly(key, delta) == 0 && userRepository.findLockedById(userId).isPresent()
+                                && incrementMonthly(key, delta) == 0) {
+                            monthlyExpenseRollupRepository.save(key.toRollup(delta));
+                        }
+                    }
+                    monthlyExpenseRollupRepository.deleteEmptyByUserId(userId);
+                });
+    }
+
+    private int incrementDaily(DailyKey key, Delta delta) {
+        return dailyExpenseRollupRepository.increment(key.getBudgetId(), key.getDate(), key.getCategory(), key.getUserId(),
+                delta.total, delta.count);
+    }
+
+    private int incrementMonthly(MonthlyKey key, Delta delta) {
+        return monthlyExpenseRollupRepository.increment(key.getUserId(), key.getMonth(), key.getCategory(),
+                delta.total, delta.count);
+    }
+
+    /**
+     * Adds an amount and expense count to the daily rollup of its budget and the monthly rollup of its creator.
+     * Personal expenses only have a monthly rollup, and expenses without a creator only a daily one.
+     */
+    private void collect(Map<DailyKey, Delta> daily, Map<MonthlyKey, Delta> monthly,
+                         ExpenseRollupSnapshot snapshot, double total, long count) {
+        if (snapshot.getBudgetId() != null) {
+            daily.computeIfAbsent(new DailyKey(snapshot.getBudgetId(), snapshot.getDate(), snapshot.getCategory(), snapshot.getUserId()),
+                    key -> new Delta()).add(total, count);
+        }
+        if (snapshot.getUserId() != null) {
+            monthly.computeIfAbsent(new MonthlyKey(snapshot.getUserId(), snapshot.getDate().withDayOfMonth(1), snapshot.getCategory()),
+                    key -> new Delta()).add(total, count);
+        }
+    }
+
+    private Map<ExpenseCategory, Double> toCategoryMap(List<ExpenseRepository.CategoryTotal> totals) {
+        Map<ExpenseCategory, Double> categories = new EnumMap<>(ExpenseCategory.class);
+        totals.forEach(total -> categories.merge(
+                total.getCategory() != null ? total.getCategory() : ExpenseCategory.OTHER, total.getTotal(), Double::sum));
+        return categories;
+    }
+
+    private static class Delta {
+        private double total;
+        private long count;
+
+        private void add(double total, long count) {
+            this.total += total;
+            this.count += count;
+        }
+
+        private boolean isEmpty() {
+            return total == 0 && count == 0;
+        }
+    }
+
+    @Value
+    private static class DailyKey {
+        Long budgetId;
+        LocalDate date;
+        ExpenseCategory category;
+        Long userId;
+
+        DailyExpenseRollup toRollup(Delta delta) {
+            return DailyExpenseRollup.builder()
+                    .budgetId(budgetId)
+                    .date(date)
+                    .category(category)
+                    .userId(userId)
+                    .total(delta.total)
+                    .expenseCount(delta.count)
+                    .build();
+        }
+    }
+
+    @Value
+    private static class MonthlyKey {
+        Long userId;
+        LocalDate month;
+        ExpenseCategory category;
+
+        MonthlyExpenseRollup toRollup(Delta delta) {
+            return MonthlyExpenseRollup.builder()
+                    .userId(userId)
+                    .month(month)
+                    .category(category)
+                    .total(delta.total)
+                    .expenseCount(delta.count)
+                    .build();
+        }
+    }
+}
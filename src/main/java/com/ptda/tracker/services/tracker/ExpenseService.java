@@ -1,7 +1,10 @@
 package com.ptda.tracker.services.tracker;
 
+import com.ptda.tracker.dtos.ExpenseCursor;
+import com.ptda.tracker.dtos.ExpenseRowDto;
 import com.ptda.tracker.models.tracker.Expense;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -14,6 +17,11 @@ public interface ExpenseService {
 
     List<Expense> getAllByBudgetId(Long budgetId);
 
+    /**
+     * The budget's expenses with only what a split computation reads, without their creators.
+     */
+    List<Expense> getSplitExpensesByBudgetId(Long budgetId);
+
     List<Expense> getAllByUserId(Long userId);
 
     List<Expense> getRecentExpensesByUserId(Long userId, int limit);
@@ -26,8 +34,20 @@ public interface ExpenseService {
 
     List<Expense> getPersonalExpensesByUserIdWithPagination(Long userId, int offset, int limit);
 
+    List<Expense> getExpensesByBudgetIdAfter(Long budgetId, ExpenseCursor cursor, int limit);
+
+    List<Expense> getExpensesByBudgetIdBefore(Long budgetId, ExpenseCursor cursor, int limit);
+
+    List<ExpenseRowDto> getRecentExpenseRowsByUserId(Long userId, int limit);
+
+    List<ExpenseRowDto> getPersonalExpenseRowsByUserIdWithPagination(Long userId, int offset, int limit);
+
+    List<ExpenseRowDto> getPersonalExpenseRowsByUserIdAfter(Long userId, ExpenseCursor cursor, int limit);
+
     double getTotalExpenseAmountByBudgetId(Long budgetId);
 
+    ExpenseDuplicateIndex getDuplicateIndex(Long budgetId, Long userId, Date from, Date to);
+
     int getCountByBudgetId(Long id);
 
     int getCountByUserId(Long userId);
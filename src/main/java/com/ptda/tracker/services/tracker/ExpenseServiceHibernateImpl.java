@@ -1,19 +1,32 @@
 package com.ptda.tracker.services.tracker;
 
-import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.dtos.ExpenseCursor;
+import com.ptda.tracker.dtos.ExpenseRowDto;
+import com.ptda.tracker.events.ExpenseRollupChangedEvent;
+import com.ptda.tracker.events.ExpenseRollupSnapshot;
+import com.ptda.tracker.events.ExpenseSplitChangedEvent;
+import com.ptda.tracker.events.ExpenseSplitSnapshot;
 import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.models.tracker.ExpenseDivision;
 import com.ptda.tracker.repositories.BudgetRepository;
 import com.ptda.tracker.repositories.ExpenseRepository;
 import com.ptda.tracker.repositories.ExpenseDivisionRepository;
+import com.ptda.tracker.repositories.MonthlyExpenseRollupRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,22 +37,44 @@ public class ExpenseServiceHibernateImpl implements ExpenseService {
     private final ExpenseRepository expenseRepository;
     private final ExpenseDivisionService expenseDivisionService;
     private final BudgetRepository budgetRepository;
+    private final ExpenseDivisionRepository expenseDivisionRepository;
+    private final MonthlyExpenseRollupRepository monthlyExpenseRollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
 
     @Override
     @Transactional
     public Expense create(Expense expense) {
-        return expenseRepository.save(expense);
+        Expense created = expenseRepository.save(expense);
+        publishSplitChange(List.of(), snapshotWithoutDivisions(List.of(created)));
+        publishRollupChange(List.of(), rollupSnapshot(List.of(created)));
+        return created;
     }
 
     @Override
     @Transactional
     public List<Expense> createAll(List<Expense> expenses) {
-        return expenseRepository.saveAll(expenses);
+        List<Expense> created = new ArrayList<>(expenses.size());
+        for (Expense expense : expenses) {
+            created.add(expenseRepository.save(expense));
+            if (created.size() % batchSize == 0 && created.size() < expenses.size()) {
+                // Send the pending inserts as one JDBC batch and detach them, so large imports keep the
+                // persistence context, and the dirty checking at commit, bounded to a single batch
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        publishSplitChange(List.of(), snapshotWithoutDivisions(created));
+        publishRollupChange(List.of(), rollupSnapshot(created));
+        return created;
     }
 
     @Override
     public Optional<Expense> getById(Long id) {
-        return expenseRepository.findById(id);
+        return expenseRepository.findDetailById(id);
     }
 
     @Override
@@ -57,6 +92,11 @@ public class ExpenseServiceHibernateImpl implements ExpenseService {
         return expenseRepository.findAllByBudgetId(budgetId);
     }
 
+    @Override
+    public List<Expense> getSplitExpensesByBudgetId(Long budgetId) {
+        return expenseRepository.findSplitRowsByBudgetId(budgetId);
+    }
+
     @Override
     public List<Expense> getAllByUserId(Long userId) {
         return expenseRepository.findAllByCreatedById(userId);
@@ -75,31 +115,84 @@ public class ExpenseServiceHibernateImpl implements ExpenseService {
 
     @Override
     public double getTotalExpenseAmountByBudgetId(Long budgetId) {
-        return expenseRepository.findAllByBudgetId(budgetId).stream()
-                .mapToDouble(Expense::getAmount)
-                .sum();
+        return expenseRepository.sumAmountByBudgetId(budgetId);
+    }
+
+    @Override
+    public ExpenseDuplicateIndex getDuplicateIndex(Long budgetId, Long userId, Date from, Date to) {
+        List<ExpenseRepository.ExpenseKey> keys = budgetId != null
+                ? expenseRepository.findKeysByBudgetIdAndDateBetween(budgetId, from, to)
+                : expenseRepository.findPersonalKeysByCreatedByIdAndDateBetween(userId, from, to);
+        ExpenseDuplicateIndex index = new ExpenseDuplicateIndex();
+        keys.forEach(key -> index.add(key.getDate(), key.getAmount(), key.getTitle()));
+        return index;
     }
 
     @Override
     public Map<String, Double> getExpensesByCategory(Long userId) {
-        List<Expense> expenses = expenseRepository.findAllByCreatedById(userId);
-        return expenses.stream()
-                .collect(Collectors.groupingBy(
-                        expense -> expense.getCategory().toString(),
-                        Collectors.summingDouble(Expense::getAmount)
+        return monthlyExpenseRollupRepository.sumTotalByCategory(userId).stream()
+                .collect(Collectors.toMap(
+                        total -> String.valueOf(total.getCategory()),
+                        ExpenseRepository.CategoryTotal::getTotal,
+                        Double::sum
                 ));
     }
 
     @Override
     public List<Expense> getExpensesByBudgetIdWithPagination(Long budgetId, int offset, int limit) {
         Pageable pageable = PageRequest.of(offset / limit, limit);
-        return expenseRepository.findByBudgetIdOrderByDateDesc(budgetId, pageable);
+        return expenseRepository.findByBudgetIdOrderByDateDescIdDesc(budgetId, pageable);
     }
 
     @Override
     public List<Expense> getPersonalExpensesByUserIdWithPagination(Long userId, int offset, int limit) {
         Pageable pageable = PageRequest.of(offset / limit, limit);
-        return expenseRepository.findByCreatedByIdAndBudgetNullOrderByDateDesc(userId, pageable);
+        return expenseRepository.findByCreatedByIdAndBudgetNullOrderByDateDescIdDesc(userId, pageable);
+    }
+
+    /**
+     * Reads the page of budget expenses that follows the cursor, or the first page when there is no cursor.
+     */
+    @Override
+    public List<Expense> getExpensesByBudgetIdAfter(Long budgetId, ExpenseCursor cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        if (cursor == null) {
+            return expenseRepository.findByBudgetIdOrderByDateDescIdDesc(budgetId, pageable);
+        }
+        return expenseRepository.findByBudgetIdAfter(budgetId, cursor.getDate(), cursor.getId(), pageable);
+    }
+
+    /**
+     * Reads the page of budget expenses that precedes the cursor, in the same descending order as the other pages.
+     */
+    @Override
+    public List<Expense> getExpensesByBudgetIdBefore(Long budgetId, ExpenseCursor cursor, int limit) {
+        if (cursor == null) {
+            return new ArrayList<>();
+        }
+        List<Expense> expenses = new ArrayList<>(expenseRepository.findByBudgetIdBefore(
+                budgetId, cursor.getDate(), cursor.getId(), PageRequest.of(0, limit)));
+        Collections.reverse(expenses);
+        return expenses;
+    }
+
+    @Override
+    public List<ExpenseRowDto> getRecentExpenseRowsByUserId(Long userId, int limit) {
+        return expenseRepository.findRecentRowsByCreatedById(userId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<ExpenseRowDto> getPersonalExpenseRowsByUserIdWithPagination(Long userId, int offset, int limit) {
+        return expenseRepository.findPersonalRowsByCreatedById(userId, PageRequest.of(offset / limit, limit));
+    }
+
+    @Override
+    public List<ExpenseRowDto> getPersonalExpenseRowsByUserIdAfter(Long userId, ExpenseCursor cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        if (cursor == null) {
+            return expenseRepository.findPersonalRowsByCreatedById(userId, pageable);
+        }
+        return expenseRepository.findPersonalRowsByCreatedByIdAfter(userId, cursor.getDate(), cursor.getId(), pageable);
     }
 
     @Override
@@ -120,7 +213,13 @@ public class ExpenseServiceHibernateImpl implements ExpenseService {
     @Override
     @Transactional
     public Expense update(Expense expense) {
-        return expenseRepository.save(expense);
+        List<Expense> stored = stored(Collections.singletonList(expense.getId()));
+        List<ExpenseSplitSnapshot> before = snapshot(stored);
+        List<ExpenseRollupSnapshot> rollupBefore = rollupSnapshot(stored);
+        Expense updated = expenseRepository.save(expense);
+        publishSplitChange(before, snapshot(List.of(updated)));
+        publishRollupChange(rollupBefore, rollupSnapshot(List.of(updated)));
+        return updated;
     }
 
     @Override
@@ -129,26 +228,43 @@ public class ExpenseServiceHibernateImpl implements ExpenseService {
         if (expense.getBudget() == null) {
             throw new IllegalArgumentException("Budget must not be null.");
         }
+        List<Expense> stored = stored(Collections.singletonList(expense.getId()));
+        List<ExpenseRollupSnapshot> rollupBefore = rollupSnapshot(stored);
+        List<ExpenseSplitSnapshot> before;
         if (updateDivisions) {
-            Optional<Expense> optionalExpense = expenseRepository.findById(expense.getId());
-            if (optionalExpense.isPresent() && expense.getAmount() != optionalExpense.get().getAmount()) {
+            // The shares are captured before they are rescaled, so the split change covers both the expense
+            // and its divisions and is published once
+            before = snapshot(stored);
+            if (!stored.isEmpty() && expense.getAmount() != stored.get(0).getAmount()) {
                 List<ExpenseDivision> divisions = expenseDivisionService.getAllByExpenseId(expense.getId());
-                double proportion = expense.getAmount() / optionalExpense.get().getAmount();
+                double proportion = expense.getAmount() / stored.get(0).getAmount();
                 for (ExpenseDivision division : divisions) {
                     division.setAmount(division.getAmount() * proportion);
                     division.setPaidAmount(division.getPaidAmount() * proportion);
                 }
-                expenseDivisionService.updateAll(divisions);
+                expenseDivisionRepository.saveAll(divisions);
             }
         } else {
+            // Deleting the divisions publishes its own split change, only the expense itself is left
             expenseDivisionService.deleteAllByExpenseId(expense.getId());
+            before = snapshot(stored);
         }
-        return expenseRepository.save(expense);
+        Expense updated = expenseRepository.save(expense);
+        publishSplitChange(before, snapshot(List.of(updated)));
+        publishRollupChange(rollupBefore, rollupSnapshot(List.of(updated)));
+        return updated;
     }
 
     @Override
+    @Transactional
     public List<Expense> updateAll(List<Expense> expenses) {
-        return expenseRepository.saveAll(expenses);
+        List<Expense> stored = stored(expenses.stream().map(Expense::getId).toList());
+        List<ExpenseSplitSnapshot> before = snapshot(stored);
+        List<ExpenseRollupSnapshot> rollupBefore = rollupSnapshot(stored);
+        List<Expense> updated = expenseRepository.saveAll(expenses);
+        publishSplitChange(before, snapshot(updated));
+        publishRollupChange(rollupBefore, rollupSnapshot(updated));
+        return updated;
     }
 
     @Override
@@ -159,7 +275,11 @@ public class ExpenseServiceHibernateImpl implements ExpenseService {
             // Delete related subdivisions first
             expenseDivisionService.deleteAllByExpenseId(id);
             // Then delete the expense
+            List<ExpenseSplitSnapshot> before = snapshotWithoutDivisions(List.of(optionalExpense.get()));
+            List<ExpenseRollupSnapshot> rollupBefore = rollupSnapshot(List.of(optionalExpense.get()));
             expenseRepository.deleteById(id);
+            publishSplitChange(before, List.of());
+            publishRollupChange(rollupBefore, List.of());
             return true;
         }
         return false;
@@ -169,7 +289,56 @@ public class ExpenseServiceHibernateImpl implements ExpenseService {
     @Transactional
     public boolean deleteAllPersonalExpensesByUserId(Long userId) {
         List<Expense> personalExpenses = expenseRepository.findAllByCreatedByIdAndBudgetNull(userId);
+        List<ExpenseRollupSnapshot> rollupBefore = rollupSnapshot(personalExpenses);
         expenseRepository.deleteAll(personalExpenses);
+        publishRollupChange(rollupBefore, List.of());
         return true;
     }
-}
\ No newline at end of file
+
+    private List<Expense> stored(List<Long> ids) {
+        List<Long> storedIds = ids.stream().filter(Objects::nonNull).toList();
+        return storedIds.isEmpty() ? new ArrayList<>() : expenseRepository.findAllById(storedIds);
+    }
+
+    /**
+     * Captures the stored state of the given budget expenses, personal expenses never take part in a split.
+     */
+    private List<ExpenseSplitSnapshot> snapshot(List<Expense> expenses) {
+        List<Expense> budgetExpenses = expenses.stream()
+                .filter(expense -> expense.getBudget() != null)
+                .toList();
+        if (budgetExpenses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<ExpenseDivision>> divisionsByExpense = expenseDivisionRepository
+                .findAllByExpenseIdIn(budgetExpenses.stream().map(Expense::getId).toList()).stream()
+                .collect(Collectors.groupingBy(division -> division.getExpense().getId()));
+        return budgetExpenses.stream()
+                .map(expense -> ExpenseSplitSnapshot.of(expense,
+                        divisionsByExpense.getOrDefault(expense.getId(), List.of())))
+                .toList();
+    }
+
+    private List<ExpenseSplitSnapshot> snapshotWithoutDivisions(List<Expense> created) {
+        return created.stream()
+                .filter(expense -> expense.getBudget() != null)
+                .map(expense -> ExpenseSplitSnapshot.of(expense, List.of()))
+                .toList();
+    }
+
+    private List<ExpenseRollupSnapshot> rollupSnapshot(List<Expense> expenses) {
+        return expenses.stream().map(ExpenseRollupSnapshot::of).toList();
+    }
+
+    private void publishRollupChange(List<ExpenseRollupSnapshot> before, List<ExpenseRollupSnapshot> after) {
+        if (!before.isEmpty() || !after.isEmpty()) {
+            eventPublisher.publishEvent(new ExpenseRollupChangedEvent(before, after));
+        }
+    }
+
+    private void publishSplitChange(List<ExpenseSplitSnapshot> before, List<ExpenseSplitSnapshot> after) {
+        if (!before.isEmpty() || !after.isEmpty()) {
+            eventPublisher.publishEvent(new ExpenseSplitChangedEvent(before, after));
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.ptda.tracker.services.tracker;
+
+import lombok.Getter;
+import lombok.Value;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spending of a budget over time, bucketed by day, week or month depending on how long its history is,
+ * and downsampled so a chart never gets more than a fixed number of points however many expenses it has.
+ */
+public class ExpenseTimeSeries {
+
+    public static final int MAX_POINTS = 120;
+
+    @Getter
+    private final Bucket bucket;
+    @Getter
+    private final List<Point> totals;
+    @Getter
+    private final List<Point> cumulativeTotals;
+
+    private ExpenseTimeSeries(Bucket bucket, List<Point> totals, List<Point> cumulativeTotals) {
+        this.bucket = bucket;
+        this.totals = totals;
+        this.cumulativeTotals = cumulativeTotals;
+    }
+
+    /**
+     * Buckets the daily totals of a snapshot with the finest bucket that keeps the series within
+     * {@code maxPoints}. Empty buckets are kept so the points stay evenly spaced in time. If even monthly
+     * buckets are too many, the totals keep the lowest and highest bucket of each group and the running
+     * totals are reduced with largest-triangle-three-buckets, which both keep the shape of the series.
+     */
+    public static ExpenseTimeSeries of(BudgetStatisticsSnapshot statistics, int maxPoints) {
+        int days = statistics.getDayCount();
+        if (days == 0) {
+            return new ExpenseTimeSeries(Bucket.DAY, List.of(), List.of());
+        }
+        LocalDate first = statistics.getDate(0);
+        LocalDate last = statistics.getDate(days - 1);
+        Bucket bucket = Bucket.DAY;
+        while (bucket.next() != null && bucket.count(first, last) > maxPoints) {
+            bucket = bucket.next();
+        }
+
+        int count = (int) bucket.count(first, last);
+        LocalDate start = bucket.start(first);
+        double[] totals = new double[count];
+        for (int day = 0; day < days; day++) {
+            totals[(int) bucket.between(start, statistics.getDate(day))] += statistics.getDailyTotal(day);
+        }
+        double[] cumulativeTotals = new double[count];
+        double cumulative = 0;
+        for (int index = 0; index < count; index++) {
+            cumulative += totals[index];
+            cumulativeTotals[index] = cumulative;
+        }
+
+        return new ExpenseTimeSeries(bucket,
+                toPoints(bucket, start, totals, minMax(totals, maxPoints)),
+                toPoints(bucket, start, cumulativeTotals, largestTriangleThreeBuckets(cumulativeTotals, maxPoints)));
+    }
+
+    /**
+     * Keeps the first and last bucket and, in between, the lowest and highest bucket of each group,
+     * so peaks and dips survive the downsampling.
+     */
+    static int[] minMax(double[] values, int maxPoints) {
+        if (values.length <= maxPoints || maxPoints < 4) {
+            return allIndexes(values.length);
+        }
+        int groups = (maxPoints - 2) / 2;
+        double groupSize = (double) (values.length - 2) / groups;
+        List<Integer> indexes = new ArrayList<>(maxPoints);
+        indexes.add(0);
+        for (int group = 0; group < groups; group++) {
+            int from = 1 + (int) (group * groupSize);
+            int to = 1 + (int) ((group + 1) * groupSize);
+            int min = from;
+            int max = from;
+            for (int index = from + 1; index < to; index++) {
+                if (values[index] < values[min]) min = index;
+                if (values[index] > values[max]) max = index;
+            }
+            indexes.add(Math.min(min, max));
+            if (min != max) {
+                indexes.add(Math.max(min, max));
+            }
+        }
+        indexes.add(values.length - 1);
+        return indexes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Picks, from each group of buckets, the one forming the largest triangle with the previously picked
+     * bucket and the average of the next group.
+     */
+    static int[] largestTriangleThreeBuckets(double[] values, int maxPoints) {
+        if (values.length <= maxPoints || maxPoints < 3) {
+            return allIndexes(values.length);
+        }
+        int[] indexes = new int[maxPoints];
+        double groupSize = (double) (values.length - 2) / (maxPoints - 2);
+        int picked = 0;
+        for (int group = 0; group < maxPoints - 2; group++) {
+            int from = 1 + (int) (group * groupSize);
+            int to = 1 + (int) ((group + 1) * groupSize);
+
+            int nextFrom = to;
+            int nextTo = Math.min(1 + (int) ((group + 2) * groupSize), values.length);
+            double averageX = 0;
+            double averageY = 0;
+            for (int index = nextFrom; index < nextTo; index++) {
+                averageX += index;
+                averageY += values[index];
+            }
+            averageX /= nextTo - nextFrom;
+            averageY /= nextTo - nextFrom;
+
+            double largestArea = -1;
+            int largest = from;
+            for (int index = from; index < to; index++) {
+                double area = Math.abs((picked - averageX) * (values[index] - values[picked])
+                        - (picked - index) * (averageY - values[picked]));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = index;
+                }
+            }
+            indexes[group + 1] = largest;
+            picked = largest;
+        }
+        indexes[maxPoints - 1] = values.length - 1;
+        return indexes;
+    }
+
+    private static int[] allIndexes(int count) {
+        int[] indexes = new int[count];
+        for (int index = 0; index < count; index++) {
+            indexes[index] = index;
+        }
+        return indexes;
+    }
+
+    private static List<Point> toPoints(Bucket bucket, LocalDate start, double[] values, int[] indexes) {
+        List<Point> points = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            points.add(new Point(bucket.label(bucket.plus(start, index)), values[index]));
+        }
+        return List.copyOf(points);
+    }
+
+    public enum Bucket {
+        DAY(ChronoUnit.DAYS),
+        WEEK(ChronoUnit.WEEKS),
+        MONTH(ChronoUnit.MONTHS);
+
+        private final ChronoUnit unit;
+
+        Bucket(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        LocalDate start(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        long between(LocalDate start, LocalDate date) {
+            return unit.between(start, start(date));
+        }
+
+        long count(LocalDate first, LocalDate last) {
+            return between(start(first), last) + 1;
+        }
+
+        LocalDate plus(LocalDate start, long buckets) {
+            return start.plus(buckets, unit);
+        }
+
+        String label(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.toString();
+                case WEEK -> String.format("%d-W%02d",
+                        start.get(IsoFields.WEEK_BASED_YEAR), start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+                case MONTH -> YearMonth.from(start).toString();
+            };
+        }
+
+        Bucket next() {
+            return ordinal() + 1 < values().length ? values()[ordinal() + 1] : null;
+        }
+    }
+
+    @Value
+    public static class Point {
+        String label;
+        double value;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ptda.tracker.services.tracker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of data read at a past revision. Revisions never change once written,
+ * so entries are never invalidated, only evicted.
+ */
+class RevisionCache<T> {
+    private final Map<Object, T> entries;
+
+    RevisionCache(int maxEntries) {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, T> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key or loads it, values that are not found are not cached.
+     */
+    T get(Object key, Supplier<T> loader) {
+        synchronized (entries) {
+            T cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        T loaded = loader.get();
+        if (loaded != null) {
+            synchronized (entries) {
+                entries.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+}
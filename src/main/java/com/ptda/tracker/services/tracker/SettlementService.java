@@ -0,0 +1,18 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.dtos.SettlementDto;
+import com.ptda.tracker.models.tracker.BudgetSplit;
+
+import java.util.List;
+
+public interface SettlementService {
+
+    List<SettlementDto> getSettlementsByBudgetId(Long budgetId);
+
+    List<SettlementDto> settle(List<BudgetSplit> splits);
+
+    List<SettlementDto> settleGreedy(List<BudgetSplit> splits);
+
+    List<SettlementDto> settleExact(List<BudgetSplit> splits);
+
+}
@@ -0,0 +1,154 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.dtos.SettlementDto;
+import com.ptda.tracker.models.tracker.BudgetSplit;
+import com.ptda.tracker.models.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+@Service
+@RequiredArgsConstructor
+public class SettlementServiceImpl implements SettlementService {
+
+    /**
+     * Largest number of unsettled users for which the exact plan is used, its cost grows with 2^n.
+     */
+    public static final int EXACT_SETTLEMENT_LIMIT = 15;
+
+    private final BudgetSplitService budgetSplitService;
+
+    @Override
+    public List<SettlementDto> getSettlementsByBudgetId(Long budgetId) {
+        return settle(budgetSplitService.getAllByBudgetId(budgetId));
+    }
+
+    @Override
+    public List<SettlementDto> settle(List<BudgetSplit> splits) {
+        return toBalances(splits).size() <= EXACT_SETTLEMENT_LIMIT ? settleExact(splits) : settleGreedy(splits);
+    }
+
+    /**
+     * Repeatedly matches the user who owes the most with the user who is owed the most.
+     * Every transfer settles at least one of them, so there are at most n - 1 transfers.
+     */
+    @Override
+    public List<SettlementDto> settleGreedy(List<BudgetSplit> splits) {
+        List<SettlementDto> settlements = new ArrayList<>();
+        matchGreedy(toBalances(splits), settlements);
+        return settlements;
+    }
+
+    /**
+     * Finds the plan with the fewest transfers by partitioning the users into as many groups
+     * with a zero total balance as possible. A group of k users is then settled with k - 1 transfers.
+     */
+    @Override
+    public List<SettlementDto> settleExact(List<BudgetSplit> splits) {
+        List<Balance> balances = toBalances(splits);
+        int size = balances.size();
+        if (size > EXACT_SETTLEMENT_LIMIT) {
+            throw new IllegalArgumentException("Exact settlement supports at most " + EXACT_SETTLEMENT_LIMIT + " unsettled users.");
+        }
+
+        // sums[mask] is the total balance of the users in mask, groups[mask] the most zero-sum groups it splits into
+        int full = (1 << size) - 1;
+        long[] sums = new long[full + 1];
+        int[] groups = new int[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            sums[mask] = sums[mask & (mask - 1)] + balances.get(Integer.numberOfTrailingZeros(mask)).getCents();
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                best = Math.max(best, groups[mask & ~Integer.lowestOneBit(rest)]);
+            }
+            groups[mask] = best + (sums[mask] == 0 ? 1 : 0);
+        }
+
+        // Walk back from the full set removing one user at a time, each zero-sum subset reached closes a group
+        List<SettlementDto> settlements = new ArrayList<>();
+        List<Balance> group = new ArrayList<>();
+        int mask = full;
+        while (mask != 0) {
+            int target = groups[mask] - (sums[mask] == 0 ? 1 : 0);
+            int bit = Integer.lowestOneBit(mask);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                if (groups[mask & ~Integer.lowestOneBit(rest)] == target) {
+                    bit = Integer.lowestOneBit(rest);
+                    break;
+                }
+            }
+            group.add(balances.get(Integer.numberOfTrailingZeros(bit)));
+            mask &= ~bit;
+            if (sums[mask] == 0) {
+                matchGreedy(group, settlements);
+                group.clear();
+            }
+        }
+        return settlements;
+    }
+
+    private void matchGreedy(List<Balance> balances, List<SettlementDto> settlements) {
+        long[] remaining = balances.stream().mapToLong(Balance::getCents).toArray();
+        PriorityQueue<Integer> debtors = new PriorityQueue<>((a, b) -> Long.compare(remaining[b], remaining[a]));
+        PriorityQueue<Integer> creditors = new PriorityQueue<>((a, b) -> Long.compare(remaining[a], remaining[b]));
+        for (int i = 0; i < remaining.length; i++) {
+            if (remaining[i] > 0) {
+                debtors.add(i);
+            } else if (remaining[i] < 0) {
+                creditors.add(i);
+            }
+        }
+
+        while (!debtors.isEmpty() && !creditors.isEmpty()) {
+            int debtor = debtors.poll();
+            int creditor = creditors.poll();
+            long cents = Math.min(remaining[debtor], -remaining[creditor]);
+
+            settlements.add(new SettlementDto(
+                    balances.get(debtor).getUser(),
+                    balances.get(creditor).getUser(),
+                    BigDecimal.valueOf(cents, 2).doubleValue()
+            ));
+
+            remaining[debtor] -= cents;
+            remaining[creditor] += cents;
+            if (remaining[debtor] > 0) {
+                debtors.add(debtor);
+            }
+            if (remaining[creditor] < 0) {
+                creditors.add(creditor);
+            }
+        }
+    }
+
+    /**
+     * Converts each split into the balance the user still owes in cents, positive for debtors and negative for creditors.
+     * Users that are already settled are left out.
+     */
+    private List<Balance> toBalances(List<BudgetSplit> splits) {
+        List<Balance> balances = new ArrayList<>();
+        for (BudgetSplit split : splits) {
+            long cents = BigDecimal.valueOf(split.getAmount())
+                    .subtract(BigDecimal.valueOf(split.getPaidAmount()))
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValue();
+            if (cents != 0) {
+                balances.add(new Balance(split.getUser(), cents));
+            }
+        }
+        return balances;
+    }
+
+    @Value
+    private static class Balance {
+        User user;
+        long cents;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ptda.tracker.services.tracker;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+
+public interface StatementService {
+
+    /**
+     * Writes a PDF and a CSV statement of the month for every budget with expenses in it, into a folder
+     * named after the month in the statements directory. Budgets are processed a few at a time; a budget
+     * that fails is reported in its timing and does not stop the others.
+     */
+    StatementRun generateMonthlyStatements(YearMonth month) throws IOException;
+
+    @Value
+    class StatementRun {
+        Path directory;
+        List<StatementTiming> timings;
+        long elapsedMillis;
+
+        public long getFailedCount() {
+            return timings.stream().filter(timing -> timing.getError() != null).count();
+        }
+    }
+
+    @Value
+    class StatementTiming {
+        Long budgetId;
+        long pdfMillis;
+        long csvMillis;
+        String error;
+    }
+
+}
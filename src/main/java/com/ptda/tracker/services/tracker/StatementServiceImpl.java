@@ -0,0 +1,142 @@
+package com.ptda.tracker.services.tracker;
+
+import com.ptda.tracker.repositories.DailyExpenseRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+public class StatementServiceImpl implements StatementService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementServiceImpl.class);
+
+    private final BudgetReportService budgetReportService;
+    private final DailyExpenseRollupRepository dailyExpenseRollupRepository;
+
+    @Value("${tracker.statements.directory:statements}")
+    private String statementsDirectory;
+
+    @Value("${tracker.statements.parallelism:2}")
+    private int parallelism;
+
+    @Override
+    public StatementRun generateMonthlyStatements(YearMonth month) throws IOException {
+        long start = System.nanoTime();
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+        Path directory = Files.createDirectories(Path.of(statementsDirectory, month.toString()));
+        List<Long> budgetIds = dailyExpenseRollupRepository.findBudgetIdsWithRollupsBetween(from, to);
+
+        AtomicInteger threads = new AtomicInteger();
+        List<StatementTiming> timings = new ArrayList<>(budgetIds.size());
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "statement-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        })) {
+            List<Future<StatementTiming>> statements = budgetIds.stream()
+                    .map(budgetId -> executor.submit(() -> writeStatement(budgetId, from, to, directory)))
+                    .toList();
+            try {
+                for (Future<StatementTiming> statement : statements) {
+                    timings.add(statement.get());
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                // Interrupts the statements still being written, closing the executor would otherwise wait for them
+                executor.shutdownNow();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Statement generation was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InterruptedIOException interrupted) {
+                throw interrupted;
+            }
+            throw new IOException("Could not write statements", e.getCause());
+        }
+
+        writeTimings(directory, timings);
+        StatementRun run = new StatementRun(directory, timings, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        LOGGER.info("Wrote {} statements for {} to {} in {} ms, {} failed",
+                timings.size(), month, directory, run.getElapsedMillis(), run.getFailedCount());
+        return run;
+    }
+
+    /**
+     * Writes the statement of one budget. A failure is recorded in its timing so the other statements are still
+     * written, but an interruption aborts the run.
+     */
+    private StatementTiming writeStatement(Long budgetId, LocalDate from, LocalDate to, Path directory)
+            throws InterruptedIOException {
+        long start = System.nanoTime();
+        long pdfMillis = 0;
+        try {
+            budgetReportService.writeBudgetReport(budgetId, from, to,
+                    directory.resolve("budget-" + budgetId + ".pdf").toFile(), BudgetReportService.ReportProgress.NONE);
+            pdfMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            start = System.nanoTime();
+            writeCsv(budgetId, from, to, directory.resolve("budget-" + budgetId + ".csv"));
+            long csvMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            LOGGER.info("Statement of budget {} written in {} ms (PDF {} ms, CSV {} ms)",
+                    budgetId, pdfMillis + csvMillis, pdfMillis, csvMillis);
+            return new StatementTiming(budgetId, pdfMillis, csvMillis, null);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                InterruptedIOException interrupted =
+                        new InterruptedIOException("Statement of budget " + budgetId + " was interrupted");
+                interrupted.initCause(e);
+                throw interrupted;
+            }
+            LOGGER.error("Could not write the statement of budget {}", budgetId, e);
+            return new StatementTiming(budgetId, pdfMillis, 0, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Lists the daily totals of the budget per category and user, read from its rollups rather than its expenses.
+     */
+    private void writeCsv(Long budgetId, LocalDate from, LocalDate to, Path file) throws IOException {
+        try (CSVPrinter printer = new CSVPrinter(Files.newBufferedWriter(file, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder().setHeader("date", "category", "user", "total").build())) {
+            for (DailyExpenseRollupRepository.RollupRow row
+                    : dailyExpenseRollupRepository.findRowsByBudgetIdAndDateBetween(budgetId, from, to)) {
+                printer.printRecord(row.getDate(), row.getCategory().name(), row.getUserName(), String.format(Locale.ROOT, "%.2f", row.getTotal()));
+            }
+        }
+    }
+
+    private void writeTimings(Path directory, List<StatementTiming> timings) throws IOException {
+        try (CSVPrinter printer = new CSVPrinter(Files.newBufferedWriter(directory.resolve("timings.csv"), StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder().setHeader("budget_id", "pdf_ms", "csv_ms", "error").build())) {
+            for (StatementTiming timing : timings) {
+                printer.printRecord(timing.getBudgetId(), timing.getPdfMillis(), timing.getCsvMillis(), timing.getError());
+            }
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.ptda.tracker.ui.admin.dialogs;
 
+import com.ptda.tracker.dtos.CacheRegionStatisticsDto;
+import com.ptda.tracker.services.administration.CacheStatisticsService;
 import com.ptda.tracker.services.assistance.TicketService;
 import com.ptda.tracker.services.tracker.BudgetService;
 import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.services.user.UserService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.util.LocaleManager;
+import com.ptda.tracker.util.UiTaskExecutor;
 
 import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.List;
 
 import static com.ptda.tracker.config.AppConfig.*;
 import static com.ptda.tracker.config.AppConfig.TICKETS_ICON_PATH;
@@ -19,6 +24,7 @@ public class GlobalStatisticsDialog extends JDialog {
     private final ExpenseService expenseService;
     private final UserService userService;
     private final TicketService ticketService;
+    private final CacheStatisticsService cacheStatisticsService;
 
     public GlobalStatisticsDialog(MainFrame mainFrame) {
         super(mainFrame, GLOBAL_STATISTICS, true);
@@ -27,6 +33,7 @@ public class GlobalStatisticsDialog extends JDialog {
         this.expenseService = mainFrame.getContext().getBean(ExpenseService.class);
         this.userService = mainFrame.getContext().getBean(UserService.class);
         this.ticketService = mainFrame.getContext().getBean(TicketService.class);
+        this.cacheStatisticsService = mainFrame.getContext().getBean(CacheStatisticsService.class);
 
         initComponents();
         updateStatistics();
@@ -38,9 +45,19 @@ public class GlobalStatisticsDialog extends JDialog {
 
     private void setListeners() {
         refreshDataButton.addActionListener(e -> updateStatistics());
+        clearCacheButton.addActionListener(e -> {
+            cacheStatisticsService.evictAll();
+            updateStatistics();
+        });
         closeButton.addActionListener(e -> dispose());
     }
 
+    @Override
+    public void dispose() {
+        UiTaskExecutor.getInstance().cancel(this);
+        super.dispose();
+    }
+
     private ImageIcon resizeIcon(ImageIcon icon, int width, int height) {
         Image img = icon.getImage();
         Image resizedImg = img.getScaledInstance(width, height, Image.SCALE_SMOOTH);
@@ -54,13 +71,48 @@ public class GlobalStatisticsDialog extends JDialog {
         return label;
     }
 
+    @SuppressWarnings("unchecked")
     public void updateStatistics() {
-        budgetsLabel.setText(TOTAL_BUDGETS + ": " + budgetService.getCount());
-        expensesLabel.setText(TOTAL_EXPENSES + ": " + expenseService.getCount());
-        usersLabel.setText(USERS + ": " + userService.countByUserType("USER"));
-        assistantsLabel.setText(ASSISTANTS + ": " + userService.countByUserType("ASSISTANT"));
-        adminsLabel.setText(ADMINS + ": " + userService.countByUserType("ADMIN"));
-        ticketsLabel.setText(TOTAL_TICKETS + ": " + ticketService.getAll().size());
+        refreshDataButton.setEnabled(false);
+        setStatistics(LOADING, LOADING, LOADING, LOADING, LOADING, LOADING);
+        UiTaskExecutor.getInstance().submit(this, () -> new Object[]{
+                budgetService.getCount(),
+                expenseService.getCount(),
+                userService.countByUserType("USER"),
+                userService.countByUserType("ASSISTANT"),
+                userService.countByUserType("ADMIN"),
+                ticketService.getAll().size(),
+                cacheStatisticsService.getRegionStatistics()
+        }, counts -> {
+            setStatistics(counts);
+            setCacheStatistics((List<CacheRegionStatisticsDto>) counts[6]);
+            refreshDataButton.setEnabled(true);
+        }, error -> {
+            refreshDataButton.setEnabled(true);
+            UiTaskExecutor.showError(error);
+        });
+    }
+
+    private void setStatistics(Object... counts) {
+        budgetsLabel.setText(TOTAL_BUDGETS + ": " + counts[0]);
+        expensesLabel.setText(TOTAL_EXPENSES + ": " + counts[1]);
+        usersLabel.setText(USERS + ": " + counts[2]);
+        assistantsLabel.setText(ASSISTANTS + ": " + counts[3]);
+        adminsLabel.setText(ADMINS + ": " + counts[4]);
+        ticketsLabel.setText(TOTAL_TICKETS + ": " + counts[5]);
+    }
+
+    private void setCacheStatistics(List<CacheRegionStatisticsDto> regions) {
+        cacheModel.setRowCount(0);
+        for (CacheRegionStatisticsDto region : regions) {
+            cacheModel.addRow(new Object[]{
+                    region.getRegion(),
+                    region.getHits(),
+                    region.getMisses(),
+                    String.format("%.0f%%", region.getHitRatio() * 100),
+                    region.getElementsInMemory()
+            });
+        }
     }
 
     private void initComponents() {
@@ -96,16 +148,36 @@ public class GlobalStatisticsDialog extends JDialog {
         statsPanel.add(adminsLabel);
         add(statsPanel, BorderLayout.CENTER);
 
+        // Second-level cache hit and miss counts per region
+        cacheModel = new DefaultTableModel(new Object[]{CACHE_REGION, HITS, MISSES, HIT_RATIO, ENTRIES}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable cacheTable = new JTable(cacheModel);
+        cacheTable.setPreferredScrollableViewportSize(new Dimension(450, 150));
+        JScrollPane cacheScrollPane = new JScrollPane(cacheTable);
+        cacheScrollPane.setBorder(BorderFactory.createTitledBorder(CACHE));
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        southPanel.add(cacheScrollPane, BorderLayout.CENTER);
+
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         refreshDataButton = new JButton(REFRESH_DATA);
         closeButton = new JButton(CLOSE);
+        clearCacheButton = new JButton(CLEAR_CACHE);
         buttonPanel.add(refreshDataButton);
+        buttonPanel.add(clearCacheButton);
         buttonPanel.add(closeButton);
-        add(buttonPanel, BorderLayout.SOUTH);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
     }
 
     private JLabel budgetsLabel, expensesLabel, usersLabel, assistantsLabel, adminsLabel, ticketsLabel;
-    private JButton refreshDataButton, closeButton;
+    private DefaultTableModel cacheModel;
+    private JButton refreshDataButton, clearCacheButton, closeButton;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
             GLOBAL_STATISTICS = localeManager.getTranslation("global.statistics"),
@@ -116,5 +188,13 @@ public class GlobalStatisticsDialog extends JDialog {
             ADMINS = localeManager.getTranslation("admins"),
             TOTAL_TICKETS = localeManager.getTranslation("total.tickets"),
             REFRESH_DATA = localeManager.getTranslation("refresh.data"),
-            CLOSE = localeManager.getTranslation("close");
+            CLOSE = localeManager.getTranslation("close"),
+            LOADING = localeManager.getTranslation("loading"),
+            CACHE = localeManager.getTranslation("cache"),
+            CACHE_REGION = localeManager.getTranslation("cache_region"),
+            HITS = localeManager.getTranslation("hits"),
+            MISSES = localeManager.getTranslation("misses"),
+            HIT_RATIO = localeManager.getTranslation("hit_ratio"),
+            ENTRIES = localeManager.getTranslation("entries"),
+            CLEAR_CACHE = localeManager.getTranslation("clear_cache");
 }
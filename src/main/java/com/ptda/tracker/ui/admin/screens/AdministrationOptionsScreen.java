@@ -4,18 +4,22 @@ import com.ptda.tracker.models.admin.GlobalVariableName;
 import com.ptda.tracker.services.administration.DataGenerateService;
 import com.ptda.tracker.services.administration.GlobalVariableService;
 import com.ptda.tracker.services.email.EmailService;
+import com.ptda.tracker.services.tracker.ExpenseRollupService;
+import com.ptda.tracker.services.tracker.StatementService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.ui.admin.dialogs.GlobalStatisticsDialog;
 import com.ptda.tracker.ui.admin.views.ManageTicketView;
 import com.ptda.tracker.ui.admin.views.ManageUserView;
 import com.ptda.tracker.util.LocaleManager;
 import com.ptda.tracker.util.ScreenNames;
+import com.ptda.tracker.util.UiTaskExecutor;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.YearMonth;
 
 public class AdministrationOptionsScreen extends JPanel {
     private final MainFrame mainFrame;
@@ -48,6 +52,34 @@ public class AdministrationOptionsScreen extends JPanel {
             String result = mainFrame.getContext().getBean(DataGenerateService.class).generateData();
             saveToFile(result, "data_generation_result.txt");
         });
+        rebuildStatisticsButton.addActionListener(e -> {
+            rebuildStatisticsButton.setEnabled(false);
+            UiTaskExecutor.getInstance().submit(rebuildStatisticsButton, () -> {
+                mainFrame.getContext().getBean(ExpenseRollupService.class).rebuildAll();
+                return null;
+            }, ignored -> {
+                rebuildStatisticsButton.setEnabled(true);
+                JOptionPane.showMessageDialog(this, REBUILD_STATISTICS_DONE);
+            }, error -> {
+                rebuildStatisticsButton.setEnabled(true);
+                UiTaskExecutor.showError(error);
+            });
+        });
+        generateStatementsButton.addActionListener(e -> {
+            generateStatementsButton.setEnabled(false);
+            YearMonth month = YearMonth.now().minusMonths(1);
+            UiTaskExecutor.getInstance().submit(generateStatementsButton,
+                    () -> mainFrame.getContext().getBean(StatementService.class).generateMonthlyStatements(month),
+                    run -> {
+                        generateStatementsButton.setEnabled(true);
+                        JOptionPane.showMessageDialog(this, String.format(GENERATE_STATEMENTS_DONE,
+                                run.getTimings().size(), month, run.getElapsedMillis(), run.getFailedCount(),
+                                run.getDirectory().toAbsolutePath()));
+                    }, error -> {
+                        generateStatementsButton.setEnabled(true);
+                        UiTaskExecutor.showError(error);
+                    });
+        });
         emailVerificationToggleButton.addActionListener(e -> {
             boolean isEmailVerified = emailVerificationToggleButton.isSelected();
             globalVariableService.set(GlobalVariableName.VERIFY_EMAIL, String.valueOf(isEmailVerified));
@@ -90,6 +122,8 @@ public class AdministrationOptionsScreen extends JPanel {
         manageUsersButton = new JButton(MANAGE_USERS);
         manageTicketsButton = new JButton(MANAGE_TICKETS);
         generateDataButton = new JButton(GENERATE_DATA);
+        rebuildStatisticsButton = new JButton(REBUILD_STATISTICS);
+        generateStatementsButton = new JButton(GENERATE_STATEMENTS);
         emailVerificationToggleButton = new JCheckBox(EMAIL_VERIFICATION);
 
         boolean verifyEmail = mainFrame.getContext()
@@ -100,12 +134,15 @@ public class AdministrationOptionsScreen extends JPanel {
         centerPanel.add(manageUsersButton, gbc);
         centerPanel.add(manageTicketsButton, gbc);
         centerPanel.add(generateDataButton, gbc);
+        centerPanel.add(rebuildStatisticsButton, gbc);
+        centerPanel.add(generateStatementsButton, gbc);
         centerPanel.add(emailVerificationToggleButton, gbc);
 
         add(centerPanel, BorderLayout.CENTER);
     }
 
-    private JButton showStatsButton, manageUsersButton, manageTicketsButton, generateDataButton;
+    private JButton showStatsButton, manageUsersButton, manageTicketsButton, generateDataButton, rebuildStatisticsButton,
+            generateStatementsButton;
     private JToggleButton emailVerificationToggleButton;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
@@ -116,5 +153,9 @@ public class AdministrationOptionsScreen extends JPanel {
             EMAIL_VERIFICATION = localeManager.getTranslation("email.verification"),
             GENERATE_DATA = localeManager.getTranslation("generate.data"),
             GENERATE_DATA_SAVED = localeManager.getTranslation("generate.data.saved"),
-            GENERATE_DATA_ERROR = localeManager.getTranslation("generate.data.error");
+            GENERATE_DATA_ERROR = localeManager.getTranslation("generate.data.error"),
+            REBUILD_STATISTICS = localeManager.getTranslation("rebuild.statistics"),
+            REBUILD_STATISTICS_DONE = localeManager.getTranslation("rebuild.statistics.done"),
+            GENERATE_STATEMENTS = localeManager.getTranslation("generate.statements"),
+            GENERATE_STATEMENTS_DONE = localeManager.getTranslation("generate.statements.done");
 }
@@ -1,6 +1,6 @@
 package com.ptda.tracker.ui.admin.views;
 
-import com.ptda.tracker.models.assistance.Ticket;
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.services.assistance.TicketService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.ui.admin.screens.AdministrationOptionsScreen;
@@ -28,8 +28,8 @@ public class ManageTicketView extends JPanel {
         initComponents();
     }
 
-    public void setTicketList(List<Ticket> tickets) {
-        DefaultListModel<Ticket> model = (DefaultListModel<Ticket>) ticketList.getModel();
+    public void setTicketList(List<TicketRowDto> tickets) {
+        DefaultListModel<TicketRowDto> model = (DefaultListModel<TicketRowDto>) ticketList.getModel();
         model.clear(); // Clear old data
         tickets.forEach(model::addElement); // Add new data
     }
@@ -49,7 +49,7 @@ public class ManageTicketView extends JPanel {
         ticketList = new JList<>(new DefaultListModel<>());
         ticketList.setCellRenderer(new TicketListRenderer());
         ticketService = mainFrame.getContext().getBean(TicketService.class);
-        tickets = ticketService.getAll();
+        tickets = ticketService.getAllRows();
         setTicketList(tickets);
 
         JScrollPane scrollPane = new JScrollPane(ticketList);
@@ -60,9 +60,10 @@ public class ManageTicketView extends JPanel {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
-                    Ticket selectedTicket = ticketList.getSelectedValue();
+                    TicketRowDto selectedTicket = ticketList.getSelectedValue();
                     if (selectedTicket != null) {
-                        mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, selectedTicket, ScreenNames.MANAGE_TICKET_VIEW));
+                        ticketService.getById(selectedTicket.getId()).ifPresent(ticket ->
+                                mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, ticket, ScreenNames.MANAGE_TICKET_VIEW)));
                         ticketList.clearSelection(); // Clear selection after click
                     }
                 }
@@ -79,8 +80,8 @@ public class ManageTicketView extends JPanel {
         add(leftButtonPanel, BorderLayout.SOUTH);
     }
 
-    private JList<Ticket> ticketList;
-    private List<Ticket> tickets;
+    private JList<TicketRowDto> ticketList;
+    private List<TicketRowDto> tickets;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
             BACK = localeManager.getTranslation("back"),
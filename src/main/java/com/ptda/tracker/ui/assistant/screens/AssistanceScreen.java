@@ -1,6 +1,6 @@
 package com.ptda.tracker.ui.assistant.screens;
 
-import com.ptda.tracker.models.assistance.Ticket;
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.models.user.User;
 import com.ptda.tracker.services.assistance.TicketService;
 import com.ptda.tracker.ui.MainFrame;
@@ -14,14 +14,13 @@ import com.ptda.tracker.util.UserSession;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class AssistanceScreen extends JPanel implements Refreshable {
     private static TicketService ticketService;
-    private static JList<Ticket> assignedTicketList;
-    private static JList<Ticket> unassignedTicketList;
-    private static List<Ticket> assignedTickets;
-    private static List<Ticket> unassignedTickets;
+    private static JList<TicketRowDto> assignedTicketList;
+    private static JList<TicketRowDto> unassignedTicketList;
+    private static List<TicketRowDto> assignedTickets;
+    private static List<TicketRowDto> unassignedTickets;
     private final JComboBox<String> ticketSelector;
     private final JPanel listPanel;
 
@@ -38,9 +37,10 @@ public class AssistanceScreen extends JPanel implements Refreshable {
         assignedTicketList.setCellRenderer(new TicketListRenderer());
         assignedTicketList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                Ticket selectedTicket = assignedTicketList.getSelectedValue();
+                TicketRowDto selectedTicket = assignedTicketList.getSelectedValue();
                 if (selectedTicket != null) {
-                    mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, selectedTicket, ScreenNames.ASSISTANCE_SCREEN));
+                    ticketService.getById(selectedTicket.getId()).ifPresent(ticket ->
+                            mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, ticket, ScreenNames.ASSISTANCE_SCREEN)));
                     assignedTicketList.clearSelection(); // Clear selection to allow new interaction
                 }
             }
@@ -50,9 +50,10 @@ public class AssistanceScreen extends JPanel implements Refreshable {
         unassignedTicketList.setCellRenderer(new TicketListRenderer());
         unassignedTicketList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                Ticket selectedTicket = unassignedTicketList.getSelectedValue();
+                TicketRowDto selectedTicket = unassignedTicketList.getSelectedValue();
                 if (selectedTicket != null) {
-                    mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, selectedTicket, ScreenNames.ASSISTANCE_SCREEN));
+                    ticketService.getById(selectedTicket.getId()).ifPresent(ticket ->
+                            mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, ticket, ScreenNames.ASSISTANCE_SCREEN)));
                     unassignedTicketList.clearSelection(); // Clear selection to allow new interaction
                 }
             }
@@ -69,19 +70,14 @@ public class AssistanceScreen extends JPanel implements Refreshable {
 
     public static void refreshTicketLists() {
         User currentUser = UserSession.getInstance().getUser();
-        List<Ticket> allTickets = ticketService.getAll();
-        assignedTickets = allTickets.stream()
-                .filter(ticket -> ticket.getAssistant() != null && ticket.getAssistant().getId().equals(currentUser.getId()) && !ticket.isClosed())
-                .collect(Collectors.toList());
-        unassignedTickets = allTickets.stream()
-                .filter(ticket -> ticket.getAssistant() == null && !ticket.isClosed() && !ticket.getCreatedBy().getId().equals(currentUser.getId()))
-                .collect(Collectors.toList());
+        assignedTickets = ticketService.getOpenRowsByAssistantId(currentUser.getId());
+        unassignedTickets = ticketService.getUnassignedOpenRows(currentUser.getId());
         setTicketList(assignedTicketList, assignedTickets);
         setTicketList(unassignedTicketList, unassignedTickets);
     }
 
-    private static void setTicketList(JList<Ticket> list, List<Ticket> tickets) {
-        DefaultListModel<Ticket> model = (DefaultListModel<Ticket>) list.getModel();
+    private static void setTicketList(JList<TicketRowDto> list, List<TicketRowDto> tickets) {
+        DefaultListModel<TicketRowDto> model = (DefaultListModel<TicketRowDto>) list.getModel();
         model.clear(); // Clear old data
         tickets.forEach(model::addElement); // Add new data
     }
@@ -0,0 +1,83 @@
+package com.ptda.tracker.ui.user.components.layers;
+
+import com.ptda.tracker.util.LocaleManager;
+
+import javax.swing.*;
+import javax.swing.plaf.LayerUI;
+import java.awt.*;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.beans.PropertyChangeEvent;
+
+/**
+ * Covers a component with a translucent "Loading..." placeholder while its data is read in the background.
+ * Mouse input to the component is blocked until loading finishes.
+ */
+public class LoadingLayerUI extends LayerUI<JComponent> {
+    private boolean loading;
+
+    public void setLoading(boolean loading) {
+        if (this.loading != loading) {
+            this.loading = loading;
+            firePropertyChange("loading", !loading, loading);
+        }
+    }
+
+    @Override
+    public void installUI(JComponent c) {
+        super.installUI(c);
+        ((JLayer<?>) c).setLayerEventMask(AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK);
+    }
+
+    @Override
+    public void uninstallUI(JComponent c) {
+        ((JLayer<?>) c).setLayerEventMask(0);
+        super.uninstallUI(c);
+    }
+
+    @Override
+    public void paint(Graphics g, JComponent c) {
+        super.paint(g, c);
+        if (!loading) {
+            return;
+        }
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        Color background = c.getBackground();
+        g2.setColor(new Color(background.getRed(), background.getGreen(), background.getBlue(), 180));
+        g2.fillRect(0, 0, c.getWidth(), c.getHeight());
+
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setColor(c.getForeground());
+        FontMetrics metrics = g2.getFontMetrics();
+        int x = (c.getWidth() - metrics.stringWidth(LOADING)) / 2;
+        int y = (c.getHeight() + metrics.getAscent() - metrics.getDescent()) / 2;
+        g2.drawString(LOADING, x, y);
+        g2.dispose();
+    }
+
+    @Override
+    public void applyPropertyChange(PropertyChangeEvent evt, JLayer<? extends JComponent> l) {
+        if ("loading".equals(evt.getPropertyName())) {
+            l.repaint();
+        }
+    }
+
+    @Override
+    protected void processMouseEvent(MouseEvent e, JLayer<? extends JComponent> l) {
+        consumeWhileLoading(e);
+    }
+
+    @Override
+    protected void processMouseMotionEvent(MouseEvent e, JLayer<? extends JComponent> l) {
+        consumeWhileLoading(e);
+    }
+
+    private void consumeWhileLoading(InputEvent e) {
+        if (loading) {
+            e.consume();
+        }
+    }
+
+    private static final String LOADING = LocaleManager.getInstance().getTranslation("loading");
+}
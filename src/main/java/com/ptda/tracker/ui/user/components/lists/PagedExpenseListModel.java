@@ -0,0 +1,177 @@
+package com.ptda.tracker.ui.user.components.lists;
+
+import com.ptda.tracker.dtos.ExpenseCursor;
+import com.ptda.tracker.dtos.ExpenseRowDto;
+
+import javax.swing.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * List model that knows the total number of expenses but only keeps a few pages of them in memory.
+ * Pages are read on a background thread when a row of them is first painted, and the page after
+ * the one being viewed is prefetched. Until a page arrives its rows are {@code null}.
+ * <p>
+ * Must only be used from the event dispatch thread.
+ */
+public class PagedExpenseListModel extends AbstractListModel<ExpenseRowDto> {
+
+    /**
+     * Where the pages are read from, in date and id descending order.
+     */
+    public interface PageSource {
+        int count();
+
+        List<ExpenseRowDto> after(ExpenseCursor cursor, int limit);
+
+        List<ExpenseRowDto> page(int offset, int limit);
+    }
+
+    private final PageSource source;
+    private final int pageSize;
+    private final Map<Integer, List<ExpenseRowDto>> pages;
+    // Cursor of the last row of every page read so far, so the next page can be read by keyset
+    private Map<Integer, ExpenseCursor> pageEnds = new ConcurrentHashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+    private int size;
+    private int generation;
+
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PagedExpenseListModel(PageSource source, int pageSize, int maxResidentPages) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(maxResidentPages, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<ExpenseRowDto>> eldest) {
+                return size() > maxResidentPages;
+            }
+        };
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public ExpenseRowDto getElementAt(int index) {
+        int page = index / pageSize;
+        List<ExpenseRowDto> rows = pages.get(page);
+        if (rows == null) {
+            load(page);
+            return null;
+        }
+        if ((page + 1) * pageSize < size && !pages.containsKey(page + 1)) {
+            load(page + 1);
+        }
+        int row = index % pageSize;
+        return row < rows.size() ? rows.get(row) : null;
+    }
+
+    /**
+     * Drops every page and reads the count again together with the first page, both on the loader thread.
+     * The other visible rows are then read as they are painted.
+     */
+    public void refresh() {
+        generation++;
+        pages.clear();
+        pageEnds = new ConcurrentHashMap<>();
+        loading.clear();
+        loading.add(0);
+
+        int requestGeneration = generation;
+        Map<Integer, ExpenseCursor> ends = pageEnds;
+        LOADER.execute(() -> {
+            int count;
+            List<ExpenseRowDto> rows;
+            try {
+                count = source.count();
+                rows = count > 0 ? read(0, ends) : List.of();
+            } catch (RuntimeException e) {
+                // Keep the old count, the first page is asked for again when its rows are next painted
+                SwingUtilities.invokeLater(() -> {
+                    if (requestGeneration == generation) {
+                        loading.remove(0);
+                    }
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading.remove(0);
+                pages.put(0, rows);
+                resize(count);
+            });
+        });
+    }
+
+    private void resize(int newSize) {
+        int oldSize = size;
+        size = newSize;
+        if (size < oldSize) {
+            fireIntervalRemoved(this, size, oldSize - 1);
+        } else if (size > oldSize) {
+            fireIntervalAdded(this, oldSize, size - 1);
+        }
+        if (Math.min(size, oldSize) > 0) {
+            fireContentsChanged(this, 0, Math.min(size, oldSize) - 1);
+        }
+    }
+
+    private void load(int page) {
+        if (!loading.add(page)) {
+            return;
+        }
+        int requestGeneration = generation;
+        Map<Integer, ExpenseCursor> ends = pageEnds;
+        LOADER.execute(() -> {
+            List<ExpenseRowDto> rows;
+            try {
+                rows = read(page, ends);
+            } catch (RuntimeException e) {
+                // Leave the rows as placeholders, the page is asked for again when they are next painted
+                SwingUtilities.invokeLater(() -> {
+                    if (requestGeneration == generation) {
+                        loading.remove(page);
+                    }
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading.remove(page);
+                pages.put(page, rows);
+                int start = page * pageSize;
+                int end = Math.min(start + pageSize, size) - 1;
+                if (start <= end) {
+                    fireContentsChanged(this, start, end);
+                }
+            });
+        });
+    }
+
+    /**
+     * Reads a page after the end of the previous one when it is known, otherwise skips to it by offset.
+     */
+    private List<ExpenseRowDto> read(int page, Map<Integer, ExpenseCursor> ends) {
+        ExpenseCursor previousEnd = page == 0 ? null : ends.get(page - 1);
+        List<ExpenseRowDto> rows = page == 0 || previousEnd != null
+                ? source.after(previousEnd, pageSize)
+                : source.page(page * pageSize, pageSize);
+        if (!rows.isEmpty()) {
+            ends.put(page, ExpenseCursor.of(rows.get(rows.size() - 1)));
+        }
+        return rows;
+    }
+}
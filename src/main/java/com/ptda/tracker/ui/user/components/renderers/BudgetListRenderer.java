@@ -1,6 +1,6 @@
 package com.ptda.tracker.ui.user.components.renderers;
 
-import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.dtos.BudgetRowDto;
 import com.ptda.tracker.util.LocaleManager;
 
 import javax.swing.*;
@@ -8,7 +8,7 @@ import java.awt.*;
 
 import static com.ptda.tracker.config.AppConfig.FAVORITE_ICON_PATH;
 
-public class BudgetListRenderer extends JPanel implements ListCellRenderer<Budget> {
+public class BudgetListRenderer extends JPanel implements ListCellRenderer<BudgetRowDto> {
 
     public BudgetListRenderer() {
         setLayout(new BorderLayout(10, 10));
@@ -44,8 +44,8 @@ public class BudgetListRenderer extends JPanel implements ListCellRenderer<Budge
 
     @Override
     public Component getListCellRendererComponent(
-            JList<? extends Budget> list,
-            Budget budget,
+            JList<? extends BudgetRowDto> list,
+            BudgetRowDto budget,
             int index,
             boolean isSelected,
             boolean cellHasFocus
@@ -1,6 +1,6 @@
 package com.ptda.tracker.ui.user.components.renderers;
 
-import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.dtos.ExpenseRowDto;
 import com.ptda.tracker.util.DateFormatManager;
 import com.ptda.tracker.util.LocaleManager;
 
@@ -8,7 +8,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.text.SimpleDateFormat;
 
-public class ExpenseListRenderer extends JPanel implements ListCellRenderer<Expense> {
+public class ExpenseListRenderer extends JPanel implements ListCellRenderer<ExpenseRowDto> {
 
     public ExpenseListRenderer() {
         setLayout(new BorderLayout(10, 10));
@@ -52,12 +52,21 @@ public class ExpenseListRenderer extends JPanel implements ListCellRenderer<Expe
 
     @Override
     public Component getListCellRendererComponent(
-            JList<? extends Expense> list,
-            Expense expense,
+            JList<? extends ExpenseRowDto> list,
+            ExpenseRowDto expense,
             int index,
             boolean isSelected,
             boolean cellHasFocus
     ) {
+        // Rows of a page that is still being read
+        if (expense == null) {
+            amountLabel.setText(" ");
+            titleLabel.setText(LOADING);
+            categoryLabel.setText(" ");
+            dateLabel.setText(" ");
+            return this;
+        }
+
         // Format and set values
         amountLabel.setText(String.format("€%.2f", expense.getAmount()));
         titleLabel.setText(expense.getTitle() != null ? expense.getTitle() : NO_TITLE);
@@ -77,5 +86,6 @@ public class ExpenseListRenderer extends JPanel implements ListCellRenderer<Expe
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
             NO_TITLE = localeManager.getTranslation("no_title"),
-            OTHER = localeManager.getTranslation("other");
+            OTHER = localeManager.getTranslation("other"),
+            LOADING = localeManager.getTranslation("loading");
 }
\ No newline at end of file
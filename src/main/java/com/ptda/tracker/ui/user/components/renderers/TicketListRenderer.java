@@ -1,12 +1,12 @@
 package com.ptda.tracker.ui.user.components.renderers;
 
-import com.ptda.tracker.models.assistance.Ticket;
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.util.LocaleManager;
 
 import javax.swing.*;
 import java.awt.*;
 
-public class TicketListRenderer extends JPanel implements ListCellRenderer<Ticket> {
+public class TicketListRenderer extends JPanel implements ListCellRenderer<TicketRowDto> {
 
     public TicketListRenderer() {
         setLayout(new BorderLayout(10, 10));
@@ -31,8 +31,8 @@ public class TicketListRenderer extends JPanel implements ListCellRenderer<Ticke
 
     @Override
     public Component getListCellRendererComponent(
-            JList<? extends Ticket> list,
-            Ticket ticket,
+            JList<? extends TicketRowDto> list,
+            TicketRowDto ticket,
             int index,
             boolean isSelected,
             boolean cellHasFocus
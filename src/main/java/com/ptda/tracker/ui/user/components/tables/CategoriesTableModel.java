@@ -1,35 +1,31 @@
 package com.ptda.tracker.ui.user.components.tables;
 
 import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.util.ExpensesConverter;
 import com.ptda.tracker.util.ExpensesImportSharedData;
 import com.ptda.tracker.util.LocaleManager;
 
 import javax.swing.table.AbstractTableModel;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class CategoriesTableModel extends AbstractTableModel {
     private final String[] columnNames = {IMPORTED_CATEGORY, MAPPED_CATEGORY};
     private final Object[][] data;
 
-    public CategoriesTableModel() {
-        ExpensesImportSharedData sharedData = ExpensesImportSharedData.getInstance();
-        Map<String, ExpenseCategory> categoryMapping = sharedData.getCategoryMapping();
-        List<String[]> rawData = sharedData.getRawData();
-
-        // Extract unique categories
-        List<String> uniqueCategories = rawData.stream()
-                .skip(sharedData.isHasHeader() ? 1 : 0) // Skip header row if applicable
-                .map(row -> row[sharedData.getColumnMapping().get("CATEGORY")])
-                .distinct()
-                .collect(Collectors.toList());
+    /**
+     * @param importedCategories distinct categories of the source, see {@link ExpensesConverter#findCategories}
+     * @param dictionary categories the user mapped imported names to before, suggested for names not mapped yet
+     */
+    public CategoriesTableModel(List<String> importedCategories, Map<String, ExpenseCategory> dictionary) {
+        Map<String, ExpenseCategory> categoryMapping = ExpensesImportSharedData.getInstance().getCategoryMapping();
 
-        data = new Object[uniqueCategories.size()][2];
-        for (int i = 0; i < uniqueCategories.size(); i++) {
-            String importedCategory = uniqueCategories.get(i);
+        data = new Object[importedCategories.size()][2];
+        for (int i = 0; i < importedCategories.size(); i++) {
+            String importedCategory = importedCategories.get(i);
             data[i][0] = importedCategory;
-            data[i][1] = categoryMapping.getOrDefault(importedCategory, ExpenseCategory.OTHER);
+            ExpenseCategory suggested = dictionary.getOrDefault(importedCategory.trim(), ExpenseCategory.OTHER);
+            data[i][1] = categoryMapping.getOrDefault(importedCategory, suggested);
         }
     }
 
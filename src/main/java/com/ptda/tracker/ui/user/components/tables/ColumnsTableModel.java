@@ -28,14 +28,17 @@ public class ColumnsTableModel extends AbstractTableModel {
 
         data = new Object[rawColumnNames.length][2];
 
-        // Initialize rows with existing mappings or default to IGNORE
+        // Initialize rows to IGNORE, then apply the existing or suggested mapping of field name to column index
         for (int i = 0; i < rawColumnNames.length; i++) {
             data[i][0] = rawColumnNames[i];
-            ExpenseFieldOptions defaultOption = ExpenseFieldOptions.IGNORE;
-            if (existingMapping != null && existingMapping.containsKey(rawColumnNames[i])) {
-                defaultOption = ExpenseFieldOptions.values()[existingMapping.get(rawColumnNames[i])];
-            }
-            data[i][1] = defaultOption;
+            data[i][1] = ExpenseFieldOptions.IGNORE;
+        }
+        if (existingMapping != null) {
+            existingMapping.forEach((field, column) -> {
+                if (column < data.length) {
+                    data[column][1] = ExpenseFieldOptions.valueOf(field);
+                }
+            });
         }
     }
 
@@ -59,13 +59,9 @@ public class ParticipantsDialog extends JDialog {
 
     private void removeSelectedParticipant() {
         User currentUser = UserSession.getInstance().getUser();
-        BudgetAccess currentUserAccess = budgetAccessService.getAllByBudgetId(budget.getId())
-                .stream()
-                .filter(access -> access.getUser().getId().equals(currentUser.getId()))
-                .findFirst()
-                .orElse(null);
+        BudgetAccessLevel currentUserAccessLevel = budgetAccessService.getAccessLevel(budget.getId(), currentUser.getId()).orElse(null);
 
-        if (currentUserAccess == null || currentUserAccess.getAccessLevel() != BudgetAccessLevel.OWNER) {
+        if (currentUserAccessLevel != BudgetAccessLevel.OWNER) {
             JOptionPane.showMessageDialog(this, ONLY_OWNER_CAN_REMOVE);
             return;
         }
@@ -88,13 +84,9 @@ public class ParticipantsDialog extends JDialog {
 
     private void saveAccessLevelChanges() {
         User currentUser = UserSession.getInstance().getUser();
-        BudgetAccess currentUserAccess = budgetAccessService.getAllByBudgetId(budget.getId())
-                .stream()
-                .filter(access -> access.getUser().getId().equals(currentUser.getId()))
-                .findFirst()
-                .orElse(null);
+        BudgetAccessLevel currentUserAccessLevel = budgetAccessService.getAccessLevel(budget.getId(), currentUser.getId()).orElse(null);
 
-        if (currentUserAccess == null || currentUserAccess.getAccessLevel() != BudgetAccessLevel.OWNER) {
+        if (currentUserAccessLevel != BudgetAccessLevel.OWNER) {
             JOptionPane.showMessageDialog(this, ONLY_OWNER_CAN_CHANGE_ACCESS);
             return;
         }
@@ -125,13 +117,9 @@ public class ParticipantsDialog extends JDialog {
         add(scrollPane, BorderLayout.CENTER);
 
         User currentUser = UserSession.getInstance().getUser();
-        BudgetAccess currentUserAccess = budgetAccessService.getAllByBudgetId(budget.getId())
-                .stream()
-                .filter(access -> access.getUser().getId().equals(currentUser.getId()))
-                .findFirst()
-                .orElse(null);
+        BudgetAccessLevel currentUserAccessLevel = budgetAccessService.getAccessLevel(budget.getId(), currentUser.getId()).orElse(null);
 
-        if (currentUserAccess != null && currentUserAccess.getAccessLevel() == BudgetAccessLevel.OWNER) {
+        if (currentUserAccessLevel == BudgetAccessLevel.OWNER) {
             JPanel buttonPanel = new JPanel();
             JButton removeButton = new JButton(REMOVE);
             removeButton.addActionListener(new ActionListener() {
@@ -168,13 +156,9 @@ public class ParticipantsDialog extends JDialog {
             public boolean isCellEditable(int row, int column) {
                 if (column == 2) { // ACCESS_LEVEL column
                     User currentUser = UserSession.getInstance().getUser();
-                    BudgetAccess currentUserAccess = budgetAccessService.getAllByBudgetId(budget.getId())
-                            .stream()
-                            .filter(access -> access.getUser().getId().equals(currentUser.getId()))
-                            .findFirst()
-                            .orElse(null);
+                    BudgetAccessLevel currentUserAccessLevel = budgetAccessService.getAccessLevel(budget.getId(), currentUser.getId()).orElse(null);
 
-                    if (currentUserAccess != null && currentUserAccess.getAccessLevel() == BudgetAccessLevel.VIEWER) {
+                    if (currentUserAccessLevel == BudgetAccessLevel.VIEWER) {
                         return false; // VIEWER cannot edit
                     }
 
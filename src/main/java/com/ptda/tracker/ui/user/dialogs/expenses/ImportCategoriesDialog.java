@@ -7,21 +7,24 @@ import com.ptda.tracker.util.LocaleManager;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
+import java.util.Map;
 
 public class ImportCategoriesDialog extends JDialog {
 
-    public ImportCategoriesDialog(JFrame parent, Runnable onDone) {
+    public ImportCategoriesDialog(JFrame parent, List<String> importedCategories,
+                                  Map<String, ExpenseCategory> categoryDictionary, Runnable onDone) {
         super(parent, IMPORT_COLUMNS_MAPPING, true);
 
-        initComponents();
+        initComponents(importedCategories, categoryDictionary);
         setListeners(onDone);
     }
 
-    private void initComponents() {
+    private void initComponents(List<String> importedCategories, Map<String, ExpenseCategory> categoryDictionary) {
         setLayout(new BorderLayout());
 
         // Initialize table with CategoriesTableModel
-        categoriesTable = new JTable(new CategoriesTableModel());
+        categoriesTable = new JTable(new CategoriesTableModel(importedCategories, categoryDictionary));
         categoriesTable.getColumnModel().getColumn(1)
                 .setCellEditor(new DefaultCellEditor(createCategoryComboBox()));
 
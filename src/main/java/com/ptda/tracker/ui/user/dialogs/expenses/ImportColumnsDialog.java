@@ -30,6 +30,7 @@ public class ImportColumnsDialog extends JDialog {
             onDone.run();
         });
         columnsTable.getModel().addTableModelListener(e -> updateConfirmButtonState());
+        updateConfirmButtonState(); // The mapping may already be pre-filled
     }
 
     private void mapColumns() {
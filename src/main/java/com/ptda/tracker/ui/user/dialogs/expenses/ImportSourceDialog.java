@@ -1,27 +1,35 @@
 package com.ptda.tracker.ui.user.dialogs.expenses;
 
+import com.ptda.tracker.util.ExpensesConverter;
 import com.ptda.tracker.util.ExpensesImportSharedData;
+import com.ptda.tracker.util.ImportMappingInference;
 import com.ptda.tracker.util.LocaleManager;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.datatransfer.DataFlavor;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
+import java.io.StringReader;
+import java.util.*;
 import java.util.List;
 
 public class ImportSourceDialog extends JDialog {
     private final ExpensesImportSharedData sharedData;
     private List<String[]> rawData;
+    private File sourceFile;
     private boolean hasHeader;
+    private final Set<String> knownCategories;
     private final Runnable onDone;
     private String[] originalFirstRow;
+    private ImportMappingInference.Result inferred;
 
-    public ImportSourceDialog(JFrame parent, Runnable onDone) {
+    /**
+     * @param knownCategories category names from the user's dictionary, used to suggest the category column
+     */
+    public ImportSourceDialog(JFrame parent, Set<String> knownCategories, Runnable onDone) {
         super(parent, IMPORT_SOURCE, true);
+        this.knownCategories = knownCategories;
         this.onDone = onDone;
         this.sharedData = ExpensesImportSharedData.getInstance();
         hasHeader = true;
@@ -36,7 +44,9 @@ public class ImportSourceDialog extends JDialog {
         clipboardButton.addActionListener(e -> importFromClipboard());
         confirmButton.addActionListener(e -> {
             sharedData.setRawData(rawData);
+            sharedData.setSourceFile(sourceFile);
             sharedData.setHasHeader(hasHeader);
+            applySuggestions();
             dispose();
             onDone.run();
         });
@@ -52,12 +62,15 @@ public class ImportSourceDialog extends JDialog {
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
-            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                String line;
-                rawData = new ArrayList<>();
-                while ((line = br.readLine()) != null) {
-                    rawData.add(line.split(","));
-                }
+            try {
+                // Only the sampled lines are parsed to guess the format of the file
+                inferred = ImportMappingInference.infer(
+                        ExpensesConverter.readLines(file, ImportMappingInference.SAMPLE_LINES), knownCategories);
+                hasHeader = inferred.isHasHeader();
+                // Files longer than the preview are not loaded, their rows are streamed from disk on import
+                List<String[]> rows = ExpensesConverter.readRows(file, inferred.getDelimiter(), PREVIEW_ROWS + 1);
+                sourceFile = rows.size() > PREVIEW_ROWS ? file : null;
+                rawData = new ArrayList<>(rows.subList(0, Math.min(rows.size(), PREVIEW_ROWS)));
                 processRawData();
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(
@@ -75,15 +88,11 @@ public class ImportSourceDialog extends JDialog {
             String clipboardData = (String) Toolkit.getDefaultToolkit()
                     .getSystemClipboard()
                     .getData(DataFlavor.stringFlavor);
-            String[] lines = clipboardData.split("\n");
-            rawData = new ArrayList<>();
-            for (String line : lines) {
-                if (line.contains("\t")) {
-                    rawData.add(line.split("\t"));
-                } else {
-                    rawData.add(line.split(","));
-                }
-            }
+            List<String> lines = Arrays.asList(clipboardData.split("\\R"));
+            inferred = ImportMappingInference.infer(lines, knownCategories);
+            hasHeader = inferred.isHasHeader();
+            sourceFile = null;
+            rawData = ExpensesConverter.readRows(new StringReader(clipboardData), inferred.getDelimiter(), Integer.MAX_VALUE);
             processRawData();
         } catch (Exception e) {
             JOptionPane.showMessageDialog(
@@ -95,6 +104,23 @@ public class ImportSourceDialog extends JDialog {
         }
     }
 
+    /**
+     * Pre-fills the later import steps with the guessed column mapping and date format, unless the user already set
+     * them.
+     */
+    private void applySuggestions() {
+        if (inferred == null) {
+            return;
+        }
+        sharedData.setDelimiter(inferred.getDelimiter());
+        if (sharedData.getColumnMapping().isEmpty()) {
+            sharedData.setColumnMapping(new HashMap<>(inferred.getColumnMapping()));
+        }
+        if (sharedData.getDateFormat() == null) {
+            sharedData.setDateFormat(inferred.getDateFormat());
+        }
+    }
+
     private void processRawData() {
         if (rawData == null || rawData.isEmpty()) {
             return;
@@ -179,6 +205,8 @@ public class ImportSourceDialog extends JDialog {
         setLocationRelativeTo(null);
     }
 
+    private static final int PREVIEW_ROWS = 100;
+
     private JPanel previewTablePanel;
     private JButton skipButton, fileButton, clipboardButton, confirmButton;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
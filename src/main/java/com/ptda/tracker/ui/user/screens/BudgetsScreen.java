@@ -1,42 +1,45 @@
 package com.ptda.tracker.ui.user.screens;
 
-import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.dtos.BudgetRowDto;
 import com.ptda.tracker.services.tracker.BudgetService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.ui.user.forms.BudgetForm;
+import com.ptda.tracker.ui.user.components.layers.LoadingLayerUI;
 import com.ptda.tracker.ui.user.components.renderers.BudgetListRenderer;
 import com.ptda.tracker.ui.user.views.BudgetDetailView;
 import com.ptda.tracker.util.LocaleManager;
 import com.ptda.tracker.util.Refreshable;
 import com.ptda.tracker.util.ScreenNames;
+import com.ptda.tracker.util.UiTaskExecutor;
 import com.ptda.tracker.util.UserSession;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class BudgetsScreen extends JPanel implements Refreshable {
     private final MainFrame mainFrame;
     private final BudgetService budgetService;
-    private List<Budget> budgets;
+    private List<BudgetRowDto> budgets = new ArrayList<>();
 
     public BudgetsScreen(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
         budgetService = mainFrame.getContext().getBean(BudgetService.class);
-        budgets = budgetService.getAllByUserId(UserSession.getInstance().getUser().getId());
         initComponents();
-        setBudgetList(budgets);
         setListeners();
+        refreshBudgetList();
     }
 
     private void setListeners() {
         budgetList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                Budget selectedBudget = budgetList.getSelectedValue();
+                BudgetRowDto selectedBudget = budgetList.getSelectedValue();
                 if (selectedBudget != null) {
-                    mainFrame.registerAndShowScreen(ScreenNames.BUDGET_DETAIL_VIEW,
-                            new BudgetDetailView(mainFrame, selectedBudget, this::refreshBudgetList));
+                    budgetService.getById(selectedBudget.getId()).ifPresent(budget ->
+                            mainFrame.registerAndShowScreen(ScreenNames.BUDGET_DETAIL_VIEW,
+                                    new BudgetDetailView(mainFrame, budget, this::refreshBudgetList)));
                     budgetList.clearSelection(); // Clear selection to allow new interaction
                 }
             }
@@ -44,7 +47,7 @@ public class BudgetsScreen extends JPanel implements Refreshable {
         allButton.addActionListener(e -> setBudgetList(budgets));
         favoritesButton.addActionListener(e ->
                 setBudgetList(budgets.stream()
-                        .filter(Budget::isFavorite)
+                        .filter(BudgetRowDto::isFavorite)
                         .collect(Collectors.toList())
                 )
         );
@@ -60,17 +63,25 @@ public class BudgetsScreen extends JPanel implements Refreshable {
         });
     }
 
-    public void setBudgetList(List<Budget> budgets) {
-        DefaultListModel<Budget> model = (DefaultListModel<Budget>) budgetList.getModel();
+    public void setBudgetList(List<BudgetRowDto> budgets) {
+        DefaultListModel<BudgetRowDto> model = (DefaultListModel<BudgetRowDto>) budgetList.getModel();
         model.clear(); // Clear old data
         budgets.forEach(model::addElement); // Add new data
     }
 
     private void refreshBudgetList() {
         budgetList.clearSelection();
-        budgets = budgetService.getAllByUserId(UserSession.getInstance().getUser().getId());
-        setBudgetList(budgets);
-        budgetList.updateUI();
+        loadingLayer.setLoading(true);
+        Long userId = UserSession.getInstance().getUser().getId();
+        UiTaskExecutor.getInstance().submit(this, () -> budgetService.getRowsByUserId(userId), loaded -> {
+            budgets = loaded;
+            setBudgetList(budgets);
+            budgetList.updateUI();
+            loadingLayer.setLoading(false);
+        }, error -> {
+            loadingLayer.setLoading(false);
+            UiTaskExecutor.showError(error);
+        });
     }
 
     private void initComponents() {
@@ -92,7 +103,8 @@ public class BudgetsScreen extends JPanel implements Refreshable {
 
         budgetList = new JList<>(new DefaultListModel<>());
         budgetList.setCellRenderer(new BudgetListRenderer());
-        add(new JScrollPane(budgetList), BorderLayout.CENTER);
+        loadingLayer = new LoadingLayerUI();
+        add(new JLayer<>(new JScrollPane(budgetList), loadingLayer), BorderLayout.CENTER);
 
         createButton = new JButton(CREATE_NEW_BUDGET);
         add(createButton, BorderLayout.SOUTH);
@@ -103,7 +115,8 @@ public class BudgetsScreen extends JPanel implements Refreshable {
         refreshBudgetList();
     }
 
-    private JList<Budget> budgetList;
+    private JList<BudgetRowDto> budgetList;
+    private LoadingLayerUI loadingLayer;
     private JButton allButton, favoritesButton, createButton;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
@@ -2,19 +2,26 @@ package com.ptda.tracker.ui.user.screens;
 
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.services.tracker.ExpenseColumnMappingService;
+import com.ptda.tracker.services.tracker.ExpenseDuplicateIndex;
+import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.ui.MainFrame;
+import com.ptda.tracker.ui.user.components.layers.LoadingLayerUI;
 import com.ptda.tracker.ui.user.dialogs.expenses.*;
 import com.ptda.tracker.ui.user.forms.ExpensesEditForm;
-import com.ptda.tracker.util.ExpensesConverter;
-import com.ptda.tracker.util.ExpensesImportSharedData;
-import com.ptda.tracker.util.LocaleManager;
-import com.ptda.tracker.util.ScreenNames;
+import com.ptda.tracker.util.*;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableModel;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ExpensesImportScreen extends JPanel {
     private final MainFrame mainFrame;
@@ -22,6 +29,7 @@ public class ExpensesImportScreen extends JPanel {
     private final String returnScreen;
     private final Runnable onImportSuccess;
     private final ExpensesImportSharedData sharedData;
+    private volatile Map<String, ExpenseCategory> categoryDictionary = Map.of();
 
     public ExpensesImportScreen(MainFrame mainFrame, Budget budget, String returnScreen, Runnable onImportSuccess) {
         this.mainFrame = mainFrame;
@@ -39,7 +47,7 @@ public class ExpensesImportScreen extends JPanel {
         cancelButton.addActionListener(e -> cancelImport());
         restartImportButton.addActionListener(e -> restartImport());
         columnMappingButton.addActionListener(e -> openColumnMappingDialog());
-        categoryMappingButton.addActionListener(e -> openCategoryMappingDialog());
+        categoryMappingButton.addActionListener(e -> openCategoryMappingDialog(() -> {}));
         dateFormatButton.addActionListener(e -> openDateFormatDialog());
         valueTreatmentButton.addActionListener(e -> openValueTreatmentDialog());
         nextButton.addActionListener(e -> passToExpensesEditForm());
@@ -157,7 +165,10 @@ public class ExpensesImportScreen extends JPanel {
     }
 
     private void openSourceSelectorDialog() {
-        ImportSourceDialog dialog = new ImportSourceDialog(mainFrame, this::onSourceSelected);
+        // Runs off the EDT, so the dictionary is loaded before the dialog needs it
+        categoryDictionary = mainFrame.getContext().getBean(ExpenseColumnMappingService.class)
+                .getCategoryDictionary(UserSession.getInstance().getUser().getId());
+        ImportSourceDialog dialog = new ImportSourceDialog(mainFrame, categoryDictionary.keySet(), this::onSourceSelected);
         dialog.setVisible(true);
     }
 
@@ -177,9 +188,39 @@ public class ExpensesImportScreen extends JPanel {
         executeDialogs();
     }
 
-    private void openCategoryMappingDialog() {
-        ImportCategoriesDialog dialog = new ImportCategoriesDialog(mainFrame, this::manageSteps);
-        dialog.setVisible(true);
+    /**
+     * Reads the categories of the source in the background, the whole file is scanned when the import is streamed.
+     *
+     * @param onClosed runs once the dialog was closed, or right away when the categories could not be read
+     */
+    private void openCategoryMappingDialog(Runnable onClosed) {
+        UiTaskExecutor.getInstance().submit(ImportCategoriesDialog.class,
+                () -> ExpensesConverter.findCategories(sharedData),
+                categories -> {
+                    ImportCategoriesDialog dialog = new ImportCategoriesDialog(mainFrame, categories, categoryDictionary, () -> {
+                        saveCategoryDictionary();
+                        manageSteps();
+                    });
+                    dialog.setVisible(true);
+                    onClosed.run();
+                },
+                error -> {
+                    showDataError(error);
+                    onClosed.run();
+                });
+    }
+
+    /**
+     * Remembers the confirmed category mappings so the next import suggests them.
+     */
+    private void saveCategoryDictionary() {
+        User user = UserSession.getInstance().getUser();
+        Map<String, ExpenseCategory> categoryMapping = new HashMap<>(sharedData.getCategoryMapping());
+        ExpenseColumnMappingService service = mainFrame.getContext().getBean(ExpenseColumnMappingService.class);
+        UiTaskExecutor.getInstance().submit(ExpenseColumnMappingService.class, () -> {
+            service.saveCategoryDictionary(user, categoryMapping);
+            return service.getCategoryDictionary(user.getId());
+        }, dictionary -> categoryDictionary = dictionary);
     }
 
     private void openDateFormatDialog() {
@@ -196,16 +237,22 @@ public class ExpensesImportScreen extends JPanel {
         boolean hasCategoryColumn = sharedData.getColumnMapping() != null
                 && sharedData.getColumnMapping().containsKey(ImportColumnsDialog.ExpenseFieldOptions.CATEGORY.toString());
         if (hasCategoryColumn) {
-            openCategoryMappingDialog();
+            openCategoryMappingDialog(this::openFormatDialogs);
+        } else {
+            openFormatDialogs();
         }
+    }
+
+    private void openFormatDialogs() {
         openDateFormatDialog();
         openValueTreatmentDialog();
     }
 
     private void passToExpensesEditForm() {
+        JCheckBox skipDuplicatesCheckBox = new JCheckBox(SKIP_DUPLICATES, true);
         int response = JOptionPane.showConfirmDialog(
                 this,
-                WANT_PROCEED,
+                new Object[]{WANT_PROCEED, skipDuplicatesCheckBox},
                 CONFIRM_IMPORT,
                 JOptionPane.YES_NO_OPTION,
                 JOptionPane.QUESTION_MESSAGE
@@ -213,23 +260,178 @@ public class ExpensesImportScreen extends JPanel {
         if (response != JOptionPane.YES_OPTION) {
             return;
         }
-        try {
-            List<Expense> expenses = ExpensesConverter.transformImportData(sharedData);
-            String currentScreen = mainFrame.getCurrentScreen();
-            sharedData.setRawData(null);
-            mainFrame.removeScreen(currentScreen);
-            mainFrame.registerAndShowScreen(
-                    currentScreen,
-                    new ExpensesEditForm(mainFrame, expenses, budget, returnScreen, this::onSubmitSuccess)
-            );
-        } catch (NumberFormatException e) {
+        boolean skipDuplicates = skipDuplicatesCheckBox.isSelected();
+        if (sharedData.isStreaming()) {
+            importInBatches(skipDuplicates);
+            return;
+        }
+
+        ExpenseImportReport report = new ExpenseImportReport();
+        setImporting(true);
+        UiTaskExecutor.getInstance().submit(this,
+                () -> {
+                    try (report) {
+                        List<Expense> expenses = ExpensesConverter.transformImportData(sharedData, report);
+                        if (skipDuplicates) {
+                            removeDuplicates(expenses, loadDuplicateIndex(), report);
+                        }
+                        return expenses;
+                    }
+                },
+                expenses -> {
+                    setImporting(false);
+                    showRejectedRows(report);
+                    String currentScreen = mainFrame.getCurrentScreen();
+                    sharedData.setRawData(null);
+                    mainFrame.removeScreen(currentScreen);
+                    mainFrame.registerAndShowScreen(
+                            currentScreen,
+                            new ExpensesEditForm(mainFrame, expenses, budget, returnScreen, this::onSubmitSuccess)
+                    );
+                },
+                this::onImportError);
+    }
+
+    /**
+     * Loads the expenses of the import's scope that fall within the dates of the source, in a single query.
+     *
+     * @return the index, or {@code null} when no row has a readable date
+     */
+    private ExpenseDuplicateIndex loadDuplicateIndex() throws IOException {
+        ExpensesConverter.DateRange range = ExpensesConverter.findDateRange(sharedData);
+        if (range == null) {
+            return null;
+        }
+        return mainFrame.getContext().getBean(ExpenseService.class).getDuplicateIndex(
+                budget != null ? budget.getId() : null,
+                UserSession.getInstance().getUser().getId(),
+                range.getFrom(),
+                range.getTo()
+        );
+    }
+
+    private static void removeDuplicates(List<Expense> expenses, ExpenseDuplicateIndex index, ExpenseImportReport report) {
+        if (index == null || index.isEmpty()) {
+            return;
+        }
+        int before = expenses.size();
+        expenses.removeIf(index::consume);
+        report.addDuplicates(before - expenses.size());
+    }
+
+    private void onImportError(Throwable error) {
+        setImporting(false);
+        showDataError(error);
+    }
+
+    private void showDataError(Throwable error) {
+        if (error instanceof IOException) {
             JOptionPane.showMessageDialog(
                     this,
                     ERROR_PROCESSING_DATA,
                     ERROR,
                     JOptionPane.ERROR_MESSAGE
             );
+        } else {
+            UiTaskExecutor.showError(error);
+        }
+    }
+
+    private void showRejectedRows(ExpenseImportReport report) {
+        if (report.getRejected() == 0) {
+            return;
+        }
+        StringBuilder message = new StringBuilder(report.getRejected() + " " + ROWS_REJECTED);
+        report.getErrors().stream().limit(MAX_LISTED_ERRORS).forEach(error -> message.append("\n")
+                .append(ROW).append(" ").append(error.getRow()).append(", ")
+                .append(COLUMN).append(" ").append(error.getColumn() + 1).append(": ")
+                .append(error.getReason()));
+        message.append("\n\n").append(formatProgress(report));
+
+        Object[] options = {SAVE_ERROR_REPORT, CLOSE};
+        int choice = JOptionPane.showOptionDialog(
+                this,
+                message.toString(),
+                WARNING,
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE,
+                null,
+                options,
+                options[0]
+        );
+        if (choice == 0) {
+            saveErrorReport(report);
+        }
+    }
+
+    private void saveErrorReport(ExpenseImportReport report) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle(SAVE_ERROR_REPORT);
+        fileChooser.setSelectedFile(new File(ERROR_REPORT_FILE_NAME));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        try {
+            report.saveErrors(fileChooser.getSelectedFile());
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), ERROR, JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static String formatProgress(ExpenseImportReport report) {
+        return ACCEPTED + ": " + report.getAccepted()
+                + " | " + DUPLICATES + ": " + report.getDuplicates()
+                + " | " + FILTERED + ": " + report.getFiltered()
+                + " | " + REJECTED + ": " + report.getRejected();
+    }
+
+    /**
+     * Imports a streamed source directly, without the edit form, so that only one batch of expenses is in memory.
+     */
+    private void importInBatches(boolean skipDuplicates) {
+        ExpenseService expenseService = mainFrame.getContext().getBean(ExpenseService.class);
+        ExpenseImportReport report = new ExpenseImportReport();
+        setImporting(true);
+        UiTaskExecutor.getInstance().submit(this,
+                () -> {
+                    ExpenseDuplicateIndex index = skipDuplicates ? loadDuplicateIndex() : null;
+                    try (report) {
+                        return ExpensesConverter.streamImportData(sharedData, IMPORT_BATCH_SIZE, report, batch -> {
+                            removeDuplicates(batch, index, report);
+                            if (budget != null) {
+                                batch.forEach(expense -> expense.setBudget(budget));
+                            }
+                            if (!batch.isEmpty()) {
+                                expenseService.createAll(batch);
+                            }
+                            String progress = formatProgress(report);
+                            SwingUtilities.invokeLater(() -> statusLabel.setText(progress));
+                        });
+                    }
+                },
+                converted -> {
+                    setImporting(false);
+                    JOptionPane.showMessageDialog(
+                            this,
+                            report.getImported() + " " + EXPENSES_IMPORTED + "\n" + formatProgress(report),
+                            SUCCESS,
+                            JOptionPane.INFORMATION_MESSAGE
+                    );
+                    showRejectedRows(report);
+                    onSubmitSuccess();
+                    mainFrame.showScreen(returnScreen);
+                    mainFrame.removeScreen(ScreenNames.EXPENSES_IMPORT);
+                },
+                this::onImportError);
+    }
+
+    private void setImporting(boolean importing) {
+        loadingLayer.setLoading(importing);
+        statusLabel.setText("");
+        cancelButton.setEnabled(!importing);
+        restartImportButton.setEnabled(!importing);
+        nextButton.setEnabled(!importing);
+        stepsPanel.setVisible(!importing);
     }
 
     private void onSubmitSuccess() {
@@ -260,15 +462,18 @@ public class ExpensesImportScreen extends JPanel {
         expensesTable.getTableHeader().setReorderingAllowed(false);
         expensesTable.getTableHeader().setResizingAllowed(false);
         expensesTable.setEnabled(false);
-        add(new JScrollPane(expensesTable), BorderLayout.CENTER);
+        loadingLayer = new LoadingLayerUI();
+        add(new JLayer<>(new JScrollPane(expensesTable), loadingLayer), BorderLayout.CENTER);
 
         // Buttons
         JPanel buttonPanel = new JPanel(new FlowLayout());
+        statusLabel = new JLabel();
         cancelButton = new JButton(CANCEL);
         restartImportButton = new JButton(RESTART_IMPORT);
         nextButton = new JButton(NEXT);
         nextButton.setEnabled(false);
 
+        buttonPanel.add(statusLabel);
         buttonPanel.add(cancelButton);
         buttonPanel.add(restartImportButton);
         buttonPanel.add(nextButton);
@@ -278,8 +483,11 @@ public class ExpensesImportScreen extends JPanel {
 
     private JPanel stepsPanel;
     private JTable expensesTable;
+    private LoadingLayerUI loadingLayer;
+    private JLabel statusLabel;
     private JButton cancelButton, restartImportButton, nextButton,
             columnMappingButton, categoryMappingButton, dateFormatButton, valueTreatmentButton;
+    private static final int IMPORT_BATCH_SIZE = 500, MAX_LISTED_ERRORS = 10;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
             CANCEL = localeManager.getTranslation("cancel"),
@@ -292,8 +500,21 @@ public class ExpensesImportScreen extends JPanel {
             CONFIRM_IMPORT = localeManager.getTranslation("confirm_import"),
             KEEP_PROGRESS = localeManager.getTranslation("keep_progress"),
             CANCEL_IMPORT = localeManager.getTranslation("cancel_import"),
+            WARNING = localeManager.getTranslation("warning"),
+            SKIP_DUPLICATES = localeManager.getTranslation("skip_duplicates"),
+            DUPLICATES = localeManager.getTranslation("duplicates"),
             ERROR = localeManager.getTranslation("error"),
             ERROR_PROCESSING_DATA = localeManager.getTranslation("error_processing_data"),
+            SAVE_ERROR_REPORT = localeManager.getTranslation("save_error_report"),
+            ERROR_REPORT_FILE_NAME = localeManager.getTranslation("error_report_file_name"),
+            CLOSE = localeManager.getTranslation("close"),
+            ACCEPTED = localeManager.getTranslation("accepted"),
+            FILTERED = localeManager.getTranslation("filtered"),
+            REJECTED = localeManager.getTranslation("rejected"),
+            SUCCESS = localeManager.getTranslation("success"),
+            EXPENSES_IMPORTED = localeManager.getTranslation("expenses_imported"),
+            ROWS_REJECTED = localeManager.getTranslation("rows_rejected"),
+            ROW = localeManager.getTranslation("row"),
             NEXT = localeManager.getTranslation("next"),
             COLUMN = localeManager.getTranslation("column");
 }
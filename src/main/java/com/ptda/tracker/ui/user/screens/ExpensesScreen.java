@@ -1,15 +1,19 @@
 package com.ptda.tracker.ui.user.screens;
 
-import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.dtos.ExpenseCursor;
+import com.ptda.tracker.dtos.ExpenseRowDto;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
 import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.ui.user.forms.ExpenseForm;
+import com.ptda.tracker.ui.user.components.lists.PagedExpenseListModel;
 import com.ptda.tracker.ui.user.components.renderers.ExpenseListRenderer;
 import com.ptda.tracker.ui.user.views.ExpenseDetailView;
 import com.ptda.tracker.util.*;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Date;
 import java.util.List;
 
 import static com.ptda.tracker.ui.user.views.BudgetDetailView.openImport;
@@ -29,9 +33,10 @@ public class ExpensesScreen extends JPanel implements Refreshable {
     private void setListeners() {
         expensesList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                Expense selectedExpense = expensesList.getSelectedValue();
+                ExpenseRowDto selectedExpense = expensesList.getSelectedValue();
                 if (selectedExpense != null) {
-                    mainFrame.registerAndShowScreen(ScreenNames.EXPENSE_DETAIL_VIEW, new ExpenseDetailView(mainFrame, selectedExpense, mainFrame.getCurrentScreen(), this::refreshExpenseList));
+                    expenseService.getById(selectedExpense.getId()).ifPresent(expense ->
+                            mainFrame.registerAndShowScreen(ScreenNames.EXPENSE_DETAIL_VIEW, new ExpenseDetailView(mainFrame, expense, mainFrame.getCurrentScreen(), this::refreshExpenseList)));
                     expensesList.clearSelection();
                 }
             }
@@ -44,65 +49,37 @@ public class ExpensesScreen extends JPanel implements Refreshable {
             );
         });
         importButton.addActionListener(e -> openImport(mainFrame, null, this::refreshExpenseList));
-        nextPageButton.addActionListener(e -> {
-            if ((currentPage + 1) * PAGE_SIZE < expenses.size()) {
-                currentPage++;
-                updatePagination();
-            }
-        });
-        prevPageButton.addActionListener(e -> {
-            if (currentPage > 0) {
-                currentPage--;
-                updatePagination();
-            }
-        });
     }
 
     private void refreshExpenseList() {
         expensesList.clearSelection();
-        expenses = expenseService.getPersonalExpensesByUserIdWithPagination(UserSession.getInstance().getUser().getId(), currentPage * PAGE_SIZE, PAGE_SIZE);
-        updatePagination();
-    }
-
-    private void updatePaginationPanel() {
-        paginationPanel.removeAll();
-        int totalExpenses = expenseService.getCountByBudgetId(UserSession.getInstance().getUser().getId());
-        int totalPages = (int) Math.ceil((double) totalExpenses / PAGE_SIZE);
-        if (totalExpenses > PAGE_SIZE) {
-            for (int i = 0; i < totalPages; i++) {
-                int pageIndex = i;
-                JButton pageButton = new JButton(String.valueOf(i + 1));
-                pageButton.setEnabled(pageIndex != currentPage);
-                pageButton.addActionListener(e -> {
-                    currentPage = pageIndex;
-                    refreshExpenseList();
-                });
-                paginationPanel.add(pageButton);
-            }
-            paginationPanel.setVisible(true);
-        } else {
-            paginationPanel.setVisible(false);
-        }
-        paginationPanel.revalidate();
-        paginationPanel.repaint();
-    }
-
-    private void updatePagination() {
-        DefaultListModel<Expense> model = (DefaultListModel<Expense>) expensesList.getModel();
-        model.clear();
-        for (Expense expense : expenses) {
-            model.addElement(expense);
-        }
-        updatePaginationPanel();
+        expensesModel.refresh();
     }
 
     private void initUI() {
         setLayout(new BorderLayout());
 
-        expensesList = new JList<>(new DefaultListModel<>());
-        expensesList.setCellRenderer(new ExpenseListRenderer());
         expenseService = mainFrame.getContext().getBean(ExpenseService.class);
-        expenses = expenseService.getPersonalExpensesByUserId(UserSession.getInstance().getUser().getId());
+        expensesModel = new PagedExpenseListModel(new PagedExpenseListModel.PageSource() {
+            @Override
+            public int count() {
+                return expenseService.getCountByUserIdPersonal(UserSession.getInstance().getUser().getId());
+            }
+
+            @Override
+            public List<ExpenseRowDto> after(ExpenseCursor cursor, int limit) {
+                return expenseService.getPersonalExpenseRowsByUserIdAfter(UserSession.getInstance().getUser().getId(), cursor, limit);
+            }
+
+            @Override
+            public List<ExpenseRowDto> page(int offset, int limit) {
+                return expenseService.getPersonalExpenseRowsByUserIdWithPagination(UserSession.getInstance().getUser().getId(), offset, limit);
+            }
+        }, PAGE_SIZE, MAX_RESIDENT_PAGES);
+        expensesList = new JList<>(expensesModel);
+        expensesList.setCellRenderer(new ExpenseListRenderer());
+        // A fixed cell size keeps the list from rendering every row to measure it
+        expensesList.setPrototypeCellValue(new ExpenseRowDto(null, SELECT_EXPENSE, 0, new Date(), ExpenseCategory.OTHER, 0));
 
         add(new JScrollPane(expensesList), BorderLayout.CENTER);
 
@@ -117,32 +94,16 @@ public class ExpensesScreen extends JPanel implements Refreshable {
         buttonPanel.add(importButton);
         buttonPanel.add(createButton);
 
-        // Initialize pagination buttons
-        prevPageButton = new JButton();
-        nextPageButton = new JButton();
-
-        // Add pagination buttons to the pagination panel
-        paginationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        paginationPanel.add(prevPageButton);
-        paginationPanel.add(nextPageButton);
-
-        // Painel inferior que contém os botões e a paginação
-        JPanel bottomPanel = new JPanel(new BorderLayout());
-        bottomPanel.add(buttonPanel, BorderLayout.EAST);
-        bottomPanel.add(paginationPanel, BorderLayout.CENTER);
-
-        add(bottomPanel, BorderLayout.SOUTH);
+        add(buttonPanel, BorderLayout.SOUTH);
 
         refreshExpenseList();
     }
 
-    private JList<Expense> expensesList;
-    private List<Expense> expenses;
-    private int currentPage = 0;
-    private static final int PAGE_SIZE = 20;
-    private JPanel paginationPanel;
+    private JList<ExpenseRowDto> expensesList;
+    private PagedExpenseListModel expensesModel;
+    private static final int PAGE_SIZE = 50, MAX_RESIDENT_PAGES = 10;
 
-    private JButton createButton, importButton, prevPageButton, nextPageButton;
+    private JButton createButton, importButton;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
             SELECT_EXPENSE = localeManager.getTranslation("select_expense"),
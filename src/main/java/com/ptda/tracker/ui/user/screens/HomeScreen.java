@@ -1,11 +1,12 @@
 package com.ptda.tracker.ui.user.screens;
 
-import com.ptda.tracker.models.tracker.Budget;
-import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.dtos.BudgetRowDto;
+import com.ptda.tracker.dtos.ExpenseRowDto;
 import com.ptda.tracker.services.tracker.BudgetService;
 import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.theme.ThemeManager;
 import com.ptda.tracker.ui.MainFrame;
+import com.ptda.tracker.ui.user.components.layers.LoadingLayerUI;
 import com.ptda.tracker.ui.user.components.renderers.BudgetListRenderer;
 import com.ptda.tracker.ui.user.components.renderers.ExpenseListRenderer;
 import com.ptda.tracker.ui.user.views.BudgetDetailView;
@@ -13,8 +14,10 @@ import com.ptda.tracker.ui.user.views.ExpenseDetailView;
 import com.ptda.tracker.util.LocaleManager;
 import com.ptda.tracker.util.Refreshable;
 import com.ptda.tracker.util.ScreenNames;
+import com.ptda.tracker.util.UiTaskExecutor;
 import com.ptda.tracker.util.UserSession;
 
+import lombok.Value;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -53,9 +56,10 @@ public class HomeScreen extends JPanel implements Refreshable {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
-                    Budget selectedBudget = budgetList.getSelectedValue();
+                    BudgetRowDto selectedBudget = budgetList.getSelectedValue();
                     if (selectedBudget != null) {
-                        mainFrame.registerAndShowScreen(ScreenNames.BUDGET_DETAIL_VIEW, new BudgetDetailView(mainFrame, selectedBudget, HomeScreen.this::refresh));
+                        budgetService.getById(selectedBudget.getId()).ifPresent(budget ->
+                                mainFrame.registerAndShowScreen(ScreenNames.BUDGET_DETAIL_VIEW, new BudgetDetailView(mainFrame, budget, HomeScreen.this::refresh)));
                         budgetList.clearSelection();
                     }
                 }
@@ -65,12 +69,12 @@ public class HomeScreen extends JPanel implements Refreshable {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
-                    Expense selectedExpense = expenseList.getSelectedValue();
+                    ExpenseRowDto selectedExpense = expenseList.getSelectedValue();
                     if (selectedExpense != null) {
-                        mainFrame.registerAndShowScreen(
+                        expenseService.getById(selectedExpense.getId()).ifPresent(expense -> mainFrame.registerAndShowScreen(
                                 ScreenNames.EXPENSE_DETAIL_VIEW,
-                                new ExpenseDetailView(mainFrame, selectedExpense, mainFrame.getCurrentScreen(), HomeScreen.this::refresh)
-                        );
+                                new ExpenseDetailView(mainFrame, expense, mainFrame.getCurrentScreen(), HomeScreen.this::refresh)
+                        ));
                         expenseList.clearSelection();
                     }
                 }
@@ -83,15 +87,30 @@ public class HomeScreen extends JPanel implements Refreshable {
     }
 
     public void refresh() {
-        List<Budget> recentBudgets = budgetService.getRecentByUserId(userId, 5);
-        budgetList.setListData(recentBudgets.toArray(new Budget[0]));
+        loadingLayer.setLoading(true);
+        UiTaskExecutor.getInstance().submit(this, this::loadData, data -> {
+            showData(data);
+            loadingLayer.setLoading(false);
+        }, error -> {
+            loadingLayer.setLoading(false);
+            UiTaskExecutor.showError(error);
+        });
+    }
+
+    private HomeData loadData() {
+        return new HomeData(
+                budgetService.getRecentRowsByUserId(userId, 5),
+                expenseService.getRecentExpenseRowsByUserId(userId, 5),
+                expenseService.getExpensesByCategory(userId)
+        );
+    }
 
-        List<Expense> recentExpenses = expenseService.getRecentExpensesByUserId(userId, 5);
-        expenseList.setListData(recentExpenses.toArray(new Expense[0]));
+    private void showData(HomeData data) {
+        budgetList.setListData(data.getRecentBudgets().toArray(new BudgetRowDto[0]));
+        expenseList.setListData(data.getRecentExpenses().toArray(new ExpenseRowDto[0]));
 
         DefaultPieDataset pieDataset = new DefaultPieDataset();
-        Map<String, Double> expensesByCategory = expenseService.getExpensesByCategory(userId);
-        for (Map.Entry<String, Double> entry : expensesByCategory.entrySet()) {
+        for (Map.Entry<String, Double> entry : data.getExpensesByCategory().entrySet()) {
             pieDataset.setValue(entry.getKey(), entry.getValue());
         }
 
@@ -102,9 +121,8 @@ public class HomeScreen extends JPanel implements Refreshable {
         applyThemeSettings(pieChart);
 
         DefaultCategoryDataset barDataset = new DefaultCategoryDataset();
-        for (Budget budget : recentBudgets) {
-            double totalAmount = budgetService.getTotalBudgetAmount(budget.getId());
-            barDataset.addValue(totalAmount, BUDGET, budget.getName());
+        for (BudgetRowDto budget : data.getRecentBudgets()) {
+            barDataset.addValue(budget.getTotal(), BUDGET, budget.getName());
         }
 
         JFreeChart barChart = ChartFactory.createBarChart(
@@ -126,8 +144,13 @@ public class HomeScreen extends JPanel implements Refreshable {
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
+        // Lists and charts are covered by a placeholder while they are loading
+        JPanel contentPanel = new JPanel(new BorderLayout(10, 10));
+        loadingLayer = new LoadingLayerUI();
+        add(new JLayer<>(contentPanel, loadingLayer), BorderLayout.CENTER);
+
         JPanel listsPanel = new JPanel(new GridLayout(1, 2, 10, 10));
-        add(listsPanel, BorderLayout.CENTER);
+        contentPanel.add(listsPanel, BorderLayout.CENTER);
 
         budgetList = new JList<>();
         budgetList.setCellRenderer(new BudgetListRenderer());
@@ -142,7 +165,7 @@ public class HomeScreen extends JPanel implements Refreshable {
         listsPanel.add(expenseScrollPane);
 
         JPanel chartPanel = new JPanel(new GridLayout(1, 2, 10, 10));
-        add(chartPanel, BorderLayout.SOUTH);
+        contentPanel.add(chartPanel, BorderLayout.SOUTH);
 
         pieChartPanel = new ChartPanel(null);
         pieChartPanel.setBorder(BorderFactory.createTitledBorder(EXPENSES_BY_CATEGORY));
@@ -153,6 +176,9 @@ public class HomeScreen extends JPanel implements Refreshable {
     }
 
     private void applyThemeSettings(JFreeChart chart) {
+        if (chart == null) {
+            return; // Charts are not loaded yet
+        }
         Color backgroundColor = getBackground();
         chart.setBackgroundPaint(backgroundColor);
         chart.getPlot().setBackgroundPaint(backgroundColor);
@@ -173,8 +199,16 @@ public class HomeScreen extends JPanel implements Refreshable {
         }
     }
 
-    private JList<Budget> budgetList;
-    private JList<Expense> expenseList;
+    @Value
+    private static class HomeData {
+        List<BudgetRowDto> recentBudgets;
+        List<ExpenseRowDto> recentExpenses;
+        Map<String, Double> expensesByCategory;
+    }
+
+    private LoadingLayerUI loadingLayer;
+    private JList<BudgetRowDto> budgetList;
+    private JList<ExpenseRowDto> expenseList;
     private ChartPanel pieChartPanel;
     private ChartPanel barChartPanel;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
@@ -1,6 +1,6 @@
 package com.ptda.tracker.ui.user.screens;
 
-import com.ptda.tracker.models.assistance.Ticket;
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.services.assistance.TicketService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.ui.user.forms.TicketForm;
@@ -17,8 +17,8 @@ import java.util.List;
 
 public class UserTicketsScreen extends JPanel implements Refreshable {
     private final TicketService ticketService;
-    private final JList<Ticket> ticketList;
-    private List<Ticket> tickets;
+    private final JList<TicketRowDto> ticketList;
+    private List<TicketRowDto> tickets;
 
     public UserTicketsScreen(MainFrame mainFrame) {
         setLayout(new BorderLayout());
@@ -26,14 +26,15 @@ public class UserTicketsScreen extends JPanel implements Refreshable {
         ticketList = new JList<>(new DefaultListModel<>());
         ticketList.setCellRenderer(new TicketListRenderer());
         ticketService = mainFrame.getContext().getBean(TicketService.class);
-        tickets = ticketService.getAllByUserId(UserSession.getInstance().getUser().getId());
+        tickets = ticketService.getRowsByUserId(UserSession.getInstance().getUser().getId());
         setTicketList(tickets);
 
         ticketList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
-                Ticket selectedTicket = ticketList.getSelectedValue();
+                TicketRowDto selectedTicket = ticketList.getSelectedValue();
                 if (selectedTicket != null) {
-                    mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, selectedTicket, ScreenNames.USER_TICKETS_SCREEN));
+                    ticketService.getById(selectedTicket.getId()).ifPresent(ticket ->
+                            mainFrame.registerAndShowScreen(ScreenNames.TICKET_DETAIL_VIEW, new TicketDetailView(mainFrame, ticket, ScreenNames.USER_TICKETS_SCREEN)));
                     ticketList.clearSelection(); // Clear selection to allow new interaction
                 }
             }
@@ -55,12 +56,12 @@ public class UserTicketsScreen extends JPanel implements Refreshable {
 
     private void refreshTicketList() {
         ticketList.clearSelection();
-        tickets = ticketService.getAllByUserId(UserSession.getInstance().getUser().getId());
+        tickets = ticketService.getRowsByUserId(UserSession.getInstance().getUser().getId());
         setTicketList(tickets);
     }
 
-    public void setTicketList(List<Ticket> tickets) {
-        DefaultListModel<Ticket> model = (DefaultListModel<Ticket>) ticketList.getModel();
+    public void setTicketList(List<TicketRowDto> tickets) {
+        DefaultListModel<TicketRowDto> model = (DefaultListModel<TicketRowDto>) ticketList.getModel();
         model.clear(); // Clear old data
         tickets.forEach(model::addElement); // Add new data
     }
@@ -1,16 +1,21 @@
 package com.ptda.tracker.ui.user.views;
 
+import com.ptda.tracker.dtos.AuditCursor;
+import com.ptda.tracker.dtos.AuditEntryDto;
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.services.tracker.BudgetAuditService;
 import com.ptda.tracker.services.tracker.ExpenseAuditService;
 import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.ui.MainFrame;
+import com.ptda.tracker.ui.user.components.layers.LoadingLayerUI;
 import com.ptda.tracker.ui.user.dialogs.BudgetDetailDialog;
 import com.ptda.tracker.ui.user.dialogs.ExpenseDetailDialog;
 import com.ptda.tracker.util.DateFormatManager;
 import com.ptda.tracker.util.LocaleManager;
 import com.ptda.tracker.util.ScreenNames;
+import com.ptda.tracker.util.UiTaskExecutor;
+import lombok.Value;
 import org.hibernate.envers.DefaultRevisionEntity;
 import org.hibernate.envers.RevisionType;
 
@@ -20,14 +25,17 @@ import java.awt.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class BudgetAuditListView extends JPanel {
     private final MainFrame mainFrame;
     private final BudgetAuditService budgetAuditService;
     private final ExpenseAuditService expenseAuditService;
     private final ExpenseService expenseService;
-    private final List<Long> revisionNumbers;
+    private final List<AuditEntryDto> entries;
     private final Budget budget;
+    private AuditCursor nextCursor;
+    private boolean hasMore = true, loading;
 
     public BudgetAuditListView(MainFrame mainFrame, Budget budget) {
         this.mainFrame = mainFrame;
@@ -35,143 +43,114 @@ public class BudgetAuditListView extends JPanel {
         this.budgetAuditService = mainFrame.getContext().getBean(BudgetAuditService.class);
         this.expenseAuditService = mainFrame.getContext().getBean(ExpenseAuditService.class);
         this.expenseService = mainFrame.getContext().getBean(ExpenseService.class);
-        this.revisionNumbers = new ArrayList<>();
+        this.entries = new ArrayList<>();
 
         initComponents();
-        populateRevisionsTable();
+        loadNextPage();
     }
 
-    private void populateRevisionsTable() {
-        System.out.println("Started populateRevisionsTable");
-        DefaultTableModel model = (DefaultTableModel) revisionsTable.getModel();
-        model.setRowCount(0);
-        revisionNumbers.clear();
-
-        try {
-            // Fetch revisions and expenses
-            System.out.println("Fetching revisions and expenses");
-            List<Object[]> budgetRevisions = budgetAuditService.getBudgetRevisionsWithDetails(budget.getId());
-            List<Expense> allExpenses = expenseService.getAllByBudgetId(budget.getId());
-            List<Object[]> expenseRevisions = new ArrayList<>();
-            for (Expense expense : allExpenses) {
-                expenseRevisions.addAll(expenseAuditService.getExpenseRevisionsWithDetails(expense.getId()));
+    /**
+     * Appends the next page of the timeline to the table. Once the audited history is exhausted,
+     * expenses created before auditing was enabled are added as "CREATE" entries.
+     */
+    private void loadNextPage() {
+        if (loading || !hasMore) {
+            return;
+        }
+        loading = true;
+        loadingLayer.setLoading(entries.isEmpty());
+
+        AuditCursor cursor = nextCursor;
+        UiTaskExecutor.getInstance().submit(this, () -> {
+            List<AuditEntryDto> entries = budgetAuditService.getTimeline(budget.getId(), cursor, PAGE_SIZE);
+            if (entries.size() < PAGE_SIZE) {
+                // The audited history ends here, the unaudited expenses are added once as the last page
+                entries = new ArrayList<>(entries);
+                entries.addAll(expenseAuditService.getUnauditedExpensesByBudgetId(budget.getId()));
+                return new TimelinePage(entries, true);
             }
-
-            List<Object[]> combinedRevisions = new ArrayList<>();
-            combinedRevisions.addAll(budgetRevisions);
-            combinedRevisions.addAll(expenseRevisions);
-
-            // Add expenses as "CREATE" entries if they are not in revisions
-            System.out.println("Adding expenses as CREATE entries");
-            for (Expense expense : allExpenses) {
-                boolean isAdded = expenseRevisions.stream().anyMatch(revision ->
-                        ((Expense) revision[0]).getId().equals(expense.getId())
-                );
-
-                if (!isAdded) {
-                    DefaultRevisionEntity mockRevisionEntity = new DefaultRevisionEntity();
-                    mockRevisionEntity.setTimestamp(expense.getCreatedAt());
-
-                    combinedRevisions.add(new Object[]{
-                            expense,
-                            mockRevisionEntity,
-                            RevisionType.ADD
-                    });
-                }
+            return new TimelinePage(entries, false);
+        }, page -> {
+            hasMore = !page.isLast();
+            List<AuditEntryDto> pageEntries = page.getEntries();
+            if (!pageEntries.isEmpty()) {
+                nextCursor = AuditCursor.of(pageEntries.get(pageEntries.size() - 1));
             }
+            populateTableRows(pageEntries, (DefaultTableModel) revisionsTable.getModel());
+            loading = false;
+            loadingLayer.setLoading(false);
+            // Keep loading until the rows fill the viewport, otherwise there is nothing to scroll
+            SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+        }, error -> {
+            loading = false;
+            loadingLayer.setLoading(false);
+            showErrorDialog(ERROR_OCCURRED + ": " + error.getMessage());
+        });
+    }
 
-            // Sort by date (handle mocked revisions with createdDate properly)
-            combinedRevisions.sort((o1, o2) -> {
-                Date date1 = ((DefaultRevisionEntity) o1[1]).getRevisionDate();
-                Date date2 = ((DefaultRevisionEntity) o2[1]).getRevisionDate();
-                return date2.compareTo(date1);
-            });
-
-            System.out.println("Reached populateTableRows");
-            // Populate rows
-            populateTableRows(combinedRevisions, model);
-        } catch (Exception ex) {
-            showErrorDialog(ERROR_OCCURRED + ": " + ex.getMessage());
+    private void loadMoreIfNeeded() {
+        JScrollBar scrollBar = revisionsScrollPane.getVerticalScrollBar();
+        if (scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum() - revisionsTable.getRowHeight() * 5) {
+            loadNextPage();
         }
     }
 
-    private void populateTableRows(List<Object[]> revisions, DefaultTableModel model) {
-        Set<String> uniqueEntries = new HashSet<>();
-
-        for (Object[] revision : revisions) {
-            Object entity = revision[0];
-            DefaultRevisionEntity revisionEntity = (DefaultRevisionEntity) revision[1];
-            RevisionType revisionType = (RevisionType) revision[2];
-
-            String entityType = (entity instanceof Budget) ? "Budget" : "Expense";
-            String revisionTypeName = (revisionType == RevisionType.ADD && "Budget".equals(entityType)) ? "CREATE" : revisionType.toString();
-
-            String uniqueKey = entity.toString() + "||" + revisionEntity.getId();
-            if (uniqueEntries.add(uniqueKey)) {
-                revisionNumbers.add((long) revisionEntity.getId());
-
-                String nameOrDescription = (entity instanceof Budget) ?
-                        ((Budget) entity).getName() + " / " + ((Budget) entity).getDescription() :
-                        ((Expense) entity).getTitle() + " / " + ((Expense) entity).getDescription();
-
-                model.addRow(new Object[] {
-                        revisionTypeName,
-                        // show in dateformat from dateformatmanager
-                        DATE_FORMAT.format(revisionEntity.getRevisionDate()),
-                        entityType,
-                        nameOrDescription
-                });
-            }
+    private void populateTableRows(List<AuditEntryDto> page, DefaultTableModel model) {
+        int firstRow = model.getRowCount();
+
+        for (AuditEntryDto entry : page) {
+            String revisionTypeName = (entry.getRevisionType() == RevisionType.ADD && "Budget".equals(entry.getEntityType()))
+                    ? "CREATE" : entry.getRevisionType().toString();
+
+            entries.add(entry);
+            // Rows are added to the data directly and announced once, instead of one table event per row
+            model.getDataVector().add(new Vector<>(List.of(
+                    revisionTypeName,
+                    // show in dateformat from dateformatmanager
+                    DATE_FORMAT.format(new Date(entry.getTimestamp())),
+                    entry.getEntityType(),
+                    entry.getName() + " / " + entry.getDescription()
+            )));
+        }
+        if (model.getRowCount() > firstRow) {
+            model.fireTableRowsInserted(firstRow, model.getRowCount() - 1);
         }
     }
 
     private void viewSelectedRevisionDetails() {
         int selectedRow = revisionsTable.getSelectedRow();
         if (selectedRow == -1) {
-            showWarningDialog(SELECT_REVISION);
             return;
         }
-
-        try {
-            String entityType = (String) revisionsTable.getValueAt(selectedRow, 2);
-            String revisionTypeName = (String) revisionsTable.getValueAt(selectedRow, 0);
-
-            if ("Budget".equals(entityType)) {
-                if ("CREATE".equals(revisionTypeName)) {
-                    new BudgetDetailDialog(mainFrame, budget).setVisible(true);
-                } else {
-                    long revisionNumber = revisionNumbers.get(selectedRow);
-                    DefaultRevisionEntity revisionEntity = budgetAuditService.getRevisionEntity(revisionNumber); // Fetch revision entity
-                    Budget budgetRevision = budgetAuditService.getBudgetAtRevision(budget.getId(), revisionNumber);
-                    new BudgetDetailDialog(mainFrame, budgetRevision, revisionEntity).setVisible(true);
-                }
-            } else if ("Expense".equals(entityType)) {
-                if ("CREATE".equals(revisionTypeName) || "ADD".equals(revisionTypeName)) {
-                    String name = revisionsTable.getValueAt(selectedRow, 3).toString().split(" / ")[0];
-                    Expense expense = expenseService.getAllByBudgetId(budget.getId()).stream()
-                            .filter(e -> e.getTitle().equals(name))
-                            .findFirst().orElseThrow(() -> new Exception(EXPENSE_NOT_FOUND));
-                    new ExpenseDetailDialog(mainFrame, expense).setVisible(true);
-                } else {
-                    long revisionNumber = revisionNumbers.get(selectedRow);
-                    DefaultRevisionEntity revisionEntity = expenseAuditService.getRevisionEntity(revisionNumber); // Fetch revision entity
-                    Expense expenseRevision = expenseAuditService.getExpenseAtRevision(budget.getId(), revisionNumber);
-                    new ExpenseDetailDialog(mainFrame, expenseRevision, revisionEntity).setVisible(true);
+        revisionsTable.clearSelection();
+
+        // The entity at the revision is only read now that the row is opened
+        AuditEntryDto entry = entries.get(selectedRow);
+        UiTaskExecutor.getInstance().<Supplier<JDialog>>submit(revisionsTable, () -> {
+            if ("Budget".equals(entry.getEntityType())) {
+                if (entry.getRevisionType() == RevisionType.ADD) {
+                    return () -> new BudgetDetailDialog(mainFrame, budget);
                 }
+                DefaultRevisionEntity revisionEntity = budgetAuditService.getRevisionEntity(entry.getRevision());
+                Budget budgetRevision = budgetAuditService.getBudgetAtRevision(entry.getEntityId(), entry.getRevision());
+                return () -> new BudgetDetailDialog(mainFrame, budgetRevision, revisionEntity);
             }
-        } catch (Exception ex) {
-            showErrorDialog(ERROR_FETCHING_REVISION_DETAILS + ": " + ex.getMessage());
-        }
+            if (entry.getRevision() == 0) {
+                Expense expense = expenseService.getById(entry.getEntityId())
+                        .orElseThrow(() -> new Exception(EXPENSE_NOT_FOUND));
+                return () -> new ExpenseDetailDialog(mainFrame, expense);
+            }
+            DefaultRevisionEntity revisionEntity = expenseAuditService.getRevisionEntity(entry.getRevision());
+            Expense expenseRevision = expenseAuditService.getExpenseAtRevision(entry.getEntityId(), entry.getRevision());
+            return () -> new ExpenseDetailDialog(mainFrame, expenseRevision, revisionEntity);
+        }, dialog -> dialog.get().setVisible(true),
+                error -> showErrorDialog(ERROR_FETCHING_REVISION_DETAILS + ": " + error.getMessage()));
     }
 
     private void showErrorDialog(String message) {
         JOptionPane.showMessageDialog(this, message, ERROR, JOptionPane.ERROR_MESSAGE);
     }
 
-    private void showWarningDialog(String message) {
-        JOptionPane.showMessageDialog(this, message, WARNING, JOptionPane.WARNING_MESSAGE);
-    }
-
     private JLabel createTitleLabel() {
         JLabel titleLabel = new JLabel(AUDIT_DETAILS, SwingConstants.CENTER);
         titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
@@ -215,22 +194,34 @@ public class BudgetAuditListView extends JPanel {
         add(titleLabel, BorderLayout.NORTH);
 
         revisionsTable = createRevisionsTable();
-        JScrollPane revisionsScrollPane = new JScrollPane(revisionsTable);
-        add(revisionsScrollPane, BorderLayout.CENTER);
+        revisionsScrollPane = new JScrollPane(revisionsTable);
+        revisionsScrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                loadMoreIfNeeded();
+            }
+        });
+        loadingLayer = new LoadingLayerUI();
+        add(new JLayer<>(revisionsScrollPane, loadingLayer), BorderLayout.CENTER);
 
         JPanel footerPanel = createFooterPanel();
         add(footerPanel, BorderLayout.SOUTH);
     }
 
+    @Value
+    private static class TimelinePage {
+        List<AuditEntryDto> entries;
+        boolean last;
+    }
+
     private JTable revisionsTable;
+    private JScrollPane revisionsScrollPane;
+    private static final int PAGE_SIZE = 50;
+    private LoadingLayerUI loadingLayer;
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat(DateFormatManager.getInstance().getDateFormat() + " HH:mm:ss");
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
             ERROR_OCCURRED = localeManager.getTranslation("error_occurred"),
-            WARNING = localeManager.getTranslation("warning"),
             ERROR = localeManager.getTranslation("error"),
-            CREATE = localeManager.getTranslation("create"),
-            SELECT_REVISION = localeManager.getTranslation("select_revision"),
             AUDIT_DETAILS = localeManager.getTranslation("audit_details"),
             ERROR_FETCHING_REVISION_DETAILS = localeManager.getTranslation("error_fetching_revision_details"),
             EXPENSE_NOT_FOUND = localeManager.getTranslation("expense_not_found"),
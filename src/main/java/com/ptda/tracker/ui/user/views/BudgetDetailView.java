@@ -1,5 +1,6 @@
 package com.ptda.tracker.ui.user.views;
 
+import com.ptda.tracker.dtos.ExpenseCursor;
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.BudgetAccess;
 import com.ptda.tracker.models.tracker.BudgetAccessLevel;
@@ -9,13 +10,16 @@ import com.ptda.tracker.services.tracker.BudgetAccessService;
 import com.ptda.tracker.services.tracker.BudgetService;
 import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.ui.MainFrame;
+import com.ptda.tracker.ui.user.components.layers.LoadingLayerUI;
 import com.ptda.tracker.ui.user.dialogs.ParticipantsDialog;
 import com.ptda.tracker.ui.user.forms.*;
 import com.ptda.tracker.ui.user.screens.ExpensesImportScreen;
 import com.ptda.tracker.util.ExpensesImportSharedData;
 import com.ptda.tracker.util.LocaleManager;
 import com.ptda.tracker.util.ScreenNames;
+import com.ptda.tracker.util.UiTaskExecutor;
 import com.ptda.tracker.util.UserSession;
+import lombok.Value;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -23,10 +27,12 @@ import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 public class BudgetDetailView extends JPanel {
     private final MainFrame mainFrame;
     private final BudgetAccessService budgetAccessService;
+    private final ExpenseService expenseService;
     private final User user = UserSession.getInstance().getUser();
     private final Budget budget;
     private final List<Expense> expenses;
@@ -43,7 +49,8 @@ public class BudgetDetailView extends JPanel {
             throw new RuntimeException("Budget access not found for user " + user.getId());
         }
         this.budget = budget;
-        expenses = mainFrame.getContext().getBean(ExpenseService.class).getAllByBudgetId(budget.getId());
+        expenseService = mainFrame.getContext().getBean(ExpenseService.class);
+        expenses = new ArrayList<>();
         this.onBack = onBack;
 
         initComponents();
@@ -98,7 +105,23 @@ public class BudgetDetailView extends JPanel {
         });
         favoriteCheckBox.addActionListener(e -> {
             budgetAccess.setFavorite(favoriteCheckBox.isSelected());
-            budgetAccessService.update(budgetAccess);
+            UiTaskExecutor.getInstance().submit(favoriteCheckBox, () -> budgetAccessService.update(budgetAccess), updated -> {});
+        });
+        nextPageButton.addActionListener(e -> {
+            if (!expenses.isEmpty()) {
+                ExpenseCursor last = ExpenseCursor.of(expenses.get(expenses.size() - 1));
+                loadPage(() -> last, 1);
+            }
+        });
+        prevPageButton.addActionListener(e -> {
+            if (pageStart != null && !expenses.isEmpty()) {
+                ExpenseCursor first = ExpenseCursor.of(expenses.get(0));
+                loadPage(() -> {
+                    // One extra row tells where the previous page starts, without it the previous page is the first one
+                    List<Expense> newer = expenseService.getExpensesByBudgetIdBefore(budget.getId(), first, PAGE_SIZE + 1);
+                    return newer.size() > PAGE_SIZE ? ExpenseCursor.of(newer.get(0)) : null;
+                }, -1);
+            }
         });
         auditButton.addActionListener(e -> mainFrame.registerAndShowScreen(
                 ScreenNames.BUDGET_AUDIT_DETAIL_VIEW,
@@ -131,30 +154,47 @@ public class BudgetDetailView extends JPanel {
     }
 
     private void refreshExpenses() {
-        int offset = currentPage * PAGE_SIZE;
-        expenses.clear();
-        expenses.addAll(mainFrame.getContext().getBean(ExpenseService.class)
-                .getExpensesByBudgetIdWithPagination(budget.getId(), offset, PAGE_SIZE));
+        ExpenseCursor start = pageStart;
+        loadPage(() -> start, 0);
+    }
 
-        expensesTable.setModel(createExpensesTableModel(expenses));
-        updatePaginationPanel();
+    /**
+     * Reads the page that starts after the given cursor in the background, the cursor itself may need a query to find.
+     */
+    private void loadPage(Callable<ExpenseCursor> start, int pageDelta) {
+        expensesLayer.setLoading(true);
+        prevPageButton.setEnabled(false);
+        nextPageButton.setEnabled(false);
+        UiTaskExecutor.getInstance().submit(expensesTable, () -> {
+            ExpenseCursor cursor = start.call();
+            return new ExpensePage(cursor,
+                    expenseService.getExpensesByBudgetIdAfter(budget.getId(), cursor, PAGE_SIZE),
+                    expenseService.getCountByBudgetId(budget.getId()));
+        }, page -> {
+            pageStart = page.getStart();
+            currentPage = pageStart == null ? 0 : Math.max(currentPage + pageDelta, 1);
+            totalExpenses = page.getTotal();
+            expenses.clear();
+            expenses.addAll(page.getExpenses());
+
+            expensesTable.setModel(createExpensesTableModel(expenses));
+            updatePaginationPanel();
+            statisticsButton.setVisible(!expenses.isEmpty());
+            splitSimulationButton.setVisible(!expenses.isEmpty());
+            expensesLayer.setLoading(false);
+        }, error -> {
+            updatePaginationPanel();
+            expensesLayer.setLoading(false);
+            UiTaskExecutor.showError(error);
+        });
     }
 
     private void updatePaginationPanel() {
-        paginationPanel.removeAll();
-        long totalExpenses = mainFrame.getContext().getBean(ExpenseService.class).getCountByBudgetId(budget.getId());
         int totalPages = (int) Math.ceil((double) totalExpenses / PAGE_SIZE);
-        if (totalPages > 1) {
-            for (int i = 0; i < totalPages; i++) {
-                int pageIndex = i;
-                JButton pageButton = new JButton(String.valueOf(i + 1));
-                pageButton.addActionListener(e -> {
-                    currentPage = pageIndex;
-                    refreshExpenses();
-                });
-                paginationPanel.add(pageButton);
-            }
-        }
+        pageLabel.setText(PAGE + " " + (currentPage + 1) + " / " + Math.max(totalPages, 1));
+        prevPageButton.setEnabled(pageStart != null);
+        nextPageButton.setEnabled(expenses.size() == PAGE_SIZE && (currentPage + 1) * PAGE_SIZE < totalExpenses);
+        paginationPanel.setVisible(totalPages > 1 || pageStart != null);
         paginationPanel.revalidate();
         paginationPanel.repaint();
     }
@@ -217,8 +257,9 @@ public class BudgetDetailView extends JPanel {
         participantsButton = new JButton(PARTICIPANTS);
         topButtonsPanel.add(participantsButton);
 
-        boolean hasOwnerAccess = budgetAccessService.hasAccess(budget.getId(), user.getId(), BudgetAccessLevel.OWNER);
-        boolean hasEditorAccess = budgetAccessService.hasAccess(budget.getId(), user.getId(), BudgetAccessLevel.EDITOR);
+        // The access of the user is already loaded, no need to query it again for each level
+        boolean hasOwnerAccess = budgetAccess.getAccessLevel().compareTo(BudgetAccessLevel.OWNER) <= 0;
+        boolean hasEditorAccess = budgetAccess.getAccessLevel().compareTo(BudgetAccessLevel.EDITOR) <= 0;
 
         if (hasEditorAccess) {
             editButton = new JButton(EDIT_BUDGET);
@@ -250,12 +291,13 @@ public class BudgetDetailView extends JPanel {
         expensesTable = new JTable(createExpensesTableModel(new ArrayList<>()));
         expensesTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS); // Certifica-se de ajustar as colunas corretamente
         JScrollPane scrollPane = new JScrollPane(expensesTable);
+        expensesLayer = new LoadingLayerUI();
 
         // Configurar políticas de barras de rolagem
         scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED);
 
-        centerPanel.add(scrollPane, BorderLayout.CENTER);
+        centerPanel.add(new JLayer<>(scrollPane, expensesLayer), BorderLayout.CENTER);
         add(centerPanel, BorderLayout.CENTER);
 
         // Painel Inferior dividido para Back e Simulate Budget
@@ -270,20 +312,18 @@ public class BudgetDetailView extends JPanel {
         // Painel do botão "Simulate Budget" e "Statistics" (alinhado à direita)
         JPanel rightButtonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
 
-        if (!expenses.isEmpty()) {
-            // Adicionar botão de estatísticas
-            JButton statisticsButton = new JButton(STATISTICS);
-            statisticsButton.addActionListener(e -> mainFrame.registerAndShowScreen(
-                    ScreenNames.BUDGET_STATISTICS_VIEW, new BudgetStatisticsView(mainFrame, budget)));
-            rightButtonPanel.add(statisticsButton);
-        }
-
-        if (!expenses.isEmpty()) {
-            JButton splitSimulation = new JButton(SPLIT_SIMULATION);
-            splitSimulation.addActionListener(e -> mainFrame.registerAndShowScreen(
-                    ScreenNames.SIMULATE_VIEW, new SimulationView(mainFrame, budget)));
-            rightButtonPanel.add(splitSimulation);
-        }
+        // Adicionar botão de estatísticas, visíveis apenas quando o orçamento tem despesas
+        statisticsButton = new JButton(STATISTICS);
+        statisticsButton.setVisible(false);
+        statisticsButton.addActionListener(e -> mainFrame.registerAndShowScreen(
+                ScreenNames.BUDGET_STATISTICS_VIEW, new BudgetStatisticsView(mainFrame, budget)));
+        rightButtonPanel.add(statisticsButton);
+
+        splitSimulationButton = new JButton(SPLIT_SIMULATION);
+        splitSimulationButton.setVisible(false);
+        splitSimulationButton.addActionListener(e -> mainFrame.registerAndShowScreen(
+                ScreenNames.SIMULATE_VIEW, new SimulationView(mainFrame, budget)));
+        rightButtonPanel.add(splitSimulationButton);
         if (hasEditorAccess) {
             addExpenseButton = new JButton(ADD_EXPENSE);
             rightButtonPanel.add(addExpenseButton);
@@ -293,17 +333,37 @@ public class BudgetDetailView extends JPanel {
 
         // Adicionar painel de paginação
         paginationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        prevPageButton = new JButton(PREVIOUS);
+        nextPageButton = new JButton(NEXT);
+        pageLabel = new JLabel();
+        paginationPanel.add(prevPageButton);
+        paginationPanel.add(pageLabel);
+        paginationPanel.add(nextPageButton);
+        paginationPanel.setVisible(false);
         bottomPanel.add(paginationPanel, BorderLayout.CENTER);
 
         add(bottomPanel, BorderLayout.SOUTH);
     }
 
+    @Value
+    private static class ExpensePage {
+        ExpenseCursor start;
+        List<Expense> expenses;
+        long total;
+    }
+
+    private ExpenseCursor pageStart;
     private int currentPage = 0;
+    private long totalExpenses;
     private static final int PAGE_SIZE = 20;
     private JPanel paginationPanel;
+    private JLabel pageLabel;
+    private JButton prevPageButton, nextPageButton;
     private JTable expensesTable;
+    private LoadingLayerUI expensesLayer;
     private JCheckBox favoriteCheckBox;
     JLabel nameLabel, descriptionLabel, createdByLabel;
+    private JButton statisticsButton, splitSimulationButton;
     private JButton auditButton, backButton, participantsButton, editButton, shareButton, addExpenseButton, importButton;
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
@@ -327,5 +387,8 @@ public class BudgetDetailView extends JPanel {
             STATISTICS = localeManager.getTranslation("statistics"),
             SPLIT_SIMULATION = localeManager.getTranslation("split_simulation"),
             ADD_EXPENSE = localeManager.getTranslation("add_expense"),
+            PREVIOUS = localeManager.getTranslation("previous"),
+            NEXT = localeManager.getTranslation("next"),
+            PAGE = localeManager.getTranslation("page"),
             THERE_IS_ON_GOING_IMPORT = localeManager.getTranslation("there_is_ongoing_import");
 }
\ No newline at end of file
@@ -35,16 +35,17 @@ public class ExpenseDetailView extends JPanel {
         this.mainFrame = mainFrame;
         this.expenseService = mainFrame.getContext().getBean(ExpenseService.class);
         this.budgetAccessService = mainFrame.getContext().getBean(BudgetAccessService.class);
-        this.expense = expense;
+        // List rows are loaded without the editor and the budget's creator, the detail plan has both
+        this.expense = expense.getId() != null ? expenseService.getById(expense.getId()).orElse(expense) : expense;
         this.expenseDivisions = mainFrame.getContext().getBean(ExpenseDivisionService.class).getAllByExpenseId(expense.getId());
         this.returnScreen = returnScreen;
         this.onBack = onBack;
 
         initComponents();
-        if (expense.getBudget() != null) {
+        if (this.expense.getBudget() != null) {
             distributeDivisions();
         }
-        setValues(expense);
+        setValues(this.expense);
         setListeners();
     }
 
@@ -280,15 +281,11 @@ public class ExpenseDetailView extends JPanel {
 
         if (expense.getBudget() != null) {
             User currentUser = UserSession.getInstance().getUser();
-            BudgetAccess currentUserAccess = budgetAccessService.getAllByBudgetId(expense.getBudget().getId())
-                    .stream()
-                    .filter(access -> access.getUser().getId().equals(currentUser.getId()))
-                    .findFirst()
-                    .orElse(null);
+            BudgetAccessLevel currentUserAccessLevel = budgetAccessService.getAccessLevel(expense.getBudget().getId(), currentUser.getId()).orElse(null);
             distributeDivisionExpenseButton = new JButton(DISTRIBUTE_DIVISIONS);
             distributeDivisionExpenseButton = new JButton(DISTRIBUTE_DIVISIONS);
             rightButtonPanel.add(distributeDivisionExpenseButton);
-            if (currentUserAccess != null && currentUserAccess.getAccessLevel() == BudgetAccessLevel.VIEWER) {
+            if (currentUserAccessLevel == BudgetAccessLevel.VIEWER) {
                 editButton.setVisible(false);
                 deleteButton.setVisible(false);
                 distributeDivisionExpenseButton.setVisible(false);
@@ -1,11 +1,13 @@
 package com.ptda.tracker.ui.user.views;
 
+import com.ptda.tracker.dtos.SettlementDto;
 import com.ptda.tracker.models.tracker.*;
 import com.ptda.tracker.models.user.User;
 import com.ptda.tracker.services.tracker.BudgetSplitService;
 import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.services.tracker.BudgetAccessService;
 import com.ptda.tracker.services.tracker.ExpenseDivisionService;
+import com.ptda.tracker.services.tracker.SettlementService;
 import com.ptda.tracker.ui.MainFrame;
 import com.ptda.tracker.util.LocaleManager;
 import com.ptda.tracker.util.ScreenNames;
@@ -24,6 +26,7 @@ public class SimulationView extends JPanel {
     private final BudgetAccessService budgetAccessService;
     private final ExpenseDivisionService expenseDivisionService;
     private final BudgetSplitService budgetSplitService;
+    private final SettlementService settlementService;
 
     public SimulationView(MainFrame mainFrame, Budget budget) {
         this.mainFrame = mainFrame;
@@ -32,6 +35,7 @@ public class SimulationView extends JPanel {
         this.budgetAccessService = mainFrame.getContext().getBean(BudgetAccessService.class);
         this.expenseDivisionService = mainFrame.getContext().getBean(ExpenseDivisionService.class);
         this.budgetSplitService = mainFrame.getContext().getBean(BudgetSplitService.class);
+        this.settlementService = mainFrame.getContext().getBean(SettlementService.class);
 
         initComponents();
         populateRankingsTable();
@@ -40,19 +44,22 @@ public class SimulationView extends JPanel {
 
     private void setListeners() {
         backButton.addActionListener(e -> {
-            if (getCurrentPanelName().equals(EXPENSES)) {
+            if (getCurrentPanelName().equals(EXPENSES) || getCurrentPanelName().equals(SETTLEMENT)) {
                 cardLayout.show(mainPanel, RANKINGS);
+                settlementButton.setVisible(true);
             } else {
                 mainFrame.showScreen(ScreenNames.BUDGET_DETAIL_VIEW);
             }
         });
+        settlementButton.addActionListener(e -> {
+            populateSettlementTable();
+            cardLayout.show(mainPanel, SETTLEMENT);
+            settlementButton.setVisible(false);
+        });
     }
 
     private void populateRankingsTable() {
         List<BudgetSplit> budgetSplits = budgetSplitService.getAllByBudgetId(budget.getId());
-        if (budgetSplits.isEmpty() || budgetSplits.get(0).getCreatedAt() <= budget.getUpdatedAt()) {
-            budgetSplits = budgetSplitService.split(budget.getId());
-        }
         rankingTableModel.setRowCount(0); // Clear existing rows
 
         for (BudgetSplit budgetSplit : budgetSplits) {
@@ -70,6 +77,19 @@ public class SimulationView extends JPanel {
         }
     }
 
+    private void populateSettlementTable() {
+        List<SettlementDto> settlements = settlementService.getSettlementsByBudgetId(budget.getId());
+        settlementTableModel.setRowCount(0); // Clear existing rows
+
+        for (SettlementDto settlement : settlements) {
+            settlementTableModel.addRow(new Object[]{
+                    settlement.getFrom().getName(),
+                    settlement.getTo().getName(),
+                    settlement.getAmount()
+            });
+        }
+    }
+
     private User getUserByName(String name) {
         List<Expense> expenses = expenseService.getAllByBudgetId(budget.getId());
         for (Expense expense : expenses) {
@@ -96,12 +116,15 @@ public class SimulationView extends JPanel {
 
         mainPanel.add(createRankingsPanel(), RANKINGS);
         mainPanel.add(new ExpenseDetailsView(expenseService, expenseDivisionService, budgetAccessService, budget.getId()), EXPENSES);
+        mainPanel.add(createSettlementPanel(), SETTLEMENT);
 
         add(mainPanel, BorderLayout.CENTER);
 
         JPanel footerPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         backButton = new JButton(BACK);
         footerPanel.add(backButton);
+        settlementButton = new JButton(SETTLE_UP);
+        footerPanel.add(settlementButton);
         add(footerPanel, BorderLayout.SOUTH);
     }
 
@@ -112,6 +135,8 @@ public class SimulationView extends JPanel {
                     return RANKINGS;
                 } else if (comp == mainPanel.getComponent(1)) {
                     return EXPENSES;
+                } else if (comp == mainPanel.getComponent(2)) {
+                    return SETTLEMENT;
                 }
             }
         }
@@ -147,11 +172,29 @@ public class SimulationView extends JPanel {
         return panel;
     }
 
+    private JPanel createSettlementPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        JLabel settlementTitle = new JLabel(SETTLEMENT_PLAN, SwingConstants.LEFT);
+        settlementTitle.setFont(new Font("Arial", Font.BOLD, 16));
+        panel.add(settlementTitle, BorderLayout.NORTH);
+
+        settlementTableModel = new DefaultTableModel(new String[]{FROM, TO, AMOUNT}, 0);
+        JTable settlementTable = new JTable(settlementTableModel);
+        settlementTable.setFillsViewportHeight(true);
+        settlementTable.setDefaultEditor(Object.class, null);
+
+        panel.add(new JScrollPane(settlementTable), BorderLayout.CENTER);
+        return panel;
+    }
+
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private JTable rankingTable;
     private DefaultTableModel rankingTableModel;
-    private JButton backButton;
+    private DefaultTableModel settlementTableModel;
+    private JButton backButton, settlementButton;
 
     private static final LocaleManager localeManager = LocaleManager.getInstance();
     private static final String
@@ -163,5 +206,11 @@ public class SimulationView extends JPanel {
             BALANCE = localeManager.getTranslation("balance"),
             SPLIT_SIMULATION = localeManager.getTranslation("split_simulation"),
             BACK = localeManager.getTranslation("back"),
-            ALL_USERS_TOTAL_EXPENSES = localeManager.getTranslation("all_users_total_expenses");
+            ALL_USERS_TOTAL_EXPENSES = localeManager.getTranslation("all_users_total_expenses"),
+            SETTLEMENT = localeManager.getTranslation("settlement"),
+            SETTLEMENT_PLAN = localeManager.getTranslation("settlement_plan"),
+            SETTLE_UP = localeManager.getTranslation("settle_up"),
+            FROM = localeManager.getTranslation("from"),
+            TO = localeManager.getTranslation("to"),
+            AMOUNT = localeManager.getTranslation("amount");
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.ptda.tracker.util;
+
+import com.ptda.tracker.dtos.ImportRowError;
+import com.ptda.tracker.models.tracker.Expense;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of converting one chunk of rows, filled by a single thread and merged into the {@link ExpenseImportReport}.
+ */
+@Getter
+class ConvertedRows {
+    private final List<Expense> expenses;
+    private final List<ImportRowError> errors = new ArrayList<>();
+    private int filtered;
+
+    ConvertedRows(int capacity) {
+        expenses = new ArrayList<>(capacity);
+    }
+
+    void accept(Expense expense) {
+        expenses.add(expense);
+    }
+
+    void filter() {
+        filtered++;
+    }
+
+    void reject(long row, int column, String field, String[] cells, String reason) {
+        errors.add(new ImportRowError(row, column, field, column < cells.length ? cells[column] : null, reason, cells));
+    }
+}
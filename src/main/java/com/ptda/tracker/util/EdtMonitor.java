@@ -0,0 +1,98 @@
+package com.ptda.tracker.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how long the Event Dispatch Thread is blocked by posting a heartbeat to it at a fixed rate.
+ * The delay between posting a heartbeat and the EDT running it is the time the EDT was busy with other work.
+ */
+public class EdtMonitor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EdtMonitor.class);
+    private static final long HEARTBEAT_MILLIS = 100;
+    private static final long STALL_MILLIS = 250;
+
+    private static EdtMonitor instance;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicLong totalBlockedMillis = new AtomicLong();
+    private final AtomicLong maxBlockedMillis = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    private EdtMonitor() {
+    }
+
+    public static EdtMonitor getInstance() {
+        if (instance == null) {
+            synchronized (EdtMonitor.class) {
+                if (instance == null) {
+                    instance = new EdtMonitor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "edt-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::postHeartbeat, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void postHeartbeat() {
+        // Only one heartbeat waits on the EDT at a time, a long stall is then measured once
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            pending.set(false);
+            record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted));
+        });
+    }
+
+    private void record(long blockedMillis) {
+        if (blockedMillis < STALL_MILLIS) {
+            return;
+        }
+        stalls.incrementAndGet();
+        totalBlockedMillis.addAndGet(blockedMillis);
+        maxBlockedMillis.accumulateAndGet(blockedMillis, Math::max);
+        LOGGER.warn("EDT was blocked for {} ms", blockedMillis);
+    }
+
+    /**
+     * Number of times the EDT was blocked for longer than {@value #STALL_MILLIS} ms.
+     */
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    public long getTotalBlockedMillis() {
+        return totalBlockedMillis.get();
+    }
+
+    public long getMaxBlockedMillis() {
+        return maxBlockedMillis.get();
+    }
+}
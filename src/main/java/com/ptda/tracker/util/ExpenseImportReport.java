@@ -0,0 +1,130 @@
+package com.ptda.tracker.util;
+
+import com.ptda.tracker.dtos.ImportRowError;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classifies the rows of an import: accepted as expenses, filtered out by the value treatment, or rejected because a
+ * field could not be read. Accepted rows that match existing expenses are also counted as duplicates.
+ * <p>
+ * Every row is counted, but only the first {@value #MAX_KEPT_ERRORS} rejected rows are kept in memory for display.
+ * All rejected rows are written in row order to an error file with the source's columns followed by the row number,
+ * field and reason, in the source's CSV format. With the same column mapping, the corrected error file can be imported
+ * on its own.
+ * <p>
+ * A report is not thread-safe. Parallel conversions fill one {@link ConvertedRows} per chunk and add them in row order.
+ */
+@Getter
+public class ExpenseImportReport implements Closeable {
+    private static final int MAX_KEPT_ERRORS = 100;
+    private static final String[] ERROR_COLUMNS = {"row", "field", "reason"};
+
+    private int accepted;
+    private int filtered;
+    private int rejected;
+    private int duplicates;
+    private final List<ImportRowError> errors = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private String[] header;
+    @Getter(AccessLevel.NONE)
+    private CSVFormat format = CSVFormat.DEFAULT;
+    private File errorFile;
+    @Getter(AccessLevel.NONE)
+    private CSVPrinter errorPrinter;
+
+    void setHeader(String[] header) {
+        this.header = header;
+    }
+
+    /**
+     * Sets the format of the source, used for the error file. Must be set before the first rejected row is added.
+     */
+    void setFormat(CSVFormat format) {
+        this.format = format;
+    }
+
+    void add(ConvertedRows rows) throws IOException {
+        accepted += rows.getExpenses().size();
+        filtered += rows.getFiltered();
+        rejected += rows.getErrors().size();
+        for (ImportRowError error : rows.getErrors()) {
+            if (errors.size() < MAX_KEPT_ERRORS) {
+                errors.add(error);
+            }
+            writeError(error);
+        }
+    }
+
+    private void writeError(ImportRowError error) throws IOException {
+        if (errorFile == null) {
+            errorFile = Files.createTempFile("expense-import-errors", ".csv").toFile();
+            errorFile.deleteOnExit();
+            errorPrinter = format.print(errorFile, ExpensesConverter.SOURCE_CHARSET);
+            if (header != null) {
+                errorPrinter.printRecord(withErrorColumns(header, ERROR_COLUMNS));
+            }
+        }
+        String[] details = {String.valueOf(error.getRow()), error.getField(), error.getReason()};
+        errorPrinter.printRecord(withErrorColumns(error.getCells(), details));
+    }
+
+    /**
+     * Returns the record as an {@code Object[]}, so it is passed to {@code printRecord} as its values and not as one value.
+     */
+    private Object[] withErrorColumns(String[] cells, String[] details) {
+        // Pad short rows so the error columns always follow the source's columns
+        int width = Math.max(cells.length, header != null ? header.length : 0);
+        Object[] record = Arrays.copyOf(cells, width + details.length, Object[].class);
+        Arrays.fill(record, cells.length, width, "");
+        System.arraycopy(details, 0, record, width, details.length);
+        return record;
+    }
+
+    public void addDuplicates(int count) {
+        duplicates += count;
+    }
+
+    /**
+     * Accepted rows that were not skipped as duplicates.
+     */
+    public int getImported() {
+        return accepted - duplicates;
+    }
+
+    public int getRowsRead() {
+        return accepted + filtered + rejected;
+    }
+
+    /**
+     * Copies the rejected rows to the given file.
+     */
+    public void saveErrors(File target) throws IOException {
+        if (errorFile == null) {
+            return;
+        }
+        if (errorPrinter != null) {
+            errorPrinter.flush();
+        }
+        Files.copy(errorFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (errorPrinter != null) {
+            errorPrinter.close();
+            errorPrinter = null;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.ptda.tracker.util;
+
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts raw import rows into expenses using a column plan that is resolved once per import.
+ * <p>
+ * Compiling the mapper looks up the mapped columns, the date pattern and the category mapping, so converting a row is
+ * a loop over an array of typed setters. A mapper holds no per-row state and is shared by the threads of a parallel
+ * conversion.
+ */
+final class ExpenseRowMapper {
+    private static final String AMOUNT = "AMOUNT";
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final int amountColumn;
+    private final int dateColumn;
+    private final DateParser dateParser;
+    private final String valueTreatment;
+    private final int[] columns;
+    private final String[] fields;
+    private final FieldSetter[] setters;
+
+    private ExpenseRowMapper(int amountColumn, int dateColumn, DateParser dateParser, String valueTreatment,
+                             int[] columns, String[] fields, FieldSetter[] setters) {
+        this.amountColumn = amountColumn;
+        this.dateColumn = dateColumn;
+        this.dateParser = dateParser;
+        this.valueTreatment = valueTreatment;
+        this.columns = columns;
+        this.fields = fields;
+        this.setters = setters;
+    }
+
+    static ExpenseRowMapper compile(ExpensesImportSharedData sharedData) {
+        Map<String, ExpenseCategory> categoryMapping = new HashMap<>(sharedData.getCategoryMapping());
+        List<Integer> columns = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        List<FieldSetter> setters = new ArrayList<>();
+        int amountColumn = -1;
+        int dateColumn = -1;
+        DateParser dateParser = dateParser(sharedData.getDateFormat());
+
+        for (Map.Entry<String, Integer> entry : sharedData.getColumnMapping().entrySet()) {
+            FieldSetter setter = switch (entry.getKey()) {
+                case AMOUNT -> {
+                    // Parsed ahead of the other fields, the value treatment needs it to decide whether to keep the row
+                    amountColumn = entry.getValue();
+                    yield null;
+                }
+                case "DATE" -> {
+                    dateColumn = entry.getValue();
+                    yield (expense, value) -> expense.setDate(dateParser.parse(value));
+                }
+                case "CATEGORY" -> (expense, value) -> {
+                    ExpenseCategory category = value == null || value.trim().isEmpty() ? null : categoryMapping.get(value);
+                    expense.setCategory(category != null ? category : ExpenseCategory.OTHER);
+                };
+                case "TITLE" -> Expense::setTitle;
+                case "DESCRIPTION" -> Expense::setDescription;
+                default -> null;
+            };
+            if (setter != null) {
+                columns.add(entry.getValue());
+                fields.add(entry.getKey());
+                setters.add(setter);
+            }
+        }
+
+        return new ExpenseRowMapper(
+                amountColumn,
+                dateColumn,
+                dateParser,
+                sharedData.getValueTreatment(),
+                columns.stream().mapToInt(Integer::intValue).toArray(),
+                fields.toArray(new String[0]),
+                setters.toArray(new FieldSetter[0])
+        );
+    }
+
+    /**
+     * Converts a row into an expense, or records why it was filtered out or rejected.
+     *
+     * @param rowNumber 1-based position of the row in the source, as shown in the report
+     */
+    void map(String[] row, long rowNumber, ConvertedRows out) {
+        double amount = 0;
+        if (amountColumn >= 0) {
+            if (amountColumn >= row.length) {
+                out.reject(rowNumber, amountColumn, AMOUNT, row, "Missing column");
+                return;
+            }
+            try {
+                amount = parseDecimal(row[amountColumn]);
+            } catch (NumberFormatException e) {
+                out.reject(rowNumber, amountColumn, AMOUNT, row, "Invalid amount");
+                return;
+            }
+            if (!isIncluded(amount)) {
+                out.filter();
+                return;
+            }
+        }
+
+        Expense expense = new Expense();
+        expense.setAmount(Math.abs(amount));
+        for (int i = 0; i < setters.length; i++) {
+            int column = columns[i];
+            if (column >= row.length) {
+                out.reject(rowNumber, column, fields[i], row, "Missing column");
+                return;
+            }
+            try {
+                setters[i].set(expense, row[column]);
+            } catch (RuntimeException e) {
+                out.reject(rowNumber, column, fields[i], row, e.getMessage());
+                return;
+            }
+        }
+        out.accept(expense);
+    }
+
+    /**
+     * Reads only the date of a row.
+     *
+     * @return the date, or {@code null} when the date is not mapped, empty or cannot be read
+     */
+    Date parseDate(String[] row) {
+        if (dateColumn < 0 || dateColumn >= row.length) {
+            return null;
+        }
+        try {
+            return dateParser.parse(row[dateColumn]);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private boolean isIncluded(double amount) {
+        if (valueTreatment == null) {
+            return true;
+        }
+        return switch (valueTreatment) {
+            case "NEGATIVE_AS_EXPENSE" -> amount < 0; // Include only negative amounts
+            case "POSITIVE_AS_EXPENSE" -> amount > 0; // Include only positive amounts
+            default -> true; // ABSOLUTE_VALUE includes all values
+        };
+    }
+
+    /**
+     * Parses amounts such as {@code -1 234,56} or {@code 12.5} without allocating, accepting either a comma or a dot as
+     * the decimal separator. Anything else, such as exponents, goes through {@link Double#parseDouble}.
+     */
+    static double parseDecimal(String value) {
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean negative = false;
+        boolean signed = false;
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == MAX_FAST_DIGITS) {
+                    return parseDecimalSlow(value);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if ((c == ',' || c == '.') && scale < 0) {
+                scale = 0;
+            } else if ((c == '-' || c == '+') && !signed && digits == 0 && scale < 0) {
+                negative = c == '-';
+                signed = true;
+            } else if (c != ' ' && c != '\u00A0') {
+                return parseDecimalSlow(value);
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid amount: " + value);
+        }
+
+        // Both operands are exact doubles, so the division is correctly rounded
+        double result = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+        return negative ? -result : result;
+    }
+
+    private static double parseDecimalSlow(String value) {
+        return Double.parseDouble(value.replace(" ", "").replace(",", "."));
+    }
+
+    /**
+     * Parses dates the way {@code SimpleDateFormat} did before: month and day names ignore case, text after the date is
+     * ignored, out of range fields roll over, and a missing year, month or day defaults to 1970, January and the 1st.
+     */
+    static DateParser dateParser(String pattern) {
+        if (pattern == null) {
+            return value -> null;
+        }
+        DateTimeFormatter formatter;
+        try {
+            formatter = hasTwoDigitYear(pattern) ? null : new DateTimeFormatterBuilder()
+                    .parseCaseInsensitive()
+                    .parseLenient()
+                    .appendPattern(pattern)
+                    .toFormatter()
+                    .withResolverStyle(ResolverStyle.LENIENT);
+        } catch (IllegalArgumentException e) {
+            formatter = null;
+        }
+        if (formatter == null) {
+            // Patterns that only SimpleDateFormat understands are parsed with one instance per thread
+            ThreadLocal<SimpleDateFormat> format = ThreadLocal.withInitial(() -> new SimpleDateFormat(pattern));
+            return value -> {
+                if (value == null || value.trim().isEmpty()) {
+                    return null;
+                }
+                try {
+                    return format.get().parse(value.trim());
+                } catch (ParseException ex) {
+                    throw new IllegalArgumentException("Invalid date: " + value);
+                }
+            };
+        }
+        DateTimeFormatter parser = formatter;
+        return value -> {
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            try {
+                return toDate(parser.parse(value.trim(), new ParsePosition(0)));
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("Invalid date: " + value);
+            }
+        };
+    }
+
+    /**
+     * SimpleDateFormat reads two-digit years as within 80 years before and 20 years after today, java.time as 2000 to
+     * 2099, so such patterns keep using SimpleDateFormat.
+     */
+    private static boolean hasTwoDigitYear(String pattern) {
+        boolean quoted = false;
+        int letters = 0;
+        for (int i = 0; i <= pattern.length(); i++) {
+            char c = i < pattern.length() ? pattern.charAt(i) : '\0';
+            if (c == 'y' && !quoted) {
+                letters++;
+                continue;
+            }
+            if (letters == 2) {
+                return true;
+            }
+            letters = 0;
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+        }
+        return false;
+    }
+
+    private static Date toDate(TemporalAccessor parsed) {
+        // Querying the parsed fields avoids the exception parseBest throws for every date without a time
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        if (date == null) {
+            date = LocalDate.of(field(parsed, ChronoField.YEAR, 1970), 1, 1)
+                    .plusMonths(field(parsed, ChronoField.MONTH_OF_YEAR, 1) - 1)
+                    .plusDays(field(parsed, ChronoField.DAY_OF_MONTH, 1) - 1);
+        }
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        LocalDateTime dateTime = time != null ? date.atTime(time) : date.atStartOfDay();
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static int field(TemporalAccessor parsed, ChronoField field, int missing) {
+        return parsed.isSupported(field) ? Math.toIntExact(parsed.getLong(field)) : missing;
+    }
+
+    @FunctionalInterface
+    private interface FieldSetter {
+        void set(Expense expense, String value);
+    }
+
+    @FunctionalInterface
+    interface DateParser {
+        Date parse(String value);
+    }
+}
@@ -1,114 +1,233 @@
 package com.ptda.tracker.util;
 
 import com.ptda.tracker.models.tracker.Expense;
-import com.ptda.tracker.models.tracker.ExpenseCategory;
-
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import lombok.Value;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 public class ExpensesConverter {
-    public static List<Expense> transformImportData(ExpensesImportSharedData sharedData) {
-        List<Expense> expenses = new ArrayList<>();
-
-        // Retrieve all relevant data from ExpensesImportSharedData
+    /**
+     * Encoding of the files rows are imported from, independent of the platform the client runs on.
+     */
+    public static final Charset SOURCE_CHARSET = StandardCharsets.UTF_8;
+    private static final int CHUNK_SIZE = 4096;
+
+    public static List<Expense> transformImportData(ExpensesImportSharedData sharedData,
+                                                    ExpenseImportReport report) throws IOException {
         List<String[]> rawData = sharedData.getRawData();
-        Map<String, Integer> columnMapping = sharedData.getColumnMapping();
-        Map<String, ExpenseCategory> categoryMapping = sharedData.getCategoryMapping();
-        String dateFormat = sharedData.getDateFormat();
-        boolean hasHeader = sharedData.isHasHeader();
-        String valueTreatment = sharedData.getValueTreatment();
+        int startIndex = sharedData.isHasHeader() ? 1 : 0; // Skip the header row if present
+        report.setFormat(format(sharedData.getDelimiter()));
+        if (sharedData.isHasHeader()) {
+            report.setHeader(rawData.getFirst());
+        }
+        return convert(ExpenseRowMapper.compile(sharedData), rawData.subList(startIndex, rawData.size()), startIndex + 1, report);
+    }
 
-        SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
+    /**
+     * Converts the rows of the source file and passes them to the sink in batches of at most {@code batchSize} expenses.
+     * The file is read record by record, so only the batch being built is kept in memory.
+     *
+     * @return the number of expenses passed to the sink
+     */
+    public static int streamImportData(ExpensesImportSharedData sharedData, int batchSize, ExpenseImportReport report,
+                                       Consumer<List<Expense>> sink) throws IOException {
+        ExpenseRowMapper mapper = ExpenseRowMapper.compile(sharedData);
+        List<String[]> rows = new ArrayList<>(batchSize);
+        long firstRowNumber = 0;
+        int imported = 0;
+        report.setFormat(format(sharedData.getDelimiter()));
+        try (CSVParser parser = openSource(sharedData.getSourceFile(), sharedData.getDelimiter())) {
+            for (CSVRecord record : parser) {
+                if (record.getRecordNumber() == 1 && sharedData.isHasHeader()) {
+                    report.setHeader(toRow(record));
+                    continue;
+                }
+                if (rows.isEmpty()) {
+                    firstRowNumber = record.getRecordNumber();
+                }
+                rows.add(toRow(record));
+                if (rows.size() == batchSize) {
+                    imported += flush(mapper, rows, firstRowNumber, report, sink);
+                    rows = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        return imported + flush(mapper, rows, firstRowNumber, report, sink);
+    }
 
-        int startIndex = hasHeader ? 1 : 0; // Skip the header row if present
+    private static int flush(ExpenseRowMapper mapper, List<String[]> rows, long firstRowNumber,
+                             ExpenseImportReport report, Consumer<List<Expense>> sink) throws IOException {
+        List<Expense> batch = convert(mapper, rows, firstRowNumber, report);
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+        return batch.size();
+    }
 
-        for (int i = startIndex; i < rawData.size(); i++) {
-            String[] row = rawData.get(i);
+    /**
+     * Converts the rows in chunks on the common fork/join pool. The expenses and the report entries keep the order of
+     * the rows.
+     *
+     * @param firstRowNumber position of the first row in the source, used to number the rows in the report
+     * @throws IOException when a rejected row cannot be written to the report's error file
+     */
+    private static List<Expense> convert(ExpenseRowMapper mapper, List<String[]> rows, long firstRowNumber,
+                                         ExpenseImportReport report) throws IOException {
+        int chunks = (rows.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        List<ConvertedRows> converted = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    int from = chunk * CHUNK_SIZE;
+                    int to = Math.min(rows.size(), from + CHUNK_SIZE);
+                    ConvertedRows out = new ConvertedRows(to - from);
+                    for (int i = from; i < to; i++) {
+                        mapper.map(rows.get(i), firstRowNumber + i, out);
+                    }
+                    return out;
+                })
+                .toList();
+
+        List<Expense> expenses = new ArrayList<>(rows.size());
+        for (ConvertedRows chunk : converted) {
+            expenses.addAll(chunk.getExpenses());
+            report.add(chunk);
+        }
+        return expenses;
+    }
 
-            // Filter out rows that don't meet the inclusion criteria
-            if (!shouldIncludeRow(row, columnMapping, valueTreatment)) {
-                continue;
+    /**
+     * Finds the earliest and latest date of the data rows, reading only the date column.
+     *
+     * @return the range, or {@code null} when no row has a readable date
+     */
+    public static DateRange findDateRange(ExpensesImportSharedData sharedData) throws IOException {
+        ExpenseRowMapper mapper = ExpenseRowMapper.compile(sharedData);
+        Date[] range = new Date[2];
+        forEachDataRow(sharedData, row -> {
+            Date date = mapper.parseDate(row);
+            if (date != null) {
+                if (range[0] == null || date.before(range[0])) {
+                    range[0] = date;
+                }
+                if (range[1] == null || date.after(range[1])) {
+                    range[1] = date;
+                }
             }
+        });
+        return range[0] != null ? new DateRange(range[0], range[1]) : null;
+    }
 
-            Expense expense = new Expense();
-            for (Map.Entry<String, Integer> entry : columnMapping.entrySet()) {
-                String mappedField = entry.getKey(); // e.g., "AMOUNT", "DATE"
-                int columnIndex = entry.getValue(); // Index in raw data
+    /**
+     * Collects the distinct values of the category column, in the order they first appear.
+     *
+     * @return the categories, empty when no category column is mapped
+     */
+    public static List<String> findCategories(ExpensesImportSharedData sharedData) throws IOException {
+        Integer categoryColumn = sharedData.getColumnMapping().get("CATEGORY");
+        if (categoryColumn == null) {
+            return List.of();
+        }
+        Set<String> categories = new LinkedHashSet<>();
+        forEachDataRow(sharedData, row -> {
+            if (categoryColumn < row.length) {
+                categories.add(row[categoryColumn]);
+            }
+        });
+        return new ArrayList<>(categories);
+    }
 
-                if (columnIndex >= row.length) {
-                    System.err.println("Warning: Column index " + columnIndex + " out of bounds for row " + i);
-                    continue;
-                }
+    /**
+     * Passes every data row to the action, skipping the header row if present.
+     * Rows are read from the source file when the import is streamed and from the raw data otherwise.
+     */
+    public static void forEachDataRow(ExpensesImportSharedData sharedData, Consumer<String[]> action) throws IOException {
+        if (!sharedData.isStreaming()) {
+            sharedData.getRawData().stream()
+                    .skip(sharedData.isHasHeader() ? 1 : 0)
+                    .forEach(action);
+            return;
+        }
 
-                String cellValue = row[columnIndex];
-                try {
-                    switch (mappedField) {
-                        case "AMOUNT":
-                            String sanitizedValue = cellValue.replace(" ", "").replace(",", ".");
-                            double amount = Double.parseDouble(sanitizedValue);
-                            expense.setAmount(Math.abs(amount));
-                            break;
-                        case "DATE":
-                            if (cellValue != null && !cellValue.trim().isEmpty()) {
-                                expense.setDate(sdf.parse(cellValue));
-                            }
-                            break;
-                        case "CATEGORY":
-                            if (cellValue == null || cellValue.trim().isEmpty()) {
-                                expense.setCategory(ExpenseCategory.OTHER); // Set to OTHER if the category is empty
-                            } else {
-                                ExpenseCategory category = categoryMapping != null ? categoryMapping.get(cellValue) : null;
-                                expense.setCategory(category != null ? category : ExpenseCategory.OTHER);
-                            }
-                            break;
-                        case "TITLE":
-                            expense.setTitle(cellValue);
-                            break;
-                        case "DESCRIPTION":
-                            expense.setDescription(cellValue);
-                            break;
-                        default:
-                            System.err.println("Warning: Unhandled mapping field " + mappedField);
-                            break;
-                    }
-                } catch (ParseException e) {
-                    System.err.println("Error parsing field: " + mappedField + " with value: " + cellValue + " at row " + i);
-                } catch (NumberFormatException e) {
-                    System.err.println("Error parsing amount: " + cellValue + " at row " + i);
+        try (CSVParser parser = openSource(sharedData.getSourceFile(), sharedData.getDelimiter())) {
+            boolean skipHeader = sharedData.isHasHeader();
+            for (CSVRecord record : parser) {
+                if (skipHeader) {
+                    skipHeader = false;
+                    continue;
                 }
+                action.accept(toRow(record));
             }
+        }
+    }
 
-            expenses.add(expense);
+    /**
+     * Reads at most {@code maxLines} lines from the start of a file without parsing them.
+     */
+    public static List<String> readLines(File file, int maxLines) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, SOURCE_CHARSET))) {
+            String line;
+            while (lines.size() < maxLines && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
         }
+        return lines;
+    }
 
-        return expenses;
+    /**
+     * Reads at most {@code maxRows} rows from the start of a CSV file.
+     */
+    public static List<String[]> readRows(File file, char delimiter, int maxRows) throws IOException {
+        return readRows(new BufferedReader(new FileReader(file, SOURCE_CHARSET)), delimiter, maxRows);
     }
 
-    private static boolean shouldIncludeRow(String[] row, Map<String, Integer> columnMapping, String valueTreatment) {
-        if (columnMapping == null) {
-            return true; // Include all rows if no column mapping is set
+    /**
+     * Reads at most {@code maxRows} CSV rows from the reader and closes it.
+     */
+    public static List<String[]> readRows(Reader reader, char delimiter, int maxRows) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (CSVParser parser = format(delimiter).parse(reader)) {
+            for (CSVRecord record : parser) {
+                if (rows.size() == maxRows) {
+                    break;
+                }
+                rows.add(toRow(record));
+            }
         }
+        return rows;
+    }
 
-        Integer amountColumnIndex = columnMapping.get("AMOUNT");
-        if (amountColumnIndex == null || amountColumnIndex >= row.length) {
-            return true; // Include rows if no "AMOUNT" column is mapped
-        }
+    private static CSVParser openSource(File file, char delimiter) throws IOException {
+        return format(delimiter).parse(new BufferedReader(new FileReader(file, SOURCE_CHARSET)));
+    }
 
-        try {
-            double amount = Double.parseDouble(row[amountColumnIndex].replace(",", "."));
-
-            return switch (valueTreatment) {
-                case "NEGATIVE_AS_EXPENSE" -> amount < 0; // Include only negative amounts
-                case "POSITIVE_AS_EXPENSE" -> amount > 0; // Include only positive amounts
-                case "ABSOLUTE_VALUE" -> true; // Include all values
-                default -> true; // Default to include all rows
-            };
-        } catch (NumberFormatException e) {
-            System.err.println("Invalid amount value: " + row[amountColumnIndex]);
-            return false; // Exclude rows with invalid amounts
-        }
+    private static CSVFormat format(char delimiter) {
+        return CSVFormat.DEFAULT.builder().setDelimiter(delimiter).build();
+    }
+
+    private static String[] toRow(CSVRecord record) {
+        return record.toList().toArray(new String[0]);
+    }
+
+    @Value
+    public static class DateRange {
+        Date from;
+        Date to;
     }
 }
@@ -4,6 +4,7 @@ import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.ExpenseCategory;
 import lombok.Data;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,11 @@ public class ExpensesImportSharedData {
     private static ExpensesImportSharedData instance;
 
     private List<String[]> rawData;
+    /**
+     * File the rows are streamed from when it is too large to keep in memory; {@link #rawData} then only holds a preview.
+     */
+    private File sourceFile;
+    private char delimiter = ',';
     private Map<String, Integer> columnMapping;
     private Map<String, ExpenseCategory> categoryMapping;
     private String dateFormat;
@@ -31,6 +37,10 @@ public class ExpensesImportSharedData {
         instance = null;
     }
 
+    public boolean isStreaming() {
+        return sourceFile != null;
+    }
+
     public Map<String, ExpenseCategory> getCategoryMapping() {
         if (categoryMapping == null) {
             categoryMapping = new HashMap<>(); // Initialize as mutable map
@@ -0,0 +1,307 @@
+package com.ptda.tracker.util;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Guesses how a CSV source should be imported from a sample of its first lines: the delimiter, whether the first row
+ * holds column names, the date format, and which columns hold the amount, date, category, title and description.
+ * <p>
+ * Only the sample is parsed, so the guess costs the same for any file size. The result is a suggestion the import
+ * dialogs are pre-filled with; the user confirms or corrects it as before.
+ */
+public class ImportMappingInference {
+    public static final int SAMPLE_LINES = 100;
+
+    private static final char[] DELIMITERS = {',', ';', '\t', '|'};
+    private static final String[] DATE_FORMATS = {
+            "dd/MM/yyyy", "dd-MM-yyyy", "MM/dd/yyyy", "MM-dd-yyyy", "yyyy/MM/dd", "yyyy-MM-dd", "dd.MM.yyyy",
+            "dd/MM/yyyy HH:mm", "dd/MM/yyyy HH:mm:ss", "yyyy-MM-dd HH:mm", "yyyy-MM-dd HH:mm:ss"
+    };
+    // Share of the sampled values that must parse for a column to be taken as amounts or dates
+    private static final double MIN_TYPED = 0.8;
+    // Share of the sampled values that must be known category names for a column to be taken as categories
+    private static final double MIN_KNOWN_CATEGORIES = 0.5;
+    // Words that start the name of a column holding a field, checked in this order; "data valor" is a date, not an amount
+    private static final Map<String, List<String>> HEADER_HINTS = new LinkedHashMap<>();
+
+    static {
+        HEADER_HINTS.put("DATE", List.of("date", "data", "fecha", "dia", "day"));
+        HEADER_HINTS.put("AMOUNT", List.of("amount", "valor", "montante", "quantia", "importe", "value", "total", "debit", "price", "preco"));
+        HEADER_HINTS.put("CATEGORY", List.of("category", "categoria"));
+        HEADER_HINTS.put("DESCRIPTION", List.of("description", "descricao", "detail", "detalhe", "memo", "note", "nota", "observ"));
+        HEADER_HINTS.put("TITLE", List.of("title", "titulo", "name", "nome", "merchant", "payee", "descritivo", "movimento", "concept", "conceito"));
+    }
+
+    /**
+     * @param lines           the first lines of the source, at most {@link #SAMPLE_LINES} are read
+     * @param knownCategories category names the user mapped before, used to spot the category column
+     */
+    public static Result infer(List<String> lines, Set<String> knownCategories) {
+        List<String> sample = lines.subList(0, Math.min(lines.size(), SAMPLE_LINES));
+        char delimiter = detectDelimiter(sample);
+        List<String[]> rows = parse(sample, delimiter);
+        if (rows.isEmpty()) {
+            return new Result(delimiter, true, null, Map.of());
+        }
+
+        String[] firstRow = rows.getFirst();
+        List<String[]> body = rows.size() > 1 ? rows.subList(1, rows.size()) : rows;
+        ColumnProfile[] profiles = new ColumnProfile[firstRow.length];
+        for (int column = 0; column < profiles.length; column++) {
+            profiles[column] = ColumnProfile.of(body, column, knownCategories);
+        }
+
+        boolean hasHeader = detectHeader(firstRow, profiles);
+        Map<String, Integer> columnMapping = guessColumns(hasHeader ? firstRow : null, profiles);
+        Integer dateColumn = columnMapping.get("DATE");
+        String dateFormat = dateColumn != null ? profiles[dateColumn].dateFormat : null;
+        return new Result(delimiter, hasHeader, dateFormat, columnMapping);
+    }
+
+    /**
+     * Picks the delimiter that splits the most sampled lines into the same number of fields, preferring more fields.
+     */
+    static char detectDelimiter(List<String> lines) {
+        char best = DELIMITERS[0];
+        int bestConsistent = 0;
+        int bestWidth = 1;
+        for (char delimiter : DELIMITERS) {
+            Map<Integer, Integer> widths = new HashMap<>();
+            try {
+                for (String[] row : parse(lines, delimiter)) {
+                    widths.merge(row.length, 1, Integer::sum);
+                }
+            } catch (UncheckedIOException e) {
+                continue; // Unbalanced quotes for this delimiter
+            }
+            for (Map.Entry<Integer, Integer> width : widths.entrySet()) {
+                int consistent = width.getValue();
+                if (width.getKey() > 1 && (consistent > bestConsistent
+                        || consistent == bestConsistent && width.getKey() > bestWidth)) {
+                    best = delimiter;
+                    bestConsistent = consistent;
+                    bestWidth = width.getKey();
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The first row is a header when its cells are text in the columns whose other values are amounts or dates, or,
+     * when no column is typed, when it names a known field.
+     */
+    private static boolean detectHeader(String[] firstRow, ColumnProfile[] profiles) {
+        int textCells = 0;
+        int typedCells = 0;
+        for (int column = 0; column < profiles.length; column++) {
+            ColumnProfile profile = profiles[column];
+            if (profile.isNumeric()) {
+                if (isNumber(firstRow[column])) typedCells++; else textCells++;
+            } else if (profile.isDate()) {
+                if (isDate(profile.dateFormat, firstRow[column])) typedCells++; else textCells++;
+            }
+        }
+        if (textCells > 0 || typedCells > 0) {
+            return textCells >= typedCells;
+        }
+        return Arrays.stream(firstRow).anyMatch(cell -> hintedField(cell) != null);
+    }
+
+    private static Map<String, Integer> guessColumns(String[] header, ColumnProfile[] profiles) {
+        Map<String, Integer> mapping = new HashMap<>();
+        if (header != null) {
+            for (int column = 0; column < header.length; column++) {
+                String field = hintedField(header[column]);
+                boolean fits = field != null && switch (field) {
+                    case "DATE" -> profiles[column].isDate();
+                    case "AMOUNT" -> profiles[column].isNumeric();
+                    default -> true;
+                };
+                if (fits && !mapping.containsKey(field)) {
+                    mapping.put(field, column);
+                }
+            }
+        }
+
+        if (!mapping.containsKey("DATE")) {
+            bestColumn(profiles, mapping.values(), profile -> profile.isDate() ? profile.ratio(profile.dates) : -1)
+                    .ifPresent(column -> mapping.put("DATE", column));
+        }
+        if (!mapping.containsKey("AMOUNT")) {
+            // Amounts usually have decimals, which tells them apart from ids and quantities
+            bestColumn(profiles, mapping.values(), profile -> profile.isNumeric()
+                    ? profile.ratio(profile.numbers) + profile.ratio(profile.decimals) : -1)
+                    .ifPresent(column -> mapping.put("AMOUNT", column));
+        }
+        if (!mapping.containsKey("CATEGORY")) {
+            bestColumn(profiles, mapping.values(), profile -> profile.ratio(profile.knownCategories) >= MIN_KNOWN_CATEGORIES
+                    ? profile.ratio(profile.knownCategories) : -1)
+                    .ifPresent(column -> mapping.put("CATEGORY", column));
+        }
+        if (!mapping.containsKey("TITLE")) {
+            // The most varied text column, such as the transaction description of a bank statement
+            bestColumn(profiles, mapping.values(), profile -> profile.isText() ? profile.distinct + profile.averageLength() / 1000 : -1)
+                    .ifPresent(column -> mapping.put("TITLE", column));
+        }
+        if (!mapping.containsKey("TITLE") && mapping.containsKey("DESCRIPTION")) {
+            // Expenses need a title more than a description when the source has a single text column
+            mapping.put("TITLE", mapping.remove("DESCRIPTION"));
+        }
+        return mapping;
+    }
+
+    private static Optional<Integer> bestColumn(ColumnProfile[] profiles, Collection<Integer> used,
+                                                ToDoubleFunction<ColumnProfile> score) {
+        Integer best = null;
+        double bestScore = 0;
+        for (int column = 0; column < profiles.length; column++) {
+            double columnScore = score.applyAsDouble(profiles[column]);
+            if (!used.contains(column) && columnScore > bestScore) {
+                best = column;
+                bestScore = columnScore;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static String hintedField(String columnName) {
+        String[] words = normalize(columnName).split("[^a-z]+");
+        for (Map.Entry<String, List<String>> hint : HEADER_HINTS.entrySet()) {
+            for (String keyword : hint.getValue()) {
+                for (String word : words) {
+                    if (word.startsWith(keyword)) {
+                        return hint.getKey();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        return Normalizer.normalize(value.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String[]> parse(List<String> lines, char delimiter) {
+        try {
+            return ExpensesConverter.readRows(new StringReader(String.join("\n", lines)), delimiter, lines.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isNumber(String value) {
+        try {
+            ExpenseRowMapper.parseDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDate(String pattern, String value) {
+        try {
+            return ExpenseRowMapper.dateParser(pattern).parse(value) != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * What the sampled values of one column look like.
+     */
+    private static class ColumnProfile {
+        int values;
+        int numbers;
+        int decimals;
+        int dates;
+        int knownCategories;
+        int distinct;
+        long totalLength;
+        String dateFormat;
+
+        static ColumnProfile of(List<String[]> rows, int column, Set<String> knownCategories) {
+            ColumnProfile profile = new ColumnProfile();
+            List<String> values = new ArrayList<>();
+            for (String[] row : rows) {
+                String value = column < row.length ? row[column].trim() : "";
+                if (!value.isEmpty()) {
+                    values.add(value);
+                }
+            }
+            profile.values = values.size();
+            profile.distinct = new HashSet<>(values).size();
+            for (String value : values) {
+                profile.totalLength += value.length();
+                if (isNumber(value)) {
+                    profile.numbers++;
+                    if (value.indexOf('.') >= 0 || value.indexOf(',') >= 0) {
+                        profile.decimals++;
+                    }
+                }
+                if (knownCategories.contains(value)) {
+                    profile.knownCategories++;
+                }
+            }
+
+            // Formats are tried in the order the date dialog lists them, so day-first wins when both fit
+            if (profile.numbers < profile.values && values.stream().anyMatch(value -> value.chars().anyMatch(Character::isDigit))) {
+                for (String pattern : DATE_FORMATS) {
+                    ExpenseRowMapper.DateParser parser = ExpenseRowMapper.dateParser(pattern);
+                    int parsed = 0;
+                    for (String value : values) {
+                        try {
+                            parser.parse(value);
+                            parsed++;
+                        } catch (RuntimeException e) {
+                            // Not a date in this format
+                        }
+                    }
+                    if (parsed > profile.dates) {
+                        profile.dates = parsed;
+                        profile.dateFormat = pattern;
+                    }
+                }
+            }
+            return profile;
+        }
+
+        double ratio(int count) {
+            return values == 0 ? 0 : (double) count / values;
+        }
+
+        double averageLength() {
+            return values == 0 ? 0 : (double) totalLength / values;
+        }
+
+        boolean isNumeric() {
+            return ratio(numbers) >= MIN_TYPED;
+        }
+
+        boolean isDate() {
+            return ratio(dates) >= MIN_TYPED;
+        }
+
+        boolean isText() {
+            return values > 0 && !isNumeric() && !isDate();
+        }
+    }
+
+    @Value
+    public static class Result {
+        char delimiter;
+        boolean hasHeader;
+        String dateFormat;
+        Map<String, Integer> columnMapping;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ptda.tracker.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Runs blocking work such as service calls on virtual threads and hands the result back on the Event Dispatch Thread.
+ * <p>
+ * Tasks are submitted under a key, usually the screen that shows the result. Submitting a new task under the same key
+ * makes the previous one stale: it is cancelled if it has not started, and its result is dropped if it has.
+ * Running queries are not interrupted, so database connections are never torn down mid-statement.
+ */
+public class UiTaskExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UiTaskExecutor.class);
+
+    private static UiTaskExecutor instance;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Object, Future<?>> latest = new ConcurrentHashMap<>();
+
+    private UiTaskExecutor() {
+    }
+
+    public static UiTaskExecutor getInstance() {
+        if (instance == null) {
+            synchronized (UiTaskExecutor.class) {
+                if (instance == null) {
+                    instance = new UiTaskExecutor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public <T> Future<T> submit(Object key, Callable<T> task, Consumer<T> onSuccess) {
+        return submit(key, task, onSuccess, UiTaskExecutor::showError);
+    }
+
+    /**
+     * Runs the task in the background and passes its result, or the exception it threw, to the callbacks on the EDT.
+     * The callbacks are not called when the task became stale before it finished.
+     */
+    public <T> Future<T> submit(Object key, Callable<T> task, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        FutureTask<T> future = new FutureTask<>(task) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                SwingUtilities.invokeLater(() -> {
+                    if (!latest.remove(key, this)) {
+                        return;
+                    }
+                    T result;
+                    try {
+                        result = get();
+                    } catch (ExecutionException e) {
+                        onError.accept(e.getCause());
+                        return;
+                    } catch (InterruptedException | CancellationException e) {
+                        return;
+                    }
+                    onSuccess.accept(result);
+                });
+            }
+        };
+
+        Future<?> previous = latest.put(key, future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        executor.execute(future);
+        return future;
+    }
+
+    /**
+     * Makes the task running under the key stale, for example when the screen waiting for it is closed.
+     */
+    public void cancel(Object key) {
+        Future<?> previous = latest.remove(key);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    public static void showError(Throwable error) {
+        LOGGER.error("Background task failed", error);
+        JOptionPane.showMessageDialog(null, ERROR_LOADING_DATA + ": " + error.getMessage(), ERROR, JOptionPane.ERROR_MESSAGE);
+    }
+
+    private static final LocaleManager localeManager = LocaleManager.getInstance();
+    private static final String
+            ERROR = localeManager.getTranslation("error"),
+            ERROR_LOADING_DATA = localeManager.getTranslation("error_loading_data");
+}
@@ -1,8 +1,10 @@
 package com.ptda.tracker.repositories;
 
+import com.ptda.tracker.dtos.BudgetRowDto;
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.BudgetAccess;
 import com.ptda.tracker.models.tracker.BudgetAccessLevel;
+import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.models.user.User;
 import com.ptda.tracker.util.UserSession;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +27,7 @@ public class BudgetAccessRepositoryTest {
     private final BudgetAccessRepository budgetAccessRepository;
     private final UserRepository userRepository;
     private final BudgetRepository budgetRepository;
+    private final ExpenseRepository expenseRepository;
 
     @Test
     void testSaveAndFindByUserId() {
@@ -327,6 +330,40 @@ public class BudgetAccessRepositoryTest {
         assertThat(retrieved).isEmpty();
     }
 
+    @Test
+    void testFindBudgetRowsByUserId() {
+        User user = User.builder()
+                .name("Test User")
+                .email("rows@test.com")
+                .password("password")
+                .build();
+        userRepository.save(user);
+
+        UserSession.getInstance().setUser(user);
+
+        Budget spent = budgetRepository.save(Budget.builder().name("Spent Budget").description("Spent").build());
+        Budget empty = budgetRepository.save(Budget.builder().name("Empty Budget").build());
+        budgetAccessRepository.save(BudgetAccess.builder()
+                .accessLevel(BudgetAccessLevel.OWNER)
+                .budget(spent)
+                .user(user)
+                .isFavorite(true)
+                .build());
+        budgetAccessRepository.save(BudgetAccess.builder()
+                .accessLevel(BudgetAccessLevel.VIEWER)
+                .budget(empty)
+                .user(user)
+                .build());
+        for (double amount : new double[]{12.5, 7.5}) {
+            expenseRepository.save(Expense.builder().title("Expense").amount(amount).budget(spent).build());
+        }
+
+        List<BudgetRowDto> rows = budgetAccessRepository.findBudgetRowsByUserId(user.getId());
+        assertThat(rows).containsExactly(
+                new BudgetRowDto(spent.getId(), "Spent Budget", "Spent", spent.getUpdatedAt(), true, 20.0),
+                new BudgetRowDto(empty.getId(), "Empty Budget", null, empty.getUpdatedAt(), false, 0.0));
+    }
+
     @Test
     void TestSaveAll(){
         User user = User.builder()
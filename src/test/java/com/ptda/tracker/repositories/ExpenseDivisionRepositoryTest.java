@@ -1,5 +1,6 @@
 package com.ptda.tracker.repositories;
 
+import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.models.tracker.ExpenseDivision;
 import com.ptda.tracker.models.user.User;
@@ -22,6 +23,7 @@ public class ExpenseDivisionRepositoryTest {
     private final ExpenseDivisionRepository expenseDivisionRepository;
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final BudgetRepository budgetRepository;
 
     @Test
     void testSaveAndFindByExpenseId() {
@@ -343,5 +345,50 @@ public class ExpenseDivisionRepositoryTest {
 
     }
 
+    @Test
+    void testFindAllByBudgetId() {
+        User user = User.builder()
+                .name("Test User")
+                .email("budget@test.com")
+                .password("password")
+                .build();
+        userRepository.save(user);
+
+        UserSession.getInstance().setUser(user);
+
+        Budget budget = Budget.builder()
+                .name("Test Budget")
+                .createdBy(user)
+                .build();
+        budgetRepository.save(budget);
+
+        Expense budgetExpense = Expense.builder()
+                .description("Budget Expense")
+                .amount(100.0)
+                .budget(budget)
+                .build();
+        expenseRepository.save(budgetExpense);
+
+        Expense personalExpense = Expense.builder()
+                .description("Personal Expense")
+                .amount(100.0)
+                .build();
+        expenseRepository.save(personalExpense);
+
+        expenseDivisionRepository.save(ExpenseDivision.builder()
+                .amount(50.0)
+                .expense(budgetExpense)
+                .user(user)
+                .build());
+        expenseDivisionRepository.save(ExpenseDivision.builder()
+                .amount(50.0)
+                .expense(personalExpense)
+                .user(user)
+                .build());
+
+        List<ExpenseDivision> divisions = expenseDivisionRepository.findAllByBudgetId(budget.getId());
+        assertThat(divisions).hasSize(1);
+        assertThat(divisions.get(0).getExpense().getId()).isEqualTo(budgetExpense.getId());
+    }
 
-}
\ No newline at end of file
+}
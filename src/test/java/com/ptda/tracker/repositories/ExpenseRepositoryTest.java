@@ -1,5 +1,6 @@
 package com.ptda.tracker.repositories;
 
+import com.ptda.tracker.dtos.ExpenseRowDto;
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.models.tracker.ExpenseCategory;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -27,6 +29,8 @@ public class ExpenseRepositoryTest {
     private final UserRepository userRepository;
     @Autowired
     private BudgetRepository budgetRepository;
+    @Autowired
+    private TestEntityManager entityManager;
 
     @Test
     void testInsertExpense() {
@@ -584,7 +588,209 @@ public class ExpenseRepositoryTest {
         assertThat(retrieved).isNotPresent();
     }
 
+    @Test
+    void testSumAmountByBudgetId() {
+        User user = User.builder()
+                .name("Test User")
+                .email("sum@test.com")
+                .password("password")
+                .build();
+        userRepository.save(user);
+        UserSession.getInstance().setUser(user);
+
+        Budget budget = new Budget();
+        budget.setName("Test Budget");
+        budgetRepository.save(budget);
+
+        Budget emptyBudget = new Budget();
+        emptyBudget.setName("Empty Budget");
+        budgetRepository.save(emptyBudget);
+
+        for (double amount : new double[]{100.0, 50.5}) {
+            Expense expense = new Expense();
+            expense.setTitle("Test Expense");
+            expense.setAmount(amount);
+            expense.setDate(new Date());
+            expense.setCategory(ExpenseCategory.OTHER);
+            expense.setBudget(budget);
+            expenseRepository.save(expense);
+        }
+
+        assertThat(expenseRepository.sumAmountByBudgetId(budget.getId())).isEqualTo(150.5);
+        assertThat(expenseRepository.sumAmountByBudgetId(emptyBudget.getId())).isEqualTo(0.0);
+    }
+
+    @Test
+    void testKeysetPagesByBudgetId() {
+        User user = User.builder()
+                .name("Test User")
+                .email("keyset@test.com")
+                .password("password")
+                .build();
+        userRepository.save(user);
+        UserSession.getInstance().setUser(user);
+
+        Budget budget = new Budget();
+        budget.setName("Test Budget");
+        budgetRepository.save(budget);
 
+        long day = 24L * 60 * 60 * 1000;
+        Date[] dates = {new Date(3 * day), new Date(2 * day), new Date(2 * day), null, new Date(day)};
+        for (Date date : dates) {
+            Expense expense = new Expense();
+            expense.setTitle("Test Expense");
+            expense.setAmount(10.0);
+            expense.setDate(date);
+            expense.setBudget(budget);
+            expenseRepository.save(expense);
+        }
+
+        List<Expense> firstPage = expenseRepository.findByBudgetIdOrderByDateDescIdDesc(budget.getId(), Pageable.ofSize(2));
+        Expense last = firstPage.get(1);
+        List<Expense> secondPage = expenseRepository.findByBudgetIdAfter(budget.getId(), last.getDate(), last.getId(), Pageable.ofSize(2));
+        last = secondPage.get(1);
+        List<Expense> thirdPage = expenseRepository.findByBudgetIdAfter(budget.getId(), last.getDate(), last.getId(), Pageable.ofSize(2));
+
+        assertThat(firstPage).extracting(Expense::getDate).extracting(Date::getTime).containsExactly(3 * day, 2 * day);
+        assertThat(secondPage).extracting(Expense::getDate).extracting(Date::getTime).containsExactly(2 * day, day);
+        assertThat(thirdPage).hasSize(1);
+        assertThat(thirdPage.get(0).getDate()).isNull();
+        assertThat(firstPage.get(1).getId()).isGreaterThan(secondPage.get(0).getId());
+
+        Expense first = thirdPage.get(0);
+        List<Expense> newer = expenseRepository.findByBudgetIdBefore(budget.getId(), first.getDate(), first.getId(), Pageable.ofSize(2));
+        assertThat(newer).extracting(Expense::getId).containsExactly(secondPage.get(1).getId(), secondPage.get(0).getId());
+    }
 
+    @Test
+    void testKeysetPagesPersonalRows() {
+        User user = User.builder()
+                .name("Test User")
+                .email("rows@test.com")
+                .password("password")
+                .build();
+        userRepository.save(user);
+        UserSession.getInstance().setUser(user);
 
-}
\ No newline at end of file
+        Budget budget = new Budget();
+        budget.setName("Test Budget");
+        budgetRepository.save(budget);
+
+        long day = 24L * 60 * 60 * 1000;
+        for (Date date : new Date[]{new Date(day), null, new Date(2 * day)}) {
+            Expense expense = new Expense();
+            expense.setTitle("Personal Expense");
+            expense.setAmount(5.0);
+            expense.setDate(date);
+            expense.setCategory(ExpenseCategory.FOOD);
+            expenseRepository.save(expense);
+        }
+        Expense budgetExpense = new Expense();
+        budgetExpense.setTitle("Budget Expense");
+        budgetExpense.setAmount(10.0);
+        budgetExpense.setDate(new Date(3 * day));
+        budgetExpense.setBudget(budget);
+        expenseRepository.save(budgetExpense);
+
+        List<ExpenseRowDto> firstPage = expenseRepository.findPersonalRowsByCreatedById(user.getId(), Pageable.ofSize(2));
+        ExpenseRowDto last = firstPage.get(1);
+        List<ExpenseRowDto> secondPage = expenseRepository.findPersonalRowsByCreatedByIdAfter(user.getId(), last.getDate(), last.getId(), Pageable.ofSize(2));
+
+        assertThat(firstPage).extracting(ExpenseRowDto::getDate).extracting(Date::getTime).containsExactly(2 * day, day);
+        assertThat(firstPage).allSatisfy(row -> {
+            assertThat(row.getTitle()).isEqualTo("Personal Expense");
+            assertThat(row.getAmount()).isEqualTo(5.0);
+            assertThat(row.getCategory()).isEqualTo(ExpenseCategory.FOOD);
+        });
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getDate()).isNull();
+        assertThat(expenseRepository.findRecentRowsByCreatedById(user.getId(), Pageable.ofSize(1)))
+                .extracting(ExpenseRowDto::getTitle)
+                .containsExactly("Budget Expense");
+    }
+
+    @Test
+    void testFindKeysByBudgetIdAndDateBetween() {
+        User user = User.builder()
+                .name("Test User")
+                .email("keys@test.com")
+                .password("password")
+                .build();
+        userRepository.save(user);
+        UserSession.getInstance().setUser(user);
+
+        Budget budget = new Budget();
+        budget.setName("Test Budget");
+        budgetRepository.save(budget);
+
+        long day = 24L * 60 * 60 * 1000;
+        for (int i = 1; i <= 3; i++) {
+            Expense expense = new Expense();
+            expense.setTitle("Expense " + i);
+            expense.setAmount(10.0 * i);
+            expense.setDate(new Date(i * 10 * day));
+            expense.setBudget(budget);
+            expenseRepository.save(expense);
+        }
+        Expense personal = new Expense();
+        personal.setTitle("Personal");
+        personal.setAmount(5.0);
+        personal.setDate(new Date(20 * day));
+        personal.setCreatedBy(user);
+        expenseRepository.save(personal);
+
+        List<ExpenseRepository.ExpenseKey> keys = expenseRepository.findKeysByBudgetIdAndDateBetween(
+                budget.getId(), new Date(15 * day), new Date(35 * day));
+        assertThat(keys).extracting(ExpenseRepository.ExpenseKey::getTitle).containsExactlyInAnyOrder("Expense 2", "Expense 3");
+
+        List<ExpenseRepository.ExpenseKey> personalKeys = expenseRepository.findPersonalKeysByCreatedByIdAndDateBetween(
+                user.getId(), new Date(15 * day), new Date(35 * day));
+        assertThat(personalKeys).hasSize(1);
+        assertThat(personalKeys.get(0).getAmount()).isEqualTo(5.0);
+    }
+
+    @Test
+    void testFindUnauditedSummariesByBudgetId() {
+        User user = User.builder()
+                .name("Test User")
+                .email("summaries@test.com")
+                .password("password")
+                .build();
+        userRepository.save(user);
+        UserSession.getInstance().setUser(user);
+
+        Budget budget = new Budget();
+        budget.setName("Test Budget");
+        budgetRepository.save(budget);
+
+        Expense audited = new Expense();
+        audited.setTitle("Audited");
+        audited.setAmount(10.0);
+        audited.setCreatedAt(1000);
+        audited.setBudget(budget);
+        expenseRepository.save(audited);
+        Expense unaudited = new Expense();
+        unaudited.setTitle("Unaudited");
+        unaudited.setDescription("Before auditing");
+        unaudited.setAmount(20.0);
+        unaudited.setCreatedAt(2000);
+        unaudited.setBudget(budget);
+        expenseRepository.save(unaudited);
+        entityManager.flush();
+
+        // Revisions are only written on commit, which a repository test never reaches
+        assertThat(expenseRepository.findUnauditedSummariesByBudgetId(budget.getId()))
+                .extracting(ExpenseRepository.ExpenseSummary::getTitle).containsExactly("Unaudited", "Audited");
+
+        entityManager.getEntityManager().createNativeQuery("INSERT INTO revinfo (rev, revtstmp) VALUES (1, 0)").executeUpdate();
+        entityManager.getEntityManager().createNativeQuery("INSERT INTO expense_aud (id, rev, revtype) VALUES (?, 1, 0)")
+                .setParameter(1, audited.getId())
+                .executeUpdate();
+
+        List<ExpenseRepository.ExpenseSummary> summaries = expenseRepository.findUnauditedSummariesByBudgetId(budget.getId());
+        assertThat(summaries).hasSize(1);
+        assertThat(summaries.get(0).getId()).isEqualTo(unaudited.getId());
+        assertThat(summaries.get(0).getDescription()).isEqualTo("Before auditing");
+        assertThat(summaries.get(0).getCreatedAt()).isEqualTo(2000);
+    }
+}
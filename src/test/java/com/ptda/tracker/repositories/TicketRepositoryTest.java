@@ -1,5 +1,6 @@
 package com.ptda.tracker.repositories;
 
+import com.ptda.tracker.dtos.TicketRowDto;
 import com.ptda.tracker.models.assistance.Ticket;
 import com.ptda.tracker.models.user.User;
 import lombok.RequiredArgsConstructor;
@@ -211,4 +212,28 @@ public class TicketRepositoryTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void testFindUnassignedOpenRowsNotCreatedBy() {
+        User user = userRepository.save(User.builder()
+                .name("Test User")
+                .email("rows@example.com")
+                .password("password")
+                .build());
+        User other = userRepository.save(User.builder()
+                .name("Other User")
+                .email("other-rows@example.com")
+                .password("password")
+                .build());
+
+        ticketRepository.save(Ticket.builder().title("Own Ticket").body("Body").createdBy(user).build());
+        Ticket open = ticketRepository.save(Ticket.builder().title("Open Ticket").body("Body").createdBy(other).build());
+        ticketRepository.save(Ticket.builder().title("Closed Ticket").body("Body").createdBy(other).isClosed(true).build());
+
+        List<TicketRowDto> rows = ticketRepository.findUnassignedOpenRowsNotCreatedBy(user.getId());
+        assertThat(rows).containsExactly(new TicketRowDto(open.getId(), "Open Ticket", false));
+        assertThat(ticketRepository.findRowsByCreatedById(other.getId()))
+                .extracting(TicketRowDto::getTitle)
+                .containsExactly("Open Ticket", "Closed Ticket");
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.models.tracker.BudgetAccess;
+import com.ptda.tracker.models.tracker.BudgetAccessLevel;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.administration.CacheStatisticsService;
+import com.ptda.tracker.services.tracker.BudgetAccessService;
+import com.ptda.tracker.services.tracker.BudgetService;
+import com.ptda.tracker.util.UserSession;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BudgetAccessServiceTest {
+
+    private final BudgetAccessService budgetAccessService;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+    private final BudgetService budgetService;
+    private final CacheStatisticsService cacheStatisticsService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "access@example.com";
+        user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Access User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(user);
+    }
+
+    @Test
+    void testAccessLevelIsInvalidatedOnChanges() {
+        Budget budget = budgetRepository.save(Budget.builder().name("Access Budget").build());
+
+        assertThat(budgetAccessService.getAccessLevel(budget.getId(), user.getId())).isEmpty();
+        assertThat(budgetAccessService.hasAccess(budget.getId(), user.getId(), BudgetAccessLevel.VIEWER)).isFalse();
+
+        BudgetAccess access = budgetAccessService.create(budget.getId(), user.getId(), BudgetAccessLevel.VIEWER);
+        assertThat(budgetAccessService.getAccessLevel(budget.getId(), user.getId())).contains(BudgetAccessLevel.VIEWER);
+        assertThat(budgetAccessService.hasAccess(budget.getId(), user.getId(), BudgetAccessLevel.EDITOR)).isFalse();
+
+        access.setAccessLevel(BudgetAccessLevel.EDITOR);
+        budgetAccessService.update(access);
+        assertThat(budgetAccessService.hasAccess(budget.getId(), user.getId(), BudgetAccessLevel.EDITOR)).isTrue();
+        assertThat(budgetAccessService.hasAccess(budget.getId(), user.getEmail(), BudgetAccessLevel.OWNER)).isFalse();
+
+        budgetAccessService.delete(access.getId());
+        assertThat(budgetAccessService.getAccessLevel(budget.getId(), user.getId())).isEmpty();
+    }
+
+    @Test
+    void testGetAccessLevelsCombinesCachedAndLoadedBudgets() {
+        Budget owned = budgetRepository.save(Budget.builder().name("Owned Budget").build());
+        Budget shared = budgetRepository.save(Budget.builder().name("Shared Budget").build());
+        Budget foreign = budgetRepository.save(Budget.builder().name("Foreign Budget").build());
+        budgetAccessService.create(owned.getId(), user.getId(), BudgetAccessLevel.OWNER);
+        budgetAccessService.create(shared.getId(), user.getId(), BudgetAccessLevel.VIEWER);
+
+        // One budget is already cached, the others are loaded together
+        assertThat(budgetAccessService.getAccessLevel(owned.getId(), user.getId())).contains(BudgetAccessLevel.OWNER);
+
+        assertThat(budgetAccessService.getAccessLevels(user.getId(), List.of(owned.getId(), shared.getId(), foreign.getId())))
+                .containsOnlyKeys(owned.getId(), shared.getId())
+                .containsEntry(owned.getId(), BudgetAccessLevel.OWNER)
+                .containsEntry(shared.getId(), BudgetAccessLevel.VIEWER);
+
+        budgetAccessService.create(foreign.getId(), user.getId(), BudgetAccessLevel.EDITOR);
+        assertThat(budgetAccessService.getAccessLevels(user.getId(), List.of(foreign.getId())))
+                .containsEntry(foreign.getId(), BudgetAccessLevel.EDITOR);
+    }
+
+    @Test
+    void testParticipantAndBudgetListsUseOneStatementEach() {
+        User other = userRepository.findByEmail("other-access@example.com").orElseGet(() -> userRepository.save(User.builder()
+                .name("Other Access User")
+                .email("other-access@example.com")
+                .password("password")
+                .build()));
+        Budget budget = budgetRepository.save(Budget.builder().name("Participants Budget").build());
+        budgetAccessService.create(budget.getId(), user.getId(), BudgetAccessLevel.OWNER);
+        budgetAccessService.create(budget.getId(), other.getId(), BudgetAccessLevel.VIEWER);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheStatisticsService.evictAll();
+        statistics.clear();
+
+        assertThat(budgetAccessService.getAllByBudgetId(budget.getId()))
+                .extracting(access -> access.getUser().getName())
+                .containsExactlyInAnyOrder("Access User", "Other Access User");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        // A query cache hit must hand out the fetched users as well
+        assertThat(budgetAccessService.getAllByBudgetId(budget.getId()))
+                .extracting(access -> access.getUser().getName())
+                .containsExactlyInAnyOrder("Access User", "Other Access User");
+
+        cacheStatisticsService.evictAll();
+        statistics.clear();
+
+        assertThat(budgetService.getAllByUserId(other.getId()))
+                .extracting(listed -> listed.getCreatedBy().getName())
+                .containsExactly("Access User");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.dtos.AuditCursor;
+import com.ptda.tracker.dtos.AuditEntryDto;
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.tracker.BudgetAuditService;
+import com.ptda.tracker.services.tracker.ExpenseService;
+import com.ptda.tracker.util.UserSession;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.envers.RevisionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BudgetAuditServiceTest {
+
+    private final BudgetAuditService budgetAuditService;
+    private final BudgetRepository budgetRepository;
+    private final ExpenseService expenseService;
+    private final UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "test@example.com";
+        User user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Test User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(user);
+    }
+
+    @Test
+    void testGetTimelinePages() {
+        Budget budget = budgetRepository.save(Budget.builder().name("Timeline Budget").build());
+        // Expenses created together share one revision
+        List<Expense> expenses = expenseService.createAll(List.of(
+                Expense.builder().title("First").amount(1.0).budget(budget).build(),
+                Expense.builder().title("Second").amount(2.0).budget(budget).build(),
+                Expense.builder().title("Third").amount(3.0).budget(budget).build()));
+        budget.setName("Renamed Budget");
+        budgetRepository.save(budget);
+        Expense edited = expenses.get(0);
+        edited.setAmount(10.0);
+        expenseService.update(edited);
+
+        List<AuditEntryDto> all = budgetAuditService.getTimeline(budget.getId(), null, 100);
+
+        assertThat(all).filteredOn(entry -> entry.getRevisionType() == RevisionType.ADD && "Expense".equals(entry.getEntityType()))
+                .extracting(AuditEntryDto::getRevision)
+                .containsOnly(all.get(all.size() - 2).getRevision())
+                .hasSize(3);
+        assertThat(all).filteredOn(entry -> "Expense".equals(entry.getEntityType()) && entry.getEntityId().equals(edited.getId()))
+                .extracting(AuditEntryDto::getRevisionType)
+                .containsExactly(RevisionType.MOD, RevisionType.ADD);
+        assertThat(all.get(all.size() - 1).getEntityType()).isEqualTo("Budget");
+        assertThat(all.get(all.size() - 1).getRevisionType()).isEqualTo(RevisionType.ADD);
+        assertThat(all).extracting(AuditEntryDto::getRevision).isSortedAccordingTo((a, b) -> b - a);
+
+        List<AuditEntryDto> paged = new ArrayList<>();
+        AuditCursor cursor = null;
+        List<AuditEntryDto> page;
+        do {
+            page = budgetAuditService.getTimeline(budget.getId(), cursor, 2);
+            paged.addAll(page);
+            cursor = page.isEmpty() ? null : AuditCursor.of(page.get(page.size() - 1));
+        } while (page.size() == 2);
+
+        assertThat(paged).isEqualTo(all);
+    }
+}
@@ -0,0 +1,128 @@
+package com.ptda.tracker.services;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.models.tracker.BudgetAccessLevel;
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.tracker.BudgetAccessService;
+import com.ptda.tracker.services.tracker.BudgetReportService;
+import com.ptda.tracker.services.tracker.ExpenseService;
+import com.ptda.tracker.util.UserSession;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BudgetReportServiceTest {
+
+    private final BudgetReportService budgetReportService;
+    private final BudgetAccessService budgetAccessService;
+    private final ExpenseService expenseService;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+
+    @TempDir
+    Path reportDirectory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "report@example.com";
+        user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Report User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(user);
+    }
+
+    @Test
+    void testReportsHaveOneSectionPerBudget() throws IOException {
+        List<Long> budgetIds = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            Budget budget = budgetRepository.save(Budget.builder().name("Report Budget " + index).build());
+            budgetAccessService.create(budget.getId(), user.getId(), BudgetAccessLevel.OWNER);
+            expenseService.create(expense(budget, LocalDate.of(2023, 12, 31)));
+            if (index > 0) {
+                expenseService.create(expense(budget, LocalDate.of(2024, 6, 1)));
+            }
+            budgetIds.add(budget.getId());
+        }
+
+        File budgetsReport = reportDirectory.resolve("budgets.pdf").toFile();
+        List<Integer> progress = new ArrayList<>();
+        budgetReportService.writeBudgetsReport(budgetIds, budgetsReport, (done, total) -> {
+            assertThat(total).isEqualTo(12);
+            progress.add(done);
+        });
+        assertThat(progress).hasSize(12).isSorted();
+        assertThat(pageCount(budgetsReport)).isGreaterThanOrEqualTo(3);
+        assertThat(imageCount(budgetsReport)).isEqualTo(12);
+
+        // Only the budgets with expenses in 2024 get a section of the yearly report
+        File yearlyReport = reportDirectory.resolve("yearly.pdf").toFile();
+        List<Integer> yearlyProgress = new ArrayList<>();
+        budgetReportService.writeYearlyReport(user.getId(), 2024, yearlyReport, (done, total) -> yearlyProgress.add(total));
+        assertThat(yearlyProgress).hasSize(8).containsOnly(8);
+        assertThat(pageCount(yearlyReport)).isGreaterThanOrEqualTo(2);
+
+        // An aborted report leaves no partial file behind
+        File abortedReport = reportDirectory.resolve("aborted.pdf").toFile();
+        assertThatThrownBy(() -> budgetReportService.writeBudgetsReport(budgetIds, abortedReport, (done, total) -> {
+            throw new CancellationException();
+        })).isInstanceOf(CancellationException.class);
+        assertThat(abortedReport).doesNotExist();
+    }
+
+    private int pageCount(File report) throws IOException {
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(report))) {
+            return pdf.getNumberOfPages();
+        }
+    }
+
+    private int imageCount(File report) throws IOException {
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(report))) {
+            int images = 0;
+            for (int page = 1; page <= pdf.getNumberOfPages(); page++) {
+                images += pdf.getPage(page).getResources().getResourceNames(PdfName.XObject).size();
+            }
+            return images;
+        }
+    }
+
+    private Expense expense(Budget budget, LocalDate date) {
+        return Expense.builder()
+                .title("Report Expense")
+                .amount(25)
+                .date(Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .category(ExpenseCategory.FOOD)
+                .budget(budget)
+                .build();
+    }
+}
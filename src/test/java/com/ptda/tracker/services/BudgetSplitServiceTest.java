@@ -2,6 +2,7 @@ package com.ptda.tracker.services;
 
 import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.BudgetAccess;
+import com.ptda.tracker.models.tracker.BudgetAccessLevel;
 import com.ptda.tracker.models.tracker.BudgetSplit;
 import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.models.tracker.ExpenseDivision;
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -43,14 +45,11 @@ public class BudgetSplitServiceTest {
     @BeforeEach
     void setUp() {
         String testEmail = "test@example.com";
-        userRepository.findByEmail(testEmail).ifPresent(userRepository::delete);
-
-        User user = User.builder()
+        User user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
                 .name("Test User")
                 .email(testEmail)
                 .password("password")
-                .build();
-        userRepository.save(user);
+                .build()));
         UserSession.getInstance().setUser(user);
     }
 
@@ -89,4 +88,189 @@ public class BudgetSplitServiceTest {
         List<BudgetSplit> splits = budgetSplitService.split(budget.getId());
         assertThat(splits).isNotEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Transactional
+    void testSplitWithCustomDivisions() {
+        User user = userRepository.findByEmail("test@example.com").orElseThrow();
+        User other = User.builder()
+                .name("Other User")
+                .email("other@example.com")
+                .password("password")
+                .build();
+        userRepository.save(other);
+
+        Budget budget = Budget.builder()
+                .name("Shared Budget")
+                .description("Test Description")
+                .createdBy(user)
+                .build();
+        budgetRepository.save(budget);
+
+        budgetAccessService.update(BudgetAccess.builder()
+                .budget(budget)
+                .user(user)
+                .accessLevel(BudgetAccessLevel.OWNER)
+                .build());
+        budgetAccessService.update(BudgetAccess.builder()
+                .budget(budget)
+                .user(other)
+                .accessLevel(BudgetAccessLevel.EDITOR)
+                .build());
+
+        Expense equalExpense = Expense.builder()
+                .title("Equal Expense")
+                .amount(100.0)
+                .budget(budget)
+                .createdBy(user)
+                .build();
+        expenseRepository.save(equalExpense);
+
+        Expense dividedExpense = Expense.builder()
+                .title("Divided Expense")
+                .amount(60.0)
+                .budget(budget)
+                .createdBy(other)
+                .build();
+        expenseRepository.save(dividedExpense);
+
+        expenseDivisionService.create(ExpenseDivision.builder()
+                .expense(dividedExpense)
+                .user(user)
+                .amount(40.0)
+                .paidAmount(0.0)
+                .build());
+
+        List<BudgetSplit> splits = budgetSplitService.split(budget.getId());
+        assertThat(splits).hasSize(2);
+
+        BudgetSplit userSplit = splits.stream()
+                .filter(split -> split.getUser().getId().equals(user.getId()))
+                .findFirst().orElseThrow();
+        BudgetSplit otherSplit = splits.stream()
+                .filter(split -> split.getUser().getId().equals(other.getId()))
+                .findFirst().orElseThrow();
+
+        assertThat(userSplit.getAmount()).isEqualTo(90.0);
+        assertThat(userSplit.getPaidAmount()).isEqualTo(100.0);
+        assertThat(otherSplit.getAmount()).isEqualTo(70.0);
+        assertThat(otherSplit.getPaidAmount()).isEqualTo(60.0);
+    }
+
+    @Test
+    @Transactional
+    void testSplitIsUpdatedOnExpenseChanges() {
+        User user = userRepository.findByEmail("test@example.com").orElseThrow();
+        User other = User.builder()
+                .name("Other User")
+                .email("other@example.com")
+                .password("password")
+                .build();
+        userRepository.save(other);
+
+        Budget budget = Budget.builder()
+                .name("Shared Budget")
+                .description("Test Description")
+                .createdBy(user)
+                .build();
+        budgetRepository.save(budget);
+
+        budgetAccessService.update(BudgetAccess.builder()
+                .budget(budget)
+                .user(user)
+                .accessLevel(BudgetAccessLevel.OWNER)
+                .build());
+        budgetAccessService.update(BudgetAccess.builder()
+                .budget(budget)
+                .user(other)
+                .accessLevel(BudgetAccessLevel.EDITOR)
+                .build());
+
+        expenseService.create(Expense.builder()
+                .title("Equal Expense")
+                .amount(100.0)
+                .budget(budget)
+                .createdBy(user)
+                .build());
+        assertThat(budgetSplitService.getAllByBudgetId(budget.getId())).hasSize(2);
+
+        Expense dividedExpense = expenseService.create(Expense.builder()
+                .title("Divided Expense")
+                .amount(60.0)
+                .budget(budget)
+                .createdBy(other)
+                .build());
+        expenseDivisionService.create(ExpenseDivision.builder()
+                .expense(dividedExpense)
+                .user(user)
+                .amount(40.0)
+                .paidAmount(0.0)
+                .build());
+
+        List<BudgetSplit> splits = budgetSplitService.getAllByBudgetId(budget.getId());
+        assertThat(findSplit(splits, user).getAmount()).isEqualTo(90.0);
+        assertThat(findSplit(splits, user).getPaidAmount()).isEqualTo(100.0);
+        assertThat(findSplit(splits, other).getAmount()).isEqualTo(70.0);
+        assertThat(findSplit(splits, other).getPaidAmount()).isEqualTo(60.0);
+
+        expenseService.delete(dividedExpense.getId());
+
+        splits = budgetSplitService.getAllByBudgetId(budget.getId());
+        assertThat(findSplit(splits, user).getAmount()).isEqualTo(50.0);
+        assertThat(findSplit(splits, user).getPaidAmount()).isEqualTo(100.0);
+        assertThat(findSplit(splits, other).getAmount()).isEqualTo(50.0);
+        assertThat(findSplit(splits, other).getPaidAmount()).isEqualTo(0.0);
+    }
+
+    @Test
+    void testStoredSplitMatchesFullSplitAfterRescalingDivisions() {
+        User user = userRepository.findByEmail("test@example.com").orElseThrow();
+        User other = userRepository.findByEmail("rescale@example.com").orElseGet(() -> userRepository.save(User.builder()
+                .name("Rescale User")
+                .email("rescale@example.com")
+                .password("password")
+                .build()));
+
+        Budget budget = budgetRepository.save(Budget.builder()
+                .name("Rescaled Budget")
+                .createdBy(user)
+                .build());
+        budgetAccessService.create(budget.getId(), user.getId(), BudgetAccessLevel.OWNER);
+        budgetAccessService.create(budget.getId(), other.getId(), BudgetAccessLevel.EDITOR);
+
+        Expense expense = expenseService.create(Expense.builder()
+                .title("Rescaled Expense")
+                .amount(60.0)
+                .budget(budget)
+                .createdBy(other)
+                .build());
+        expenseDivisionService.create(ExpenseDivision.builder()
+                .expense(expense)
+                .user(user)
+                .amount(40.0)
+                .paidAmount(0.0)
+                .build());
+        assertThat(budgetSplitService.getAllByBudgetId(budget.getId())).hasSize(2);
+
+        Expense raised = expenseService.getById(expense.getId()).orElseThrow();
+        raised.setAmount(120.0);
+        expenseService.update(raised, true);
+
+        List<BudgetSplit> stored = budgetSplitService.getAllByBudgetId(budget.getId());
+        double storedUserAmount = findSplit(stored, user).getAmount();
+        double storedOtherAmount = findSplit(stored, other).getAmount();
+        double storedOtherPaid = findSplit(stored, other).getPaidAmount();
+
+        List<BudgetSplit> full = budgetSplitService.split(budget.getId());
+        assertThat(findSplit(full, user).getAmount()).isEqualTo(80.0);
+        assertThat(storedUserAmount).isEqualTo(findSplit(full, user).getAmount());
+        assertThat(storedOtherAmount).isEqualTo(findSplit(full, other).getAmount());
+        assertThat(storedOtherPaid).isEqualTo(findSplit(full, other).getPaidAmount());
+    }
+
+    private BudgetSplit findSplit(List<BudgetSplit> splits, User user) {
+        return splits.stream()
+                .filter(split -> split.getUser().getId().equals(user.getId()))
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,141 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.models.tracker.BudgetAccessLevel;
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.DailyExpenseRollupRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.tracker.BudgetAccessService;
+import com.ptda.tracker.services.tracker.BudgetStatisticsService;
+import com.ptda.tracker.services.tracker.BudgetStatisticsSnapshot;
+import com.ptda.tracker.services.tracker.ExpenseService;
+import com.ptda.tracker.services.tracker.ExpenseTimeSeries;
+import com.ptda.tracker.util.UserSession;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BudgetStatisticsServiceTest {
+
+    private final BudgetStatisticsService budgetStatisticsService;
+    private final BudgetAccessService budgetAccessService;
+    private final ExpenseService expenseService;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "statistics@example.com";
+        user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Statistics User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(user);
+    }
+
+    @Test
+    void testSnapshotIsReusedUntilBudgetChanges() {
+        Budget budget = budgetRepository.save(Budget.builder().name("Statistics Budget").build());
+        budgetAccessService.create(budget.getId(), user.getId(), BudgetAccessLevel.OWNER);
+        expenseService.create(expense(budget, 40));
+
+        BudgetStatisticsSnapshot first = budgetStatisticsService.getSnapshot(budget.getId());
+        assertThat(first.getTotal()).isEqualTo(40.0);
+        assertThat(first.getParticipantCount()).isEqualTo(1);
+        assertThat(budgetStatisticsService.getSnapshot(budget.getId())).isSameAs(first);
+
+        // Any expense written to the budget moves its version and drops the snapshot, the budget itself is left alone
+        long budgetUpdatedAt = budgetRepository.findById(budget.getId()).orElseThrow().getUpdatedAt();
+        expenseService.create(expense(budget, 2));
+
+        BudgetStatisticsSnapshot second = budgetStatisticsService.getSnapshot(budget.getId());
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getUpdatedAt()).isEqualTo(budgetUpdatedAt);
+        assertThat(second.getTotal()).isEqualTo(42.0);
+        assertThat(second.getCumulativeTotal(second.getDayCount() - 1)).isEqualTo(42.0);
+    }
+
+    @Test
+    void testTimeSeriesBucketsAndDownsamplesLongHistories() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<DailyExpenseRollupRepository.RollupRow> rows = new ArrayList<>();
+        rows.add(row(start, 10));
+        rows.add(row(start.plusDays(3), 5));
+        ExpenseTimeSeries shortHistory = ExpenseTimeSeries.of(BudgetStatisticsSnapshot.of(0, 1, rows), 10);
+
+        // A short history is plotted per day, empty days included
+        assertThat(shortHistory.getBucket()).isEqualTo(ExpenseTimeSeries.Bucket.DAY);
+        assertThat(shortHistory.getTotals()).extracting(ExpenseTimeSeries.Point::getValue)
+                .containsExactly(10.0, 0.0, 0.0, 5.0);
+        assertThat(shortHistory.getCumulativeTotals()).extracting(ExpenseTimeSeries.Point::getValue)
+                .containsExactly(10.0, 10.0, 10.0, 15.0);
+
+        rows.clear();
+        for (int day = 0; day < 3650; day++) {
+            rows.add(row(start.plusDays(day), day == 1000 ? 500 : 1));
+        }
+        ExpenseTimeSeries longHistory = ExpenseTimeSeries.of(BudgetStatisticsSnapshot.of(0, 1, rows), 40);
+
+        // Ten years do not fit 40 weeks or months, so the monthly series is downsampled
+        assertThat(longHistory.getBucket()).isEqualTo(ExpenseTimeSeries.Bucket.MONTH);
+        assertThat(longHistory.getTotals()).hasSizeLessThanOrEqualTo(40)
+                .extracting(ExpenseTimeSeries.Point::getValue).contains(30.0 + 499);
+        assertThat(longHistory.getCumulativeTotals()).hasSize(40);
+        assertThat(longHistory.getCumulativeTotals().get(0).getLabel()).isEqualTo("2024-01");
+        assertThat(longHistory.getCumulativeTotals().get(39).getValue()).isEqualTo(3650.0 + 499);
+    }
+
+    private DailyExpenseRollupRepository.RollupRow row(LocalDate date, double total) {
+        return new DailyExpenseRollupRepository.RollupRow() {
+            @Override
+            public LocalDate getDate() {
+                return date;
+            }
+
+            @Override
+            public ExpenseCategory getCategory() {
+                return ExpenseCategory.FOOD;
+            }
+
+            @Override
+            public String getUserName() {
+                return "Statistics User";
+            }
+
+            @Override
+            public double getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private Expense expense(Budget budget, double amount) {
+        return Expense.builder()
+                .title("Statistics Expense")
+                .amount(amount)
+                .date(new Date())
+                .category(ExpenseCategory.FOOD)
+                .budget(budget)
+                .build();
+    }
+}
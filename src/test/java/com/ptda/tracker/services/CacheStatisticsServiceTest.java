@@ -0,0 +1,112 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.dtos.CacheRegionStatisticsDto;
+import com.ptda.tracker.models.assistance.AssistantLevel;
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.models.tracker.BudgetAccess;
+import com.ptda.tracker.models.tracker.BudgetAccessLevel;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetAccessRepository;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.administration.CacheStatisticsService;
+import com.ptda.tracker.util.UserSession;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class CacheStatisticsServiceTest {
+
+    private final CacheStatisticsService cacheStatisticsService;
+    private final UserRepository userRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetAccessRepository budgetAccessRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "cache@example.com";
+        user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Cache User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(user);
+    }
+
+    @Test
+    void testReferenceDataIsServedFromCache() {
+        inTransaction(entityManager -> entityManager.merge(AssistantLevel.builder()
+                .id(900L)
+                .name("Cached Level")
+                .processedTickets(10)
+                .build()));
+        cacheStatisticsService.evictAll();
+        long hits = region("assistantLevel").getHits();
+
+        inTransaction(entityManager -> entityManager.find(AssistantLevel.class, 900L));
+        inTransaction(entityManager -> entityManager.find(AssistantLevel.class, 900L));
+
+        CacheRegionStatisticsDto statistics = region("assistantLevel");
+        assertThat(statistics.getHits()).isGreaterThan(hits);
+        assertThat(statistics.getMisses()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testRowsChangedByAnotherClientAreSeenAtOnce() {
+        Budget budget = budgetRepository.save(Budget.builder().name("Shared Budget").build());
+        budgetAccessRepository.save(BudgetAccess.builder()
+                .budget(budget)
+                .user(user)
+                .accessLevel(BudgetAccessLevel.VIEWER)
+                .build());
+        assertThat(budgetRepository.findById(budget.getId())).isPresent();
+        assertThat(budgetAccessRepository.findByBudgetIdAndUserId(budget.getId(), user.getId())).isPresent();
+        assertThat(userRepository.findByEmail(user.getEmail())).isPresent();
+
+        // Written straight to the database, as another client sharing it would
+        jdbcTemplate.update("UPDATE budget SET name = ? WHERE id = ?", "Renamed Shared Budget", budget.getId());
+        jdbcTemplate.update("DELETE FROM budget_access WHERE budget_id = ?", budget.getId());
+        jdbcTemplate.update("UPDATE _user SET name = ? WHERE id = ?", "Renamed Cache User", user.getId());
+
+        assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getName()).isEqualTo("Renamed Shared Budget");
+        assertThat(budgetAccessRepository.findByBudgetIdAndUserId(budget.getId(), user.getId())).isEmpty();
+        assertThat(budgetAccessRepository.existsByBudgetIdAndUserId(budget.getId(), user.getId())).isFalse();
+        assertThat(budgetAccessRepository.findAllByBudgetId(budget.getId())).isEmpty();
+        assertThat(userRepository.findByEmail(user.getEmail()).orElseThrow().getName()).isEqualTo("Renamed Cache User");
+    }
+
+    private void inTransaction(Consumer<EntityManager> action) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            action.accept(entityManager);
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private CacheRegionStatisticsDto region(String name) {
+        return cacheStatisticsService.getRegionStatistics().stream()
+                .filter(statistics -> statistics.getRegion().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.tracker.ExpenseColumnMapping;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.tracker.ExpenseColumnMappingService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ExpenseColumnMappingServiceTest {
+
+    private final ExpenseColumnMappingService expenseColumnMappingService;
+    private final UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "mapping@example.com";
+        user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Mapping User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+    }
+
+    @Test
+    void testSaveCategoryDictionaryLearnsAndUpdatesMappings() {
+        expenseColumnMappingService.saveCategoryDictionary(user, Map.of(
+                "Supermercado", ExpenseCategory.FOOD,
+                "Unknown", ExpenseCategory.OTHER));
+
+        Map<String, ExpenseCategory> dictionary = expenseColumnMappingService.getCategoryDictionary(user.getId());
+        assertThat(dictionary).containsEntry("supermercado", ExpenseCategory.FOOD);
+        assertThat(dictionary).doesNotContainKey("Unknown");
+
+        expenseColumnMappingService.saveCategoryDictionary(user, Map.of(" SUPERMERCADO ", ExpenseCategory.TRANSPORT));
+
+        assertThat(expenseColumnMappingService.getCategoryDictionary(user.getId()))
+                .containsEntry("Supermercado", ExpenseCategory.TRANSPORT);
+        assertThat(expenseColumnMappingService.getAllByUserId(user.getId()))
+                .extracting(ExpenseColumnMapping::getName)
+                .containsOnlyOnce("Supermercado");
+    }
+
+    @Test
+    void testCreateEvictsCachedDictionary() {
+        assertThat(expenseColumnMappingService.getCategoryDictionary(user.getId())).doesNotContainKey("Cinema");
+
+        expenseColumnMappingService.create(ExpenseColumnMapping.builder()
+                .name("Cinema")
+                .category(ExpenseCategory.ENTERTAINMENT)
+                .createdBy(user)
+                .build());
+
+        assertThat(expenseColumnMappingService.getCategoryDictionary(user.getId()))
+                .containsEntry("cinema", ExpenseCategory.ENTERTAINMENT);
+    }
+}
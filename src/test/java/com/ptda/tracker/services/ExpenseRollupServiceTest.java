@@ -0,0 +1,162 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.tracker.BudgetStatisticsService;
+import com.ptda.tracker.services.tracker.BudgetStatisticsSnapshot;
+import com.ptda.tracker.services.tracker.ExpenseRollupService;
+import com.ptda.tracker.services.tracker.ExpenseService;
+import com.ptda.tracker.util.UserSession;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ExpenseRollupServiceTest {
+
+    private final ExpenseRollupService expenseRollupService;
+    private final BudgetStatisticsService budgetStatisticsService;
+    private final ExpenseService expenseService;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "rollup@example.com";
+        user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Rollup User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(user);
+    }
+
+    @Test
+    void testRollupsFollowExpenseWrites() {
+        Budget budget = budgetRepository.save(Budget.builder().name("Rollup Budget").build());
+        LocalDate firstDay = LocalDate.of(2024, 3, 30);
+        LocalDate secondDay = LocalDate.of(2024, 4, 2);
+        Map<ExpenseCategory, Double> personalBefore = expenseRollupService.getCategoryTotalsByUserId(user.getId());
+
+        List<Expense> created = expenseService.createAll(new ArrayList<>(List.of(
+                expense("Groceries", 10, firstDay, ExpenseCategory.FOOD, budget),
+                expense("Dinner", 15, firstDay, ExpenseCategory.FOOD, budget),
+                expense("Bus", 2.5, secondDay, ExpenseCategory.TRANSPORT, budget)
+        )));
+        expenseService.create(expense("Book", 20, secondDay, ExpenseCategory.EDUCATION, null));
+
+        BudgetStatisticsSnapshot statistics = budgetStatisticsService.getSnapshot(budget.getId());
+        assertThat(dailyTotals(statistics)).containsExactly(entry(firstDay, 25.0), entry(secondDay, 2.5));
+        assertThat(statistics.getCategoryTotals())
+                .containsOnly(entry(ExpenseCategory.FOOD, 25.0), entry(ExpenseCategory.TRANSPORT, 2.5));
+        assertThat(statistics.getUserNames()).containsExactly("Rollup User");
+        assertThat(statistics.getUserCategoryTotal("Rollup User", ExpenseCategory.FOOD)).isEqualTo(25.0);
+        assertThat(expenseRollupService.getCategoryTotalsByUserId(user.getId()).get(ExpenseCategory.EDUCATION))
+                .isEqualTo(personalBefore.getOrDefault(ExpenseCategory.EDUCATION, 0.0) + 20.0);
+
+        // Moving an expense to another day and category takes it out of its old rollup
+        Expense dinner = created.get(1);
+        dinner.setAmount(12);
+        dinner.setCategory(ExpenseCategory.ENTERTAINMENT);
+        dinner.setDate(toDate(secondDay));
+        expenseService.update(dinner);
+        expenseService.delete(created.get(2).getId());
+
+        statistics = budgetStatisticsService.getSnapshot(budget.getId());
+        assertThat(dailyTotals(statistics)).containsExactly(entry(firstDay, 10.0), entry(secondDay, 12.0));
+        assertThat(statistics.getCategoryTotals())
+                .containsOnly(entry(ExpenseCategory.FOOD, 10.0), entry(ExpenseCategory.ENTERTAINMENT, 12.0));
+
+        Map<ExpenseCategory, Double> personalTotals = expenseRollupService.getCategoryTotalsByUserId(user.getId());
+        expenseRollupService.rebuildAll();
+
+        assertThat(dailyTotals(budgetStatisticsService.getSnapshot(budget.getId())))
+                .containsExactly(entry(firstDay, 10.0), entry(secondDay, 12.0));
+        assertThat(expenseRollupService.getCategoryTotalsByUserId(user.getId())).isEqualTo(personalTotals);
+    }
+
+    @Test
+    void testConcurrentWritesToANewRollupRowAreAllCounted() throws Exception {
+        String testEmail = "concurrent-rollup@example.com";
+        User writer = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Concurrent Rollup User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(writer);
+        Map<ExpenseCategory, Double> before = expenseRollupService.getCategoryTotalsByUserId(writer.getId());
+        LocalDate day = LocalDate.of(2024, 5, 1);
+        int writers = 8;
+
+        // Every writer finds the monthly row missing at first, only one may insert it and the others must add to it
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Expense>> results = new ArrayList<>();
+            for (int index = 0; index < writers; index++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return expenseService.create(expense("Concurrent", 5, day, ExpenseCategory.HEALTH, null));
+                }));
+            }
+            start.countDown();
+            for (Future<Expense> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(expenseRollupService.getCategoryTotalsByUserId(writer.getId()).get(ExpenseCategory.HEALTH))
+                .isEqualTo(before.getOrDefault(ExpenseCategory.HEALTH, 0.0) + 5.0 * writers);
+    }
+
+    private Map<LocalDate, Double> dailyTotals(BudgetStatisticsSnapshot statistics) {
+        Map<LocalDate, Double> totals = new LinkedHashMap<>();
+        for (int day = 0; day < statistics.getDayCount(); day++) {
+            totals.put(statistics.getDate(day), statistics.getDailyTotal(day));
+        }
+        return totals;
+    }
+
+    private Expense expense(String title, double amount, LocalDate date, ExpenseCategory category, Budget budget) {
+        return Expense.builder()
+                .title(title)
+                .amount(amount)
+                .date(toDate(date))
+                .category(category)
+                .budget(budget)
+                .build();
+    }
+
+    private Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
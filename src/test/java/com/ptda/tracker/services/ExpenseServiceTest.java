@@ -1,22 +1,31 @@
 package com.ptda.tracker.services;
 
+import com.ptda.tracker.models.tracker.Budget;
 import com.ptda.tracker.models.tracker.Expense;
 import com.ptda.tracker.models.tracker.ExpenseCategory;
 import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetRepository;
 import com.ptda.tracker.repositories.ExpenseRepository;
 import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.administration.CacheStatisticsService;
+import com.ptda.tracker.services.tracker.ExpenseDuplicateIndex;
 import com.ptda.tracker.services.tracker.ExpenseService;
 import com.ptda.tracker.util.UserSession;
 import lombok.RequiredArgsConstructor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -26,23 +35,113 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class ExpenseServiceTest {
 
     private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
     private final ExpenseService expenseService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheStatisticsService cacheStatisticsService;
 
     @BeforeEach
     void setUp() {
         String testEmail = "test@example.com";
-        userRepository.findByEmail(testEmail).ifPresent(userRepository::delete);
-
-        User user = User.builder()
+        User user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
                 .name("Test User")
                 .email(testEmail)
                 .password("password")
-                .build();
-        userRepository.save(user);
+                .build()));
         UserSession.getInstance().setUser(user);
     }
 
+    @Test
+    void testDuplicateIndexMatchesEachExistingExpenseOnce() {
+        Budget budget = budgetRepository.save(Budget.builder().name("Statement Budget").build());
+        Date date = new Date();
+        expenseService.createAll(new ArrayList<>(List.of(
+                Expense.builder().title("Coffee  Shop").amount(2.5).date(date).budget(budget).build(),
+                Expense.builder().title("Coffee Shop").amount(2.5).date(date).budget(budget).build(),
+                Expense.builder().title("Café Central").amount(12.0).date(date).budget(budget).build()
+        )));
+
+        ExpenseDuplicateIndex index = expenseService.getDuplicateIndex(budget.getId(), null, date, date);
+
+        assertThat(index.consume(Expense.builder().title("coffee shop").amount(-2.5).date(date).build())).isTrue();
+        assertThat(index.consume(Expense.builder().title("COFFEE SHOP ").amount(2.5).date(date).build())).isTrue();
+        assertThat(index.consume(Expense.builder().title("Coffee Shop").amount(2.5).date(date).build())).isFalse();
+        assertThat(index.consume(Expense.builder().title("cafe central").amount(12.0).date(date).build())).isTrue();
+        assertThat(index.consume(Expense.builder().title("Cafe Central").amount(12.01).date(date).build())).isFalse();
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testCreateAllBatchesInserts() {
+        int rows = 2000;
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            expenses.add(Expense.builder()
+                    .title("Imported " + i)
+                    .amount(i)
+                    .category(ExpenseCategory.OTHER)
+                    .date(new Date())
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        List<Expense> created = expenseService.createAll(expenses);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(created).hasSize(rows).allMatch(expense -> expense.getId() != null);
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(rows);
+        // Expense and audit inserts go out in batches, ids are allocated in pooled blocks
+        assertThat(statements)
+                .as("statements to insert %d expenses, which took %d ms", rows, elapsedMillis)
+                .isLessThan(rows / 10);
+    }
+
+    @Test
+    void testListAndDetailLoadsUseOneStatementEach() {
+        User other = userRepository.findByEmail("other@example.com").orElseGet(() -> userRepository.save(User.builder()
+                .name("Other User")
+                .email("other@example.com")
+                .password("password")
+                .build()));
+        Budget budget = budgetRepository.save(Budget.builder().name("Fetch Plan Budget").build());
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            expenses.add(Expense.builder()
+                    .title("Row " + i)
+                    .amount(i)
+                    .date(new Date())
+                    .budget(budget)
+                    .createdBy(i % 2 == 0 ? UserSession.getInstance().getUser() : other)
+                    .build());
+        }
+        Long expenseId = expenseService.createAll(expenses).get(1).getId();
+
+        // Cached users and budgets would hide the secondary selects of a missing fetch plan
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheStatisticsService.evictAll();
+        statistics.clear();
+        List<Expense> page = expenseService.getExpensesByBudgetIdAfter(budget.getId(), null, 20);
+
+        assertThat(page).hasSize(10)
+                .allMatch(expense -> expense.getBudget().getName().equals("Fetch Plan Budget"))
+                .extracting(expense -> expense.getCreatedBy().getName())
+                .containsOnly("Test User", "Other User");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        cacheStatisticsService.evictAll();
+        statistics.clear();
+        Expense detail = expenseService.getById(expenseId).orElseThrow();
+
+        assertThat(detail.getCreatedBy().getName()).isEqualTo("Other User");
+        assertThat(detail.getBudget().getCreatedBy().getName()).isEqualTo("Test User");
+        assertThat(detail.getUpdatedBy()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
 //    @Test
 //    void testGetById() {
 //        Expense expense = new Expense();
@@ -0,0 +1,90 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.models.admin.GlobalVariable;
+import com.ptda.tracker.models.admin.GlobalVariableName;
+import com.ptda.tracker.repositories.GlobalVariableRepository;
+import com.ptda.tracker.services.administration.GlobalVariableService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class GlobalVariableServiceTest {
+
+    private final GlobalVariableService globalVariableService;
+    private final GlobalVariableRepository globalVariableRepository;
+
+    private final List<String> notified = new ArrayList<>();
+    private final Consumer<String> listener = notified::add;
+
+    @AfterEach
+    void tearDown() {
+        globalVariableService.removeListener(GlobalVariableName.VERIFY_EMAIL, listener);
+        globalVariableService.set(GlobalVariableName.VERIFY_EMAIL, "false");
+    }
+
+    @Test
+    void testSetUpdatesSnapshotAndNotifiesListeners() {
+        globalVariableService.set(GlobalVariableName.VERIFY_EMAIL, "false");
+        globalVariableService.addListener(GlobalVariableName.VERIFY_EMAIL, listener);
+
+        globalVariableService.set(GlobalVariableName.VERIFY_EMAIL, "true");
+        globalVariableService.set(GlobalVariableName.VERIFY_EMAIL, "true");
+
+        assertThat(globalVariableService.getBoolean(GlobalVariableName.VERIFY_EMAIL)).isTrue();
+        assertThat(globalVariableService.get(GlobalVariableName.VERIFY_EMAIL.name())).isEqualTo("true");
+        assertThat(notified).containsExactly("true");
+    }
+
+    @Test
+    void testRefreshPicksUpChangesFromOtherClients() {
+        globalVariableService.set(GlobalVariableName.VERIFY_EMAIL, "false");
+        globalVariableService.addListener(GlobalVariableName.VERIFY_EMAIL, listener);
+
+        globalVariableService.refresh();
+        assertThat(notified).isEmpty();
+
+        // Another client writes the value and a new version stamp directly
+        globalVariableRepository.save(GlobalVariable.builder().keyName("VERIFY_EMAIL").value("true").build());
+        assertThat(globalVariableService.getBoolean(GlobalVariableName.VERIFY_EMAIL)).isFalse();
+        incrementVersionAsOtherClient();
+
+        globalVariableService.refresh();
+
+        assertThat(globalVariableService.getBoolean(GlobalVariableName.VERIFY_EMAIL)).isTrue();
+        assertThat(notified).containsExactly("true");
+    }
+
+    @Test
+    void testOwnWriteDoesNotHideAnEarlierChangeOfAnotherClient() {
+        globalVariableService.set(GlobalVariableName.VERIFY_EMAIL, "false");
+        globalVariableService.addListener(GlobalVariableName.VERIFY_EMAIL, listener);
+
+        // Another client changes the value after this client last read it
+        globalVariableRepository.save(GlobalVariable.builder().keyName("VERIFY_EMAIL").value("true").build());
+        incrementVersionAsOtherClient();
+
+        // This client then changes an unrelated variable, which must not mark its stale snapshot as current
+        globalVariableService.delete("UNRELATED_VARIABLE");
+        globalVariableService.refresh();
+
+        assertThat(globalVariableService.getBoolean(GlobalVariableName.VERIFY_EMAIL)).isTrue();
+        assertThat(notified).containsExactly("true");
+    }
+
+    private void incrementVersionAsOtherClient() {
+        long version = Long.parseLong(globalVariableRepository.findValueByKeyName("_VERSION"));
+        globalVariableRepository.save(GlobalVariable.builder().keyName("_VERSION").value(String.valueOf(version + 1)).build());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.dtos.SettlementDto;
+import com.ptda.tracker.models.tracker.BudgetSplit;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.services.tracker.SettlementService;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SettlementServiceTest {
+
+    private final SettlementService settlementService;
+
+    @Test
+    void testExactUsesFewerTransfersThanGreedy() {
+        List<BudgetSplit> splits = createSplits(500, 300, 300, -600, -500);
+
+        List<SettlementDto> greedy = settlementService.settleGreedy(splits);
+        List<SettlementDto> exact = settlementService.settleExact(splits);
+
+        assertSettled(splits, greedy);
+        assertSettled(splits, exact);
+        assertThat(greedy).hasSize(4);
+        assertThat(exact).hasSize(3);
+    }
+
+    @Test
+    void testSettledUsersAreLeftOut() {
+        List<BudgetSplit> splits = createSplits(0, 1000, -1000);
+
+        List<SettlementDto> settlements = settlementService.settle(splits);
+
+        assertThat(settlements).hasSize(1);
+        assertThat(settlements.get(0).getFrom().getId()).isEqualTo(2L);
+        assertThat(settlements.get(0).getTo().getId()).isEqualTo(3L);
+        assertThat(settlements.get(0).getAmount()).isEqualTo(10.0);
+    }
+
+    @Test
+    void testRandomBalancesAreAlwaysSettled() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<BudgetSplit> splits = createSplits(randomBalances(random, 2 + random.nextInt(10)));
+
+            List<SettlementDto> greedy = settlementService.settleGreedy(splits);
+            List<SettlementDto> exact = settlementService.settleExact(splits);
+
+            assertSettled(splits, greedy);
+            assertSettled(splits, exact);
+            assertThat(exact.size()).isLessThanOrEqualTo(greedy.size());
+        }
+    }
+
+    @Test
+    void testLargeGroupIsSettledGreedily() {
+        Random random = new Random(7);
+        List<BudgetSplit> splits = createSplits(randomBalances(random, 500));
+
+        List<SettlementDto> settlements = settlementService.settle(splits);
+
+        assertSettled(splits, settlements);
+    }
+
+    private long[] randomBalances(Random random, int size) {
+        long[] cents = new long[size];
+        long total = 0;
+        for (int i = 0; i < size - 1; i++) {
+            cents[i] = random.nextInt(20001) - 10000;
+            total += cents[i];
+        }
+        cents[size - 1] = -total;
+        return cents;
+    }
+
+    private List<BudgetSplit> createSplits(long... cents) {
+        List<BudgetSplit> splits = new ArrayList<>();
+        for (int i = 0; i < cents.length; i++) {
+            User user = User.builder().id((long) i + 1).name("User " + (i + 1)).build();
+            double amount = BigDecimal.valueOf(Math.max(cents[i], 0), 2).doubleValue();
+            double paidAmount = BigDecimal.valueOf(Math.max(-cents[i], 0), 2).doubleValue();
+            splits.add(BudgetSplit.builder().user(user).amount(amount).paidAmount(paidAmount).build());
+        }
+        return splits;
+    }
+
+    /**
+     * Applies the transfers to the balances and checks every user ends up settled with at most n - 1 transfers.
+     */
+    private void assertSettled(List<BudgetSplit> splits, List<SettlementDto> settlements) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (BudgetSplit split : splits) {
+            balances.put(split.getUser().getId(), BigDecimal.valueOf(split.getAmount())
+                    .subtract(BigDecimal.valueOf(split.getPaidAmount())));
+        }
+        for (SettlementDto settlement : settlements) {
+            assertThat(settlement.getAmount()).isPositive();
+            assertThat(settlement.getFrom().getId()).isNotEqualTo(settlement.getTo().getId());
+            BigDecimal amount = BigDecimal.valueOf(settlement.getAmount());
+            balances.merge(settlement.getFrom().getId(), amount.negate(), BigDecimal::add);
+            balances.merge(settlement.getTo().getId(), amount, BigDecimal::add);
+        }
+        assertThat(balances.values()).allMatch(balance -> balance.signum() == 0);
+        assertThat(settlements.size()).isLessThan(Math.max(splits.size(), 1));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ptda.tracker.services;
+
+import com.ptda.tracker.models.tracker.Budget;
+import com.ptda.tracker.models.tracker.Expense;
+import com.ptda.tracker.models.tracker.ExpenseCategory;
+import com.ptda.tracker.models.user.User;
+import com.ptda.tracker.repositories.BudgetRepository;
+import com.ptda.tracker.repositories.UserRepository;
+import com.ptda.tracker.services.tracker.ExpenseService;
+import com.ptda.tracker.services.tracker.StatementService;
+import com.ptda.tracker.util.UserSession;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class StatementServiceTest {
+
+    private final StatementService statementService;
+    private final ExpenseService expenseService;
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+
+    @TempDir
+    static Path statementsDirectory;
+
+    @DynamicPropertySource
+    static void statementProperties(DynamicPropertyRegistry registry) {
+        registry.add("tracker.statements.directory", () -> statementsDirectory.toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        String testEmail = "statement@example.com";
+        User user = userRepository.findByEmail(testEmail).orElseGet(() -> userRepository.save(User.builder()
+                .name("Statement User")
+                .email(testEmail)
+                .password("password")
+                .build()));
+        UserSession.getInstance().setUser(user);
+    }
+
+    @Test
+    void testStatementsAreWrittenForBudgetsWithExpensesInTheMonth() throws IOException {
+        YearMonth month = YearMonth.of(2019, 2);
+        Budget active = budgetRepository.save(Budget.builder().name("Statement Budget").build());
+        Budget quiet = budgetRepository.save(Budget.builder().name("Quiet Budget").build());
+        expenseService.create(expense(active, month.atDay(3), ExpenseCategory.FOOD, 12.5));
+        expenseService.create(expense(active, month.atDay(20), ExpenseCategory.TRANSPORT, 3));
+        expenseService.create(expense(quiet, month.plusMonths(1).atDay(1), ExpenseCategory.FOOD, 8));
+
+        StatementService.StatementRun run = statementService.generateMonthlyStatements(month);
+
+        assertThat(run.getDirectory()).isEqualTo(statementsDirectory.resolve("2019-02"));
+        assertThat(run.getFailedCount()).isZero();
+        assertThat(run.getTimings()).extracting(StatementService.StatementTiming::getBudgetId).containsExactly(active.getId());
+        assertThat(run.getDirectory().resolve("budget-" + active.getId() + ".pdf")).isNotEmptyFile();
+        assertThat(run.getDirectory().resolve("budget-" + quiet.getId() + ".pdf")).doesNotExist();
+        assertThat(Files.readAllLines(run.getDirectory().resolve("budget-" + active.getId() + ".csv")))
+                .containsExactly("date,category,user,total",
+                        "2019-02-03,FOOD,Statement User,12.50",
+                        "2019-02-20,TRANSPORT,Statement User,3.00");
+        assertThat(Files.readAllLines(run.getDirectory().resolve("timings.csv")))
+                .hasSize(2)
+                .first().isEqualTo("budget_id,pdf_ms,csv_ms,error");
+    }
+
+    private Expense expense(Budget budget, LocalDate date, ExpenseCategory category, double amount) {
+        return Expense.builder()
+                .title("Statement Expense")
+                .amount(amount)
+                .date(Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()))
+                .category(category)
+                .budget(budget)
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.ptda.tracker.util;
+
+import com.ptda.tracker.dtos.ImportRowError;
+import com.ptda.tracker.models.tracker.Expense;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class ExpenseImportReportTest {
+
+    @TempDir
+    Path directory;
+
+    private ExpensesImportSharedData sharedData;
+
+    @BeforeEach
+    void setUp() {
+        sharedData = new ExpensesImportSharedData();
+        sharedData.setDelimiter(';');
+        sharedData.setHasHeader(true);
+        sharedData.setColumnMapping(new HashMap<>(Map.of("TITLE", 0, "AMOUNT", 1, "DATE", 2)));
+        sharedData.setDateFormat("yyyy-MM-dd");
+        sharedData.setValueTreatment("NEGATIVE_AS_EXPENSE");
+    }
+
+    @Test
+    void testRowsAreClassifiedAndCounted() throws IOException {
+        sharedData.setRawData(List.of(
+                new String[]{"title", "amount", "date"},
+                new String[]{"Groceries", "-12,50", "2024-03-15"},
+                new String[]{"Salary", "1500", "2024-03-01"},
+                new String[]{"Broken amount", "twelve", "2024-03-16"},
+                new String[]{"Broken date", "-3", "yesterday"},
+                new String[]{"Rent", "-700", "2024-03-02"}
+        ));
+
+        List<Expense> expenses;
+        try (ExpenseImportReport report = new ExpenseImportReport()) {
+            expenses = ExpensesConverter.transformImportData(sharedData, report);
+            report.addDuplicates(1);
+
+            assertThat(report.getAccepted()).isEqualTo(2);
+            assertThat(report.getFiltered()).isEqualTo(1);
+            assertThat(report.getRejected()).isEqualTo(2);
+            assertThat(report.getDuplicates()).isEqualTo(1);
+            assertThat(report.getImported()).isEqualTo(1);
+            assertThat(report.getRowsRead()).isEqualTo(5);
+            assertThat(report.getErrors())
+                    .extracting(ImportRowError::getRow, ImportRowError::getField, ImportRowError::getValue, ImportRowError::getReason)
+                    .containsExactly(
+                            tuple(4L, "AMOUNT", "twelve", "Invalid amount"),
+                            tuple(5L, "DATE", "yesterday", "Invalid date: yesterday"));
+        }
+
+        assertThat(expenses).extracting(Expense::getTitle).containsExactly("Groceries", "Rent");
+        assertThat(expenses).extracting(Expense::getAmount).containsExactly(12.5, 700.0);
+    }
+
+    @Test
+    void testErrorFileKeepsTheSourceFormatAndAddsErrorColumns() throws IOException {
+        sharedData.setRawData(List.of(
+                new String[]{"title", "amount", "date"},
+                new String[]{"Groceries", "-12,50", "2024-03-15"},
+                new String[]{"Broken amount", "-1,5x", "2024-03-16"},
+                new String[]{"Short row"}
+        ));
+        Path target = directory.resolve("errors.csv");
+
+        try (ExpenseImportReport report = new ExpenseImportReport()) {
+            ExpensesConverter.transformImportData(sharedData, report);
+            report.saveErrors(target.toFile());
+        }
+
+        List<CSVRecord> records;
+        try (CSVParser parser = CSVFormat.DEFAULT.builder().setDelimiter(';').build()
+                .parse(Files.newBufferedReader(target, ExpensesConverter.SOURCE_CHARSET))) {
+            records = parser.getRecords();
+        }
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0).toList()).containsExactly("title", "amount", "date", "row", "field", "reason");
+        assertThat(records.get(1).toList())
+                .containsExactly("Broken amount", "-1,5x", "2024-03-16", "3", "AMOUNT", "Invalid amount");
+        assertThat(records.get(2).toList()).containsExactly("Short row", "", "", "4", "AMOUNT", "Missing column");
+    }
+
+    @Test
+    void testAllRejectedRowsAreWrittenButOnlyTheFirstAreKept() throws IOException {
+        sharedData.setHasHeader(false);
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            rows.add(new String[]{"Row " + i, "invalid", "2024-03-15"});
+        }
+        sharedData.setRawData(rows);
+        Path target = directory.resolve("errors.csv");
+
+        try (ExpenseImportReport report = new ExpenseImportReport()) {
+            ExpensesConverter.transformImportData(sharedData, report);
+            report.saveErrors(target.toFile());
+
+            assertThat(report.getRejected()).isEqualTo(250);
+            assertThat(report.getErrors()).hasSize(100);
+            assertThat(report.getErrors().getLast().getRow()).isEqualTo(100);
+        }
+
+        List<String> lines = Files.readAllLines(target, ExpensesConverter.SOURCE_CHARSET);
+        assertThat(lines).hasSize(250);
+        assertThat(lines.getFirst()).isEqualTo("Row 0;invalid;2024-03-15;1;AMOUNT;Invalid amount");
+        assertThat(lines.getLast()).isEqualTo("Row 249;invalid;2024-03-15;250;AMOUNT;Invalid amount");
+    }
+
+    @Test
+    void testNoErrorFileWithoutRejectedRows() throws IOException {
+        sharedData.setRawData(List.<String[]>of(
+                new String[]{"title", "amount", "date"},
+                new String[]{"Groceries", "-12,50", "2024-03-15"}
+        ));
+        Path target = directory.resolve("errors.csv");
+
+        try (ExpenseImportReport report = new ExpenseImportReport()) {
+            ExpensesConverter.transformImportData(sharedData, report);
+            report.saveErrors(target.toFile());
+
+            assertThat(report.getErrorFile()).isNull();
+        }
+
+        assertThat(target).doesNotExist();
+    }
+}
@@ -0,0 +1,154 @@
+package com.ptda.tracker.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExpenseRowMapperTest {
+
+    private Locale defaultLocale;
+
+    @BeforeEach
+    void setUp() {
+        // Month names are read in the default locale, as SimpleDateFormat did
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.UK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void testParseDecimalReadsSignsAndBothSeparators() {
+        assertThat(ExpenseRowMapper.parseDecimal("12.5")).isEqualTo(12.5);
+        assertThat(ExpenseRowMapper.parseDecimal("12,5")).isEqualTo(12.5);
+        assertThat(ExpenseRowMapper.parseDecimal("-1 234,56")).isEqualTo(-1234.56);
+        assertThat(ExpenseRowMapper.parseDecimal("1 234,56")).isEqualTo(1234.56);
+        assertThat(ExpenseRowMapper.parseDecimal("+7")).isEqualTo(7);
+        assertThat(ExpenseRowMapper.parseDecimal("- 3")).isEqualTo(-3);
+        assertThat(ExpenseRowMapper.parseDecimal(".5")).isEqualTo(0.5);
+        assertThat(ExpenseRowMapper.parseDecimal("5.")).isEqualTo(5);
+        assertThat(ExpenseRowMapper.parseDecimal("0,00")).isZero();
+    }
+
+    @Test
+    void testParseDecimalFallsBackForExponentsAndLongNumbers() {
+        assertThat(ExpenseRowMapper.parseDecimal("1.5e3")).isEqualTo(1500);
+        assertThat(ExpenseRowMapper.parseDecimal("-2,5E-2")).isEqualTo(-0.025);
+        assertThat(ExpenseRowMapper.parseDecimal("1234567890123456789"))
+                .isEqualTo(Double.parseDouble("1234567890123456789"));
+        assertThat(ExpenseRowMapper.parseDecimal("0,1234567890123456789"))
+                .isEqualTo(Double.parseDouble("0.1234567890123456789"));
+        assertThat(ExpenseRowMapper.parseDecimal("99999999999999999999999999999999"))
+                .isEqualTo(1e32);
+    }
+
+    @Test
+    void testParseDecimalRoundsLikeParseDouble() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long mantissa = (long) (random.nextDouble() * 1e15);
+            int scale = random.nextInt(16);
+            String digits = String.format("%0" + (scale + 1) + "d", mantissa);
+            String value = (random.nextBoolean() ? "-" : "")
+                    + digits.substring(0, digits.length() - scale) + "." + digits.substring(digits.length() - scale);
+            assertThat(ExpenseRowMapper.parseDecimal(value)).as(value).isEqualTo(Double.parseDouble(value));
+        }
+    }
+
+    @Test
+    void testParseDecimalRejectsMalformedAmounts() {
+        for (String value : new String[]{"", "  ", "-", ",", "abc", "12 EUR", "1,234.56", "1.2.3", "5-", "--5", "+-5"}) {
+            assertThatThrownBy(() -> ExpenseRowMapper.parseDecimal(value)).as(value)
+                    .isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Test
+    void testDateParserReadsEachPattern() {
+        assertThat(parse("yyyy-MM-dd", "2024-03-15")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+        assertThat(parse("dd/MM/yyyy", "15/03/2024")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+        assertThat(parse("dd/MM/yyyy", "5/3/2024")).isEqualTo(LocalDateTime.of(2024, 3, 5, 0, 0));
+        assertThat(parse("MM/dd/yyyy", "03/15/2024")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+        assertThat(parse("dd-MM-yyyy HH:mm", "15-03-2024 14:30")).isEqualTo(LocalDateTime.of(2024, 3, 15, 14, 30));
+        assertThat(parse("yyyy-MM-dd'T'HH:mm:ss", "2024-03-15T14:30:05"))
+                .isEqualTo(LocalDateTime.of(2024, 3, 15, 14, 30, 5));
+        assertThat(parse("dd MMM yyyy", "15 Mar 2024")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+        assertThat(parse("yyyy-MM-dd", " 2024-03-15 ")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+    }
+
+    @Test
+    void testDateParserKeepsTheLenienceOfSimpleDateFormat() {
+        assertThat(parse("dd MMM yyyy", "15 MAR 2024")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+        assertThat(parse("dd MMM yyyy", "15 mar 2024")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+        assertThat(parse("yyyy-MM-dd", "2024-03-15 10:00 card")).isEqualTo(LocalDateTime.of(2024, 3, 15, 0, 0));
+        assertThat(parse("yyyy-MM", "2024-03")).isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+        assertThat(parse("MMM yyyy", "Mar 2024")).isEqualTo(LocalDateTime.of(2024, 3, 1, 0, 0));
+        assertThat(parse("yyyy", "2024")).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(parse("yyyy-MM-dd", "2023-02-30")).isEqualTo(LocalDateTime.of(2023, 3, 2, 0, 0));
+        assertThat(parse("dd/MM/yy", "01/02/95")).isEqualTo(LocalDateTime.of(1995, 2, 1, 0, 0));
+        assertThat(parse("dd/MM/yy", "01/02/24")).isEqualTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    void testDateParserMatchesSimpleDateFormat() throws ParseException {
+        String[][] cases = {
+                {"yyyy-MM-dd", "2024-12-31"},
+                {"dd/MM/yyyy", "1/1/2024"},
+                {"dd.MM.yyyy HH:mm", "29.02.2024 23:59"},
+                {"dd MMM yyyy", "1 jan 2024"},
+                {"MMMM d, yyyy", "march 5, 2024"},
+                {"yyyy-MM-dd", "2024-01-32"},
+                {"MM/yyyy", "13/2024"},
+                {"yyyy-MM-dd", "2024-06-01;rest"},
+                {"dd/MM/yy", "31/12/99"},
+        };
+        for (String[] testCase : cases) {
+            Date expected = new SimpleDateFormat(testCase[0]).parse(testCase[1]);
+            assertThat(ExpenseRowMapper.dateParser(testCase[0]).parse(testCase[1]))
+                    .as("%s as %s", testCase[1], testCase[0])
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testDateParserRejectsValuesThatDoNotMatch() {
+        String[][] cases = {
+                {"yyyy-MM-dd", "15/03/2024"},
+                {"dd/MM/yyyy", "2024-03-15"},
+                {"yyyy-MM-dd", "not a date"},
+                {"dd MMM yyyy", "15 Foo 2024"},
+                {"dd/MM/yy", "yesterday"},
+        };
+        for (String[] testCase : cases) {
+            ExpenseRowMapper.DateParser parser = ExpenseRowMapper.dateParser(testCase[0]);
+            assertThatThrownBy(() -> parser.parse(testCase[1])).as("%s as %s", testCase[1], testCase[0])
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid date: " + testCase[1]);
+        }
+    }
+
+    @Test
+    void testDateParserLeavesEmptyDatesUnset() {
+        assertThat(ExpenseRowMapper.dateParser("yyyy-MM-dd").parse(null)).isNull();
+        assertThat(ExpenseRowMapper.dateParser("yyyy-MM-dd").parse("  ")).isNull();
+        assertThat(ExpenseRowMapper.dateParser(null).parse("2024-03-15")).isNull();
+    }
+
+    private static LocalDateTime parse(String pattern, String value) {
+        return LocalDateTime.ofInstant(ExpenseRowMapper.dateParser(pattern).parse(value).toInstant(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,110 @@
+package com.ptda.tracker.util;
+
+import com.ptda.tracker.models.tracker.Expense;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpensesConverterTest {
+
+    @TempDir
+    Path directory;
+
+    private Path source;
+    private ExpensesImportSharedData sharedData;
+
+    @BeforeEach
+    void setUp() {
+        source = directory.resolve("expenses.csv");
+        sharedData = new ExpensesImportSharedData();
+        sharedData.setSourceFile(source.toFile());
+        sharedData.setHasHeader(true);
+        sharedData.setColumnMapping(new HashMap<>(Map.of("TITLE", 0, "AMOUNT", 1, "DATE", 2, "CATEGORY", 3)));
+        sharedData.setDateFormat("yyyy-MM-dd");
+    }
+
+    @Test
+    void testStreamedImportIsPassedOnInBatchesWhileTheFileIsRead() throws IOException {
+        writeRows(2000);
+        List<Integer> batchSizes = new ArrayList<>();
+
+        int imported;
+        try (ExpenseImportReport report = new ExpenseImportReport()) {
+            imported = ExpensesConverter.streamImportData(sharedData, 500, report, batch -> {
+                if (batchSizes.isEmpty()) {
+                    // Only seen if the rest of the file is read after the first batch was imported
+                    appendRows(2000, 100);
+                }
+                batchSizes.add(batch.size());
+            });
+            assertThat(report.getAccepted()).isEqualTo(2100);
+            assertThat(report.getRejected()).isZero();
+        }
+
+        assertThat(imported).isEqualTo(2100);
+        assertThat(batchSizes).containsExactly(500, 500, 500, 500, 100);
+    }
+
+    @Test
+    void testBatchesKeepTheOrderOfTheRows() throws IOException {
+        writeRows(1200);
+        List<Expense> expenses = new ArrayList<>();
+
+        try (ExpenseImportReport report = new ExpenseImportReport()) {
+            ExpensesConverter.streamImportData(sharedData, 500, report, expenses::addAll);
+        }
+
+        assertThat(expenses).hasSize(1200);
+        assertThat(expenses.getFirst().getTitle()).isEqualTo("Expense 0");
+        assertThat(expenses.get(500).getTitle()).isEqualTo("Expense 500");
+        assertThat(expenses.getLast().getTitle()).isEqualTo("Expense 1199");
+    }
+
+    @Test
+    void testCategoriesAreCollectedFromTheWholeSourceInOrder() throws IOException {
+        writeRows(1200);
+        Files.writeString(source, "Última,1.00,2024-03-01,Saúde\n", ExpensesConverter.SOURCE_CHARSET,
+                StandardOpenOption.APPEND);
+
+        assertThat(ExpensesConverter.findCategories(sharedData))
+                .containsExactly("Food", "Transport", "Home", "Saúde");
+    }
+
+    @Test
+    void testNoCategoriesWithoutACategoryColumn() throws IOException {
+        writeRows(10);
+        sharedData.getColumnMapping().remove("CATEGORY");
+
+        assertThat(ExpensesConverter.findCategories(sharedData)).isEmpty();
+    }
+
+    private void writeRows(int count) throws IOException {
+        Files.writeString(source, "title,amount,date,category\n", ExpensesConverter.SOURCE_CHARSET);
+        appendRows(0, count);
+    }
+
+    private void appendRows(int from, int count) {
+        String[] categories = {"Food", "Transport", "Home"};
+        StringBuilder rows = new StringBuilder();
+        for (int i = from; i < from + count; i++) {
+            rows.append("Expense ").append(i).append(",12.50,2024-01-15,").append(categories[i % categories.length]).append('\n');
+        }
+        try {
+            Files.writeString(source, rows, ExpensesConverter.SOURCE_CHARSET, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}